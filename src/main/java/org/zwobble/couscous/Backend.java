@@ -1,10 +1,11 @@
 package org.zwobble.couscous;
 
 import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.OutputDirectory;
 
 import java.io.IOException;
 import java.util.List;
 
 public interface Backend {
-    void compile(List<TypeNode> classes) throws IOException;
+    OutputDirectory.Summary compile(List<TypeNode> classes) throws IOException;
 }
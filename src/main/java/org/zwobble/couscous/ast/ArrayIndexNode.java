@@ -0,0 +1,83 @@
+package org.zwobble.couscous.ast;
+
+import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.types.Type;
+
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class ArrayIndexNode implements AssignableExpressionNode {
+    public static ArrayIndexNode arrayIndex(ExpressionNode array, ExpressionNode index, Type type) {
+        return new ArrayIndexNode(array, index, type);
+    }
+
+    private final ExpressionNode array;
+    private final ExpressionNode index;
+    private final Type type;
+
+    public ArrayIndexNode(ExpressionNode array, ExpressionNode index, Type type) {
+        this.array = array;
+        this.index = index;
+        this.type = type;
+    }
+
+    public ExpressionNode getArray() {
+        return array;
+    }
+
+    public ExpressionNode getIndex() {
+        return index;
+    }
+
+    @Override
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public int nodeType() {
+        return NodeTypes.ARRAY_INDEX;
+    }
+
+    @Override
+    public Iterable<? extends Node> childNodes() {
+        return list(array, index);
+    }
+
+    @Override
+    public ExpressionNode transformSubtree(NodeTransformer transformer) {
+        return new ArrayIndexNode(
+            transformer.transformExpression(array),
+            transformer.transformExpression(index),
+            transformer.transform(type));
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayIndexNode(" +
+            "array=" + array +
+            ", index=" + index +
+            ", type=" + type +
+            ')';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ArrayIndexNode that = (ArrayIndexNode) o;
+
+        if (!array.equals(that.array)) return false;
+        if (!index.equals(that.index)) return false;
+        return type.equals(that.type);
+
+    }
+
+    @Override
+    public int hashCode() {
+        int result = array.hashCode();
+        result = 31 * result + index.hashCode();
+        result = 31 * result + type.hashCode();
+        return result;
+    }
+}
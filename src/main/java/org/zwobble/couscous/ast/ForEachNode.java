@@ -35,7 +35,7 @@ public class ForEachNode implements StatementNode {
 
     @Override
     public Iterable<? extends Node> childNodes() {
-        return ExtraIterables.of(iterable);
+        return ExtraIterables.lazyCons(iterable, statements);
     }
 
     @Override
@@ -4,12 +4,12 @@ import org.zwobble.couscous.ast.sugar.AnonymousClass;
 import org.zwobble.couscous.ast.sugar.SwitchCaseNode;
 import org.zwobble.couscous.ast.sugar.SwitchNode;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NodeTypes {
     private static int count = 0;
-    private static final Map<Class<? extends Node>, Integer> NODE_TYPES = new HashMap<>();
+    private static final Map<Class<? extends Node>, Integer> NODE_TYPES = new ConcurrentHashMap<>();
 
     public static synchronized int register(Class<? extends Node> node) {
         NODE_TYPES.put(node, count);
@@ -53,10 +53,19 @@ public class NodeTypes {
     public static final int FOR_EACH = register(ForEachNode.class);
     public static final int STATEMENT_BLOCK = register(StatementBlockNode.class);
     public static final int ANONYMOUS_CLASS = register(AnonymousClass.class);
+    public static final int ARRAY_INDEX = register(ArrayIndexNode.class);
 
     private NodeTypes() {
     }
 
+    /**
+     * The number of node types registered so far. Node types defined outside
+     * of the AST, such as by a backend, may still be registered later.
+     */
+    public static synchronized int count() {
+        return count;
+    }
+
     public static int forClass(Class<?> nodeClass) {
         if (NODE_TYPES.containsKey(nodeClass)) {
             return NODE_TYPES.get(nodeClass);
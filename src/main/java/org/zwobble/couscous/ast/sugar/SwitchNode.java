@@ -1,15 +1,21 @@
 package org.zwobble.couscous.ast.sugar;
 
 import org.zwobble.couscous.ast.ExpressionNode;
+import org.zwobble.couscous.ast.LiteralNode;
 import org.zwobble.couscous.ast.Node;
 import org.zwobble.couscous.ast.NodeTypes;
 import org.zwobble.couscous.ast.StatementNode;
 import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.util.ExtraLists;
 
 import java.util.List;
 
+import static org.zwobble.couscous.ast.sugar.SwitchCaseNode.switchCase;
 import static org.zwobble.couscous.util.ExtraIterables.lazyCons;
+import static org.zwobble.couscous.util.ExtraIterables.lazyFlatMap;
 import static org.zwobble.couscous.util.ExtraLists.eagerMap;
+import static org.zwobble.couscous.util.Tails.tails;
+import static org.zwobble.couscous.util.UpToAndIncludingIterable.upToAndIncluding;
 
 public class SwitchNode implements StatementNode {
     private final ExpressionNode value;
@@ -28,6 +34,31 @@ public class SwitchNode implements StatementNode {
         return cases;
     }
 
+    /**
+     * The cases of the switch, where the statements of each case are followed
+     * by the statements that it falls through to, up to and including the
+     * first return or throw.
+     */
+    public List<SwitchCaseNode> getCasesWithFallthrough() {
+        return eagerMap(
+            tails(cases),
+            remainingCases -> switchCase(
+                remainingCases.get(0).getValue(),
+                ExtraLists.copyOf(upToAndIncluding(
+                    lazyFlatMap(remainingCases, SwitchCaseNode::getStatements),
+                    SwitchNode::isEndOfCase))));
+    }
+
+    public boolean hasLiteralCases() {
+        return cases.stream().allMatch(switchCase -> switchCase.getValue()
+            .map(value -> value instanceof LiteralNode)
+            .orElse(true));
+    }
+
+    private static boolean isEndOfCase(StatementNode statement) {
+        return statement.nodeType() == NodeTypes.RETURN || statement.nodeType() == NodeTypes.THROW;
+    }
+
     @Override
     public int nodeType() {
         return NodeTypes.SWITCH;
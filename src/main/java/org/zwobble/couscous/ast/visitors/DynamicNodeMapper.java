@@ -3,8 +3,8 @@ package org.zwobble.couscous.ast.visitors;
 import net.bytebuddy.implementation.bytecode.member.MethodReturn;
 import org.zwobble.couscous.ast.Node;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -12,7 +12,7 @@ import static org.zwobble.couscous.util.ExtraMaps.entry;
 
 public class DynamicNodeMapper {
     private static final Map<Map.Entry<Class<?>, String>, Function<?, Function>> VISITOR_BUILDERS
-        = new HashMap<>();
+        = new ConcurrentHashMap<>();
 
     // TODO: check return type -- at the very least, check the methods are consistent.
     public static <T, R> Function<Node, R> instantiate(T visitor, String methodName) {
@@ -30,7 +30,10 @@ public class DynamicNodeMapper {
         Function builder = VISITOR_BUILDERS.get(key);
         if (builder == null) {
             builder = DynamicNodeVisitor.buildClassSupplier(visitorClass, Function.class, methodName, MethodReturn.REFERENCE);
-            VISITOR_BUILDERS.put(key, builder);
+            Function existing = VISITOR_BUILDERS.putIfAbsent(key, builder);
+            if (existing != null) {
+                builder = existing;
+            }
         }
         return builder;
     }
@@ -26,6 +26,7 @@ import org.zwobble.couscous.util.asm.TypeDescriptions;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -85,14 +86,17 @@ import static org.zwobble.couscous.util.ExtraMaps.entry;
  */
 public class DynamicNodeVisitor {
     private static final Map<Map.Entry<Class<?>, String>, Function<?, Consumer>> VISITOR_BUILDERS
-        = new HashMap<>();
+        = new ConcurrentHashMap<>();
 
     public static <T> Consumer<Node> instantiate(T visitor, String methodName) {
         Map.Entry<Class<?>, String> key = entry(visitor.getClass(), methodName);
         Function builder = VISITOR_BUILDERS.get(key);
         if (builder == null) {
             builder = buildClassSupplier(visitor.getClass(), Consumer.class, methodName, MethodReturn.VOID);
-            VISITOR_BUILDERS.put(key, builder);
+            Function existing = VISITOR_BUILDERS.putIfAbsent(key, builder);
+            if (existing != null) {
+                builder = existing;
+            }
         }
         return (Consumer<Node>) builder.apply(visitor);
     }
@@ -0,0 +1,238 @@
+package org.zwobble.couscous.backends;
+
+import com.google.common.hash.Hashing;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.zwobble.couscous.util.ExtraLists.eagerMap;
+
+/**
+ * The files written by a single compilation. Files can be written from
+ * multiple threads.
+ *
+ * When writing only changed files, the hash of each file is recorded in a
+ * manifest in the root of the directory, or, for a single output file, in a
+ * manifest alongside that file. A file is left alone if its new
+ * contents have the same hash as recorded by the previous compilation, or,
+ * for files missing from the manifest, as the existing file. Files in the
+ * previous manifest that aren't written again are deleted when the
+ * compilation finishes.
+ */
+public class OutputDirectory {
+    public static final String MANIFEST = ".couscous-manifest";
+
+    public enum Mode {
+        OVERWRITE,
+        WRITE_IF_CHANGED
+    }
+
+    public interface Contents {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    public interface BinaryContents {
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    public static OutputDirectory open(Path root, Mode mode) throws IOException {
+        return open(root, root.resolve(MANIFEST), mode);
+    }
+
+    /**
+     * Open a directory that only a single output file is written into. Its
+     * manifest is named after the file, so that other outputs in the same
+     * directory are neither recorded nor deleted.
+     */
+    public static OutputDirectory openFile(Path file, Mode mode) throws IOException {
+        return open(file.getParent(), file.resolveSibling(file.getFileName() + MANIFEST), mode);
+    }
+
+    private static OutputDirectory open(Path root, Path manifestPath, Mode mode) throws IOException {
+        return new OutputDirectory(
+            root,
+            manifestPath,
+            mode,
+            mode == Mode.WRITE_IF_CHANGED ? readManifest(manifestPath) : new HashMap<>());
+    }
+
+    private final Path root;
+    private final Path manifestPath;
+    private final Mode mode;
+    private final Map<String, String> previousHashes;
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+
+    private OutputDirectory(Path root, Path manifestPath, Mode mode, Map<String, String> previousHashes) {
+        this.root = root;
+        this.manifestPath = manifestPath;
+        this.mode = mode;
+        this.previousHashes = previousHashes;
+    }
+
+    public void write(Path path, Iterable<? extends CharSequence> lines) throws IOException {
+        // Matches the output of Files.write(path, lines)
+        write(path, writer -> {
+            for (CharSequence line : lines) {
+                writer.append(line);
+                writer.write(System.lineSeparator());
+            }
+        });
+    }
+
+    public void write(Path path, Contents contents) throws IOException {
+        writeBinary(path, output -> {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            contents.writeTo(writer);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Writes the contents straight to the file when overwriting. When only
+     * writing changed files, the contents are written into a buffer first so
+     * that they can be hashed.
+     */
+    public void writeBinary(Path path, BinaryContents contents) throws IOException {
+        if (mode == Mode.WRITE_IF_CHANGED) {
+            Buffer buffer = new Buffer();
+            contents.writeTo(buffer);
+            String relativePath = relativePath(path);
+            String hash = buffer.hash();
+            hashes.put(relativePath, hash);
+            if (Files.exists(path) && hash.equals(previousHash(relativePath, path))) {
+                unchanged.incrementAndGet();
+            } else {
+                Files.createDirectories(path.getParent());
+                try (OutputStream output = Files.newOutputStream(path)) {
+                    buffer.writeTo(output);
+                }
+                written.incrementAndGet();
+            }
+        } else {
+            Files.createDirectories(path.getParent());
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(path))) {
+                contents.writeTo(output);
+            }
+            written.incrementAndGet();
+        }
+    }
+
+    private String previousHash(String relativePath, Path path) throws IOException {
+        String hash = previousHashes.get(relativePath);
+        return hash == null ? hash(Files.readAllBytes(path)) : hash;
+    }
+
+    public Summary finish() throws IOException {
+        int deleted = 0;
+        if (mode == Mode.WRITE_IF_CHANGED) {
+            for (String relativePath : previousHashes.keySet()) {
+                if (!hashes.containsKey(relativePath)) {
+                    Path path = root.resolve(relativePath);
+                    if (Files.deleteIfExists(path)) {
+                        deleted++;
+                    }
+                    deleteEmptyDirectories(path.getParent());
+                }
+            }
+            writeManifest();
+        }
+        return new Summary(written.get(), unchanged.get(), deleted);
+    }
+
+    private void deleteEmptyDirectories(Path directory) throws IOException {
+        while (directory.startsWith(root) && !directory.equals(root)) {
+            try {
+                Files.delete(directory);
+            } catch (DirectoryNotEmptyException | NoSuchFileException exception) {
+                return;
+            }
+            directory = directory.getParent();
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        Map<String, String> sortedHashes = new TreeMap<>(hashes);
+        List<String> lines = eagerMap(sortedHashes.entrySet(), entry -> entry.getValue() + " " + entry.getKey());
+        Files.createDirectories(manifestPath.getParent());
+        if (!Files.exists(manifestPath) || !Files.readAllLines(manifestPath, StandardCharsets.UTF_8).equals(lines)) {
+            Files.write(manifestPath, lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> readManifest(Path path) throws IOException {
+        Map<String, String> hashes = new HashMap<>();
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                int separator = line.indexOf(' ');
+                if (separator != -1) {
+                    hashes.put(line.substring(separator + 1), line.substring(0, separator));
+                }
+            }
+        }
+        return hashes;
+    }
+
+    private String relativePath(Path path) {
+        return root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    private static String hash(byte[] contents) {
+        return Hashing.sha256().hashBytes(contents).toString();
+    }
+
+    private static class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(8192);
+        }
+
+        String hash() {
+            // Hashes the buffer in place, rather than a copy from toByteArray()
+            return Hashing.sha256().hashBytes(buf, 0, count).toString();
+        }
+    }
+
+    public static class Summary {
+        private final int written;
+        private final int unchanged;
+        private final int deleted;
+
+        public Summary(int written, int unchanged, int deleted) {
+            this.written = written;
+            this.unchanged = unchanged;
+            this.deleted = deleted;
+        }
+
+        public int getWritten() {
+            return written;
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        public int getDeleted() {
+            return deleted;
+        }
+
+        public String describe() {
+            return String.format("Wrote %d files, %d unchanged, deleted %d stale files", written, unchanged, deleted);
+        }
+    }
+}
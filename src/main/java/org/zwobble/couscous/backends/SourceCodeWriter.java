@@ -4,25 +4,57 @@ import com.google.common.base.Function;
 import com.google.common.base.Strings;
 import org.zwobble.couscous.util.Action;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Iterator;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 
+/**
+ * Writes source code either to a string, or directly to a {@link Writer} so
+ * that whole files don't need to be held in memory.
+ */
 public class SourceCodeWriter {
     public interface WriterAction {
         void run(SourceCodeWriter writer);
     }
 
     private static final int SPACES_PER_INDENT = 4;
+    private static final String[] INDENTS = new String[32];
+
+    static {
+        for (int depth = 0; depth < INDENTS.length; depth++) {
+            INDENTS[depth] = Strings.repeat(" ", depth * SPACES_PER_INDENT);
+        }
+    }
+
+    private static final int BUFFER_SIZE = 8192;
     private final StringBuilder builder = new StringBuilder();
+    private final Optional<Writer> output;
 
     private final WriterAction blockStart;
     private final WriterAction blockEnd;
     private final Set<String> reservedIdentifiers;
     private final Function<String, String> mangleReservedIdentifier;
     private int depth = 0;
+    private char lastChar = 0;
 
     public SourceCodeWriter(WriterAction blockStart, WriterAction blockEnd, Set<String> reservedIdentifiers, Function<String, String> mangleReservedIdentifier) {
+        this(Optional.empty(), blockStart, blockEnd, reservedIdentifiers, mangleReservedIdentifier);
+    }
+
+    /**
+     * Source code is buffered and written to the output in chunks. Call
+     * {@link #flush()} once everything has been written.
+     */
+    public SourceCodeWriter(Writer output, WriterAction blockStart, WriterAction blockEnd, Set<String> reservedIdentifiers, Function<String, String> mangleReservedIdentifier) {
+        this(Optional.of(output), blockStart, blockEnd, reservedIdentifiers, mangleReservedIdentifier);
+    }
+
+    private SourceCodeWriter(Optional<Writer> output, WriterAction blockStart, WriterAction blockEnd, Set<String> reservedIdentifiers, Function<String, String> mangleReservedIdentifier) {
+        this.output = output;
         this.blockStart = blockStart;
         this.blockEnd = blockEnd;
         this.reservedIdentifiers = reservedIdentifiers;
@@ -30,63 +62,89 @@ public class SourceCodeWriter {
     }
     
     public String asString() {
+        if (output.isPresent()) {
+            throw new IllegalStateException("Source code was written to a Writer");
+        }
         return builder.toString();
     }
 
+    public void flush() throws IOException {
+        if (output.isPresent()) {
+            output.get().append(builder);
+            builder.setLength(0);
+        }
+    }
+
     public void writeInteger(int value) {
-        builder.append(value);
+        append(Integer.toString(value));
     }
 
     public void writeChar(char value) {
-        builder.append("'");
+        append('\'');
         if (value == '\'') {
-            builder.append("\\'");
-        } else if (value == '\n') {
-            builder.append("\\n");
-        } else if (value == '\r') {
-            builder.append("\\r");
-        } else if (value == '\t') {
-            builder.append("\\t");
+            append("\\'");
         } else {
-            builder.append(value);
+            appendEscaped(value);
         }
-        builder.append("'");
+        append('\'');
     }
 
     public void writeStringLiteral(String value) {
-        builder.append("\"");
-        builder.append(value
-            .replace("\\", "\\\\")
-            .replace("\"", "\\\"")
-            .replace("\n", "\\n")
-            .replace("\r", "\\r")
-            .replace("\t", "\\t"));
-        builder.append("\"");
+        append('"');
+        int start = 0;
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            if (character == '\\' || character == '"' || character == '\n' || character == '\r' || character == '\t') {
+                append(value, start, index);
+                if (character == '"') {
+                    append("\\\"");
+                } else {
+                    appendEscaped(character);
+                }
+                start = index + 1;
+            }
+        }
+        append(value, start, value.length());
+        append('"');
+    }
+
+    private void appendEscaped(char value) {
+        if (value == '\\') {
+            append("\\\\");
+        } else if (value == '\n') {
+            append("\\n");
+        } else if (value == '\r') {
+            append("\\r");
+        } else if (value == '\t') {
+            append("\\t");
+        } else {
+            append(value);
+        }
     }
 
     public void writeKeyword(String keyword) {
-        builder.append(keyword);
+        append(keyword);
     }
 
     public void writeSpace() {
-        builder.append(" ");
+        append(' ');
     }
 
     public void writeIdentifier(String name) {
         String nameToWrite = reservedIdentifiers.contains(name)
             ? mangleReservedIdentifier.apply(name)
             : name;
-        builder.append(nameToWrite);
+        append(nameToWrite);
     }
 
     public void writeSymbol(String symbol) {
-        builder.append(symbol);
+        append(symbol);
     }
 
     public void startBlock() {
         runAction(blockStart);
         indent();
-        builder.append("\n");
+        append('\n');
     }
 
     public void endBlock() {
@@ -113,12 +171,40 @@ public class SourceCodeWriter {
     }
 
     public void writeIndentation() {
-        builder.append(Strings.repeat(" ", depth * SPACES_PER_INDENT));
+        append(depth < INDENTS.length ? INDENTS[depth] : Strings.repeat(" ", depth * SPACES_PER_INDENT));
     }
 
     private void endStatement() {
-        if (builder.charAt(builder.length() - 1) != '\n') {
-            builder.append("\n");   
+        if (lastChar != '\n') {
+            append('\n');
+        }
+    }
+
+    private void append(String value) {
+        append(value, 0, value.length());
+    }
+
+    private void append(String value, int start, int end) {
+        if (start < end) {
+            builder.append(value, start, end);
+            lastChar = value.charAt(end - 1);
+            flushIfFull();
+        }
+    }
+
+    private void append(char value) {
+        builder.append(value);
+        lastChar = value;
+        flushIfFull();
+    }
+
+    private void flushIfFull() {
+        if (output.isPresent() && builder.length() >= BUFFER_SIZE) {
+            try {
+                flush();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
         }
     }
 
@@ -2,31 +2,88 @@ package org.zwobble.couscous.backends.csharp;
 
 import org.zwobble.couscous.Backend;
 import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.OutputDirectory;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.util.ParallelTasks;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.util.List;
 
-import static com.google.common.collect.Iterables.transform;
+import static org.zwobble.couscous.util.ExtraLists.list;
 
 public class CsharpBackend implements Backend {
-    private final Path outputFilePath;
+    /**
+     * Writes each type to its own file, in a directory for each part of its
+     * namespace, so that types can be serialized in parallel and the C#
+     * compiler can skip files that haven't changed.
+     */
+    public static CsharpBackend filePerType(
+        Path outputDirectory,
+        String namespace,
+        int threads,
+        OutputDirectory.Mode outputMode)
+    {
+        return new CsharpBackend(outputDirectory, namespace, true, threads, outputMode);
+    }
+
+    private final Path output;
     private final String namespace;
+    private final boolean filePerType;
+    private final int threads;
+    private final OutputDirectory.Mode outputMode;
 
     public CsharpBackend(Path outputFilePath, String namespace) {
-        this.outputFilePath = outputFilePath;
+        this(outputFilePath, namespace, OutputDirectory.Mode.OVERWRITE);
+    }
+
+    public CsharpBackend(Path outputFilePath, String namespace, OutputDirectory.Mode outputMode) {
+        this(outputFilePath, namespace, false, 1, outputMode);
+    }
+
+    private CsharpBackend(
+        Path output,
+        String namespace,
+        boolean filePerType,
+        int threads,
+        OutputDirectory.Mode outputMode)
+    {
+        this.output = output;
         this.namespace = namespace;
+        this.filePerType = filePerType;
+        this.threads = threads;
+        this.outputMode = outputMode;
     }
 
     @Override
-    public void compile(List<TypeNode> classes) throws IOException {
-        outputFilePath.getParent().toFile().mkdirs();
-        Files.write(
-            outputFilePath,
-            transform(
-                CsharpCodeGenerator.generateCode(classes, namespace),
-                CsharpSerializer::serialize));
+    public OutputDirectory.Summary compile(List<TypeNode> classes) throws IOException {
+        List<TypeNode> types = CsharpCodeGenerator.generateCode(classes, namespace);
+        if (filePerType) {
+            OutputDirectory outputDirectory = OutputDirectory.open(output, outputMode);
+            ParallelTasks.forEach(types, threads, type -> outputDirectory.write(
+                pathForType(type.getName()),
+                writer -> writeTypes(list(type), writer)));
+            return outputDirectory.finish();
+        } else {
+            OutputDirectory outputDirectory = OutputDirectory.openFile(output, outputMode);
+            outputDirectory.write(output, writer -> writeTypes(types, writer));
+            return outputDirectory.finish();
+        }
+    }
+
+    private static void writeTypes(List<TypeNode> types, Writer writer) throws IOException {
+        for (TypeNode type : types) {
+            CsharpSerializer.serialize(type, writer);
+            writer.write(System.lineSeparator());
+        }
     }
 
+    private Path pathForType(ScalarType name) {
+        Path directory = output;
+        for (String part : name.getPackage().get().split("\\.")) {
+            directory = directory.resolve(part);
+        }
+        return directory.resolve(String.join(".", name.getTypeNames()) + ".cs");
+    }
 }
@@ -1,7 +1,12 @@
 package org.zwobble.couscous.backends.csharp;
 
 import com.google.common.collect.ImmutableMap;
+import org.zwobble.couscous.ast.AssignmentNode;
+import org.zwobble.couscous.ast.ForEachNode;
+import org.zwobble.couscous.ast.TypeCoercionNode;
 import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.ast.VariableReferenceNode;
+import org.zwobble.couscous.ast.structure.NodeStructure;
 import org.zwobble.couscous.ast.visitors.NodeTransformer;
 import org.zwobble.couscous.backends.csharp.primitives.CsharpPrimitiveMethods;
 import org.zwobble.couscous.backends.naming.Naming;
@@ -11,6 +16,7 @@ import org.zwobble.couscous.types.*;
 import java.util.List;
 import java.util.Map;
 
+import static org.zwobble.couscous.util.Casts.tryCast;
 import static org.zwobble.couscous.util.ExtraLists.eagerMap;
 import static org.zwobble.couscous.util.ExtraLists.list;
 
@@ -49,8 +55,8 @@ public class CsharpCodeGenerator {
         return SplitStaticsFromInterface.transform(
             NodeTransformer.applyAll(
                 list(
-                    DesugarForEachToFor.transformer(),
-                    DesugarForToWhile.transformer(),
+                    DesugarForEachToFor.transformer(forEach -> !canWriteAsForeach(forEach)),
+                    FoldConstants.transformer(),
                     CsharpPrimitiveMethods.TRANSFORMER,
                     nodeTransformer
                 ),
@@ -59,6 +65,25 @@ public class CsharpCodeGenerator {
         );
     }
 
+    /**
+     * Loops over arrays are written as a C# foreach, with the coercion of the
+     * array to an iterable written as just the array. Other iterables only
+     * have Java's iterator methods, and C# doesn't allow assigning to the
+     * iteration variable, so other loops are desugared.
+     */
+    private static boolean canWriteAsForeach(ForEachNode forEach) {
+        boolean iteratesOverArray = tryCast(TypeCoercionNode.class, forEach.getIterable())
+            .filter(coercion -> Types.erasure(coercion.getExpression().getType()).equals(Types.ARRAY))
+            .isPresent();
+        boolean assignsTarget = forEach.getStatements().stream()
+            .flatMap(NodeStructure::descendantNodesAndSelf)
+            .anyMatch(node -> tryCast(AssignmentNode.class, node)
+                .flatMap(assignment -> tryCast(VariableReferenceNode.class, assignment.getTarget()))
+                .filter(reference -> reference.getReferent().equals(forEach.getTarget()))
+                .isPresent());
+        return iteratesOverArray && !assignsTarget;
+    }
+
     private Type transformType(Type type) {
         return type.accept(new Type.Visitor<Type>() {
             @Override
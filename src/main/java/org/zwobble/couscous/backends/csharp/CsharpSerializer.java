@@ -13,7 +13,11 @@ import org.zwobble.couscous.types.*;
 import org.zwobble.couscous.util.Action;
 import org.zwobble.couscous.values.PrimitiveValue;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -115,14 +119,8 @@ public class CsharpSerializer {
 
     public static String serialize(Node node) {
         SourceCodeWriter writer = new SourceCodeWriter(
-            (writer2) -> {
-                writer2.writeSpace();
-                writer2.writeSymbol("{");
-            },
-            (writer2) -> {
-                writer2.writeIndentation();
-                writer2.writeSymbol("}");
-            },
+            CsharpSerializer::writeBlockStart,
+            CsharpSerializer::writeBlockEnd,
             RESERVED_IDENTIFIERS,
             identifier -> "@" + identifier
         );
@@ -132,6 +130,32 @@ public class CsharpSerializer {
         return writer.asString();
     }
 
+    public static void serialize(Node node, Writer output) throws IOException {
+        SourceCodeWriter writer = new SourceCodeWriter(
+            output,
+            CsharpSerializer::writeBlockStart,
+            CsharpSerializer::writeBlockEnd,
+            RESERVED_IDENTIFIERS,
+            identifier -> "@" + identifier
+        );
+        try {
+            new CsharpSerializer(writer).write(node);
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeBlockStart(SourceCodeWriter writer) {
+        writer.writeSpace();
+        writer.writeSymbol("{");
+    }
+
+    private static void writeBlockEnd(SourceCodeWriter writer) {
+        writer.writeIndentation();
+        writer.writeSymbol("}");
+    }
+
     private final SourceCodeWriter writer;
     private final Consumer<Node> write;
 
@@ -214,6 +238,13 @@ public class CsharpSerializer {
         writer.writeSymbol("}");
     }
 
+    public void visit(ArrayIndexNode arrayIndex) {
+        writeParenthesized(arrayIndex.getArray(), arrayIndex);
+        writer.writeSymbol("[");
+        write(arrayIndex.getIndex());
+        writer.writeSymbol("]");
+    }
+
     public void visit(AssignmentNode assignment) {
         write(assignment.getTarget());
         writer.writeSpace();
@@ -393,26 +424,120 @@ public class CsharpSerializer {
             write(switchNode.getValue());
             writer.writeSymbol(")");
             writer.startBlock();
-            switchNode.getCases().forEach(this::visit);
+            List<SwitchCaseNode> cases = switchNode.getCases();
+            for (int index = 0; index < cases.size(); index++) {
+                Optional<SwitchCaseNode> nextCase = index + 1 < cases.size()
+                    ? Optional.of(cases.get(index + 1))
+                    : Optional.empty();
+                visit(cases.get(index), nextCase);
+            }
             writer.endBlock();
         });
     }
 
-    private void visit(SwitchCaseNode switchCase) {
+    /**
+     * C# doesn't allow control to fall through from one non-empty case to the
+     * next, so a case that would fall through ends by jumping to the next case
+     * instead, or breaks if it's the last case. Since all cases share a
+     * declaration space, the statements of each case are written in their own
+     * block.
+     */
+    private void visit(SwitchCaseNode switchCase, Optional<SwitchCaseNode> nextCase) {
+        List<StatementNode> statements = switchCase.getStatements();
+        writer.writeStatement(() -> {
+            writeSwitchLabel(switchCase);
+            if (!statements.isEmpty() || !nextCase.isPresent()) {
+                writer.startBlock();
+                writeAll(statements);
+                if (statements.isEmpty() || !isEndOfCase(statements.get(statements.size() - 1))) {
+                    writer.writeStatement(() -> {
+                        if (nextCase.isPresent()) {
+                            writeGotoCase(nextCase.get());
+                        } else {
+                            writer.writeKeyword("break");
+                        }
+                        writer.writeSymbol(";");
+                    });
+                }
+                writer.endBlock();
+            }
+        });
+    }
+
+    private void writeSwitchLabel(SwitchCaseNode switchCase) {
+        if (switchCase.getValue().isPresent()) {
+            writer.writeKeyword("case");
+            writer.writeSpace();
+            write(switchCase.getValue().get());
+        } else {
+            writer.writeKeyword("default");
+        }
+        writer.writeSymbol(":");
+    }
+
+    private void writeGotoCase(SwitchCaseNode switchCase) {
+        writer.writeKeyword("goto");
+        writer.writeSpace();
+        if (switchCase.getValue().isPresent()) {
+            writer.writeKeyword("case");
+            writer.writeSpace();
+            write(switchCase.getValue().get());
+        } else {
+            writer.writeKeyword("default");
+        }
+    }
+
+    private static boolean isEndOfCase(StatementNode statement) {
+        return statement.nodeType() == NodeTypes.RETURN || statement.nodeType() == NodeTypes.THROW;
+    }
+
+    public void visit(ForNode forLoop) {
         writer.writeStatement(() -> {
-            if (switchCase.getValue().isPresent()) {
-                writer.writeKeyword("case");
+            writer.writeKeyword("for");
+            writer.writeSpace();
+            writer.writeSymbol("(");
+            List<LocalVariableDeclarationNode> initializers = forLoop.getInitializers();
+            if (!initializers.isEmpty()) {
+                writeTypeReference(initializers.get(0).getType());
                 writer.writeSpace();
-                write(switchCase.getValue().get());
-            } else {
-                writer.writeKeyword("default");
+                writer.writeCommaSeparated(initializers, initializer -> {
+                    writer.writeIdentifier(initializer.getName());
+                    writer.writeSpace();
+                    writer.writeSymbol("=");
+                    writer.writeSpace();
+                    write(initializer.getInitialValue());
+                });
             }
-            writer.writeSymbol(":");
+            writer.writeSymbol(";");
+            writer.writeSpace();
+            write(forLoop.getCondition());
+            writer.writeSymbol(";");
+            if (!forLoop.getUpdaters().isEmpty()) {
+                writer.writeSpace();
+                writer.writeCommaSeparated(forLoop.getUpdaters(), this::write);
+            }
+            writer.writeSymbol(")");
+
+            writeBlock(forLoop.getStatements());
         });
-        writer.indent();
-        writeAll(switchCase.getStatements());
-        writer.dedent();
+    }
 
+    public void visit(ForEachNode forEach) {
+        writer.writeStatement(() -> {
+            writer.writeKeyword("foreach");
+            writer.writeSpace();
+            writer.writeSymbol("(");
+            writeTypeReference(forEach.getTarget().getType());
+            writer.writeSpace();
+            writer.writeIdentifier(forEach.getTarget().getName());
+            writer.writeSpace();
+            writer.writeKeyword("in");
+            writer.writeSpace();
+            write(forEach.getIterable());
+            writer.writeSymbol(")");
+
+            writeBlock(forEach.getStatements());
+        });
     }
 
     public void visit(WhileNode whileLoop) {
@@ -759,6 +884,10 @@ public class CsharpSerializer {
             return Integer.MAX_VALUE;
         }
 
+        public Integer visit(ArrayIndexNode arrayIndex) {
+            return 15;
+        }
+
         public Integer visit(AssignmentNode assignment) {
             return 1;
         }
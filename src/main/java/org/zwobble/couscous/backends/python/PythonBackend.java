@@ -5,17 +5,31 @@ import com.google.common.io.Resources;
 import org.zwobble.couscous.Backend;
 import org.zwobble.couscous.ast.TypeNode;
 import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.backends.OutputDirectory;
 import org.zwobble.couscous.transforms.*;
+import org.zwobble.couscous.util.ParallelTasks;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.zwobble.couscous.backends.python.PythonCodeGenerator.generateCode;
 import static org.zwobble.couscous.backends.python.PythonSerializer.serialize;
+import static org.zwobble.couscous.util.ExtraLists.concat;
 import static org.zwobble.couscous.util.ExtraLists.eagerMap;
 import static org.zwobble.couscous.util.ExtraLists.list;
 
@@ -27,33 +41,158 @@ public class PythonBackend implements Backend {
         "java.util.Arrays",
         "_couscous");
     
+    // Fixed so that bundles with the same modules have the same bytes
+    private static final long BUNDLE_ENTRY_TIME = new GregorianCalendar(1980, Calendar.JANUARY, 1).getTimeInMillis();
+
+    public static Builder builder(Path root, String packageName) {
+        return new Builder(root, packageName);
+    }
+
+    public static class Builder {
+        private final Path root;
+        private final String packageName;
+        private boolean bundle;
+        private boolean lazyImports;
+        private int threads;
+        private OutputDirectory.Mode outputMode;
+
+        private Builder(Path root, String packageName) {
+            this.root = root;
+            this.packageName = packageName;
+            this.bundle = false;
+            this.lazyImports = false;
+            this.threads = ParallelTasks.defaultThreads();
+            this.outputMode = OutputDirectory.Mode.OVERWRITE;
+        }
+
+        /**
+         * Write all of the modules, their packages and the runtime into a
+         * single zip archive at the root path, which can be imported by
+         * adding it to {@code sys.path}.
+         */
+        public Builder bundle() {
+            bundle = true;
+            return this;
+        }
+
+        /**
+         * Import classes used only by methods when they're first used,
+         * rather than when the module is imported.
+         */
+        public Builder lazyImports() {
+            lazyImports = true;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder outputMode(OutputDirectory.Mode outputMode) {
+            this.outputMode = outputMode;
+            return this;
+        }
+
+        public PythonBackend build() {
+            return new PythonBackend(root, packageName, bundle, lazyImports, threads, outputMode);
+        }
+    }
+    
     private final Path root;
     private final String packageName;
+    private final boolean bundle;
+    private final boolean lazyImports;
+    private final int threads;
+    private final OutputDirectory.Mode outputMode;
     
     public PythonBackend(Path root, String packageName) {
+        this(root, packageName, false, false, ParallelTasks.defaultThreads(), OutputDirectory.Mode.OVERWRITE);
+    }
+
+    private PythonBackend(
+        Path root,
+        String packageName,
+        boolean bundle,
+        boolean lazyImports,
+        int threads,
+        OutputDirectory.Mode outputMode)
+    {
         this.root = root;
         this.packageName = packageName;
+        this.bundle = bundle;
+        this.lazyImports = lazyImports;
+        this.threads = threads;
+        this.outputMode = outputMode;
     }
     
     @Override
-    public void compile(List<TypeNode> classes) throws IOException {
-        for (TypeNode classNode : desugar(classes)) {
-            writeClass(classNode);
+    public OutputDirectory.Summary compile(List<TypeNode> classes) throws IOException {
+        List<TypeNode> desugaredClasses = desugar(classes);
+        if (bundle) {
+            OutputDirectory output = OutputDirectory.openFile(root, outputMode);
+            Map<String, byte[]> entries = new ConcurrentSkipListMap<>();
+            writeModules(desugaredClasses, (path, contents) -> entries.put(bundleEntryName(path), encode(contents)));
+            output.writeBinary(root, stream -> writeBundle(entries, stream));
+            return output.finish();
+        } else {
+            OutputDirectory output = OutputDirectory.open(root, outputMode);
+            writeModules(desugaredClasses, output::write);
+            return output.finish();
         }
+    }
+
+    private interface ModuleWriter {
+        void write(Path path, OutputDirectory.Contents contents) throws IOException;
+    }
+
+    private void writeModules(List<TypeNode> classes, ModuleWriter output) throws IOException {
+        // Packages are shared between modules, so they're all created up
+        // front rather than by each module as it's written
+        createPythonPackages(output, concat(
+            eagerMap(classes, classNode -> classNode.getName().getQualifiedName()),
+            RUNTIME_FILES));
+        ParallelTasks.forEach(classes, threads, classNode -> writeClass(output, classNode));
         for (String runtimeFile : RUNTIME_FILES) {
             String path = relativePathForModule(runtimeFile);
             writeModule(
+                output,
                 runtimeFile,
                 Resources.toString(Resources.getResource("org/zwobble/couscous/backends/python/runtime/" + path), StandardCharsets.UTF_8));
         }
     }
 
+    private String bundleEntryName(Path path) {
+        return root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    private static byte[] encode(OutputDirectory.Contents contents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8);
+        contents.writeTo(writer);
+        writer.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeBundle(Map<String, byte[]> entries, OutputStream stream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(stream);
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            ZipEntry zipEntry = new ZipEntry(entry.getKey());
+            zipEntry.setTime(BUNDLE_ENTRY_TIME);
+            zip.putNextEntry(zipEntry);
+            zip.write(entry.getValue());
+            zip.closeEntry();
+        }
+        // Finish rather than close, since the stream belongs to the caller
+        zip.finish();
+    }
+
     private List<TypeNode> desugar(List<TypeNode> classes) {
         return NodeTransformer.applyAll(
             list(
-                DesugarSwitchToIfElse.transformer(),
+                DesugarSwitchToIfElse.transformer(switchNode -> !PythonCodeGenerator.isTableSwitch(switchNode)),
                 DesugarForEachToFor.transformer(),
-                DesugarForToWhile.transformer()
+                FoldConstants.transformer()
             ),
             HoistNestedTypes.hoist(
                 eagerMap(classes, AnonymousClassToInnerClass::transform)
@@ -69,26 +208,30 @@ public class PythonBackend implements Backend {
         return moduleName.replace(".", File.separator) + ".py";
     }
     
-    private void writeClass(TypeNode classNode) throws IOException {
-        writeModule(
-            classNode.getName().getQualifiedName(),
-            serialize(generateCode(classNode)));
+    private void writeClass(ModuleWriter output, TypeNode classNode) throws IOException {
+        output.write(destinationPathForModule(classNode.getName().getQualifiedName()), writer -> {
+            serialize(generateCode(classNode, lazyImports), writer);
+            writer.write(System.lineSeparator());
+        });
     }
     
-    private void writeModule(String name, String contents) throws IOException {
-        Path path = destinationPathForModule(name);
-        Files.createDirectories(path.getParent());
-        createPythonPackages(path.getParent());
-        Files.write(path, list(contents));
+    private void writeModule(ModuleWriter output, String name, String contents) throws IOException {
+        output.write(destinationPathForModule(name), writer -> {
+            writer.write(contents);
+            writer.write(System.lineSeparator());
+        });
     }
     
-    private void createPythonPackages(Path packagePath) throws IOException {
-        while (packagePath.startsWith(root)) {
-            final java.nio.file.Path packageFile = packagePath.resolve("__init__.py");
-            if (!packageFile.toFile().exists()) {
-                Files.createFile(packageFile);
+    private void createPythonPackages(ModuleWriter output, List<String> moduleNames) throws IOException {
+        Set<Path> packagePaths = new TreeSet<>();
+        for (String moduleName : moduleNames) {
+            Path packagePath = destinationPathForModule(moduleName).getParent();
+            while (packagePath.startsWith(root) && packagePaths.add(packagePath)) {
+                packagePath = packagePath.getParent();
             }
-            packagePath = packagePath.getParent();
+        }
+        for (Path packagePath : packagePaths) {
+            output.write(packagePath.resolve("__init__.py"), writer -> {});
         }
     }
 }
@@ -4,18 +4,26 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
+import com.google.common.hash.Hashing;
 import org.zwobble.couscous.ast.*;
 import org.zwobble.couscous.ast.structure.NodeStructure;
+import org.zwobble.couscous.ast.sugar.SwitchCaseNode;
+import org.zwobble.couscous.ast.sugar.SwitchNode;
 import org.zwobble.couscous.ast.visitors.DynamicNodeMapper;
 import org.zwobble.couscous.backends.naming.Names;
 import org.zwobble.couscous.backends.python.ast.*;
+import org.zwobble.couscous.frontends.java.Scope;
+import org.zwobble.couscous.transforms.DesugarForToWhile;
+import org.zwobble.couscous.transforms.DesugarSwitchToIfElse;
 import org.zwobble.couscous.types.ScalarType;
 import org.zwobble.couscous.types.Type;
 import org.zwobble.couscous.types.Types;
+import org.zwobble.couscous.values.IntegerValue;
 import org.zwobble.couscous.values.InternalCouscousValue;
 import org.zwobble.couscous.values.PrimitiveValue;
 import org.zwobble.couscous.values.TypeValue;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -27,6 +35,7 @@ import static com.google.common.collect.Iterators.singletonIterator;
 import static java.util.Collections.emptyList;
 import static org.zwobble.couscous.ast.ExpressionStatementNode.expressionStatement;
 import static org.zwobble.couscous.ast.FormalArgumentNode.formalArg;
+import static org.zwobble.couscous.ast.LiteralNode.literal;
 import static org.zwobble.couscous.ast.ReturnNode.returns;
 import static org.zwobble.couscous.ast.ThisReferenceNode.thisReference;
 import static org.zwobble.couscous.ast.TypeCoercionNode.typeCoercion;
@@ -34,11 +43,14 @@ import static org.zwobble.couscous.ast.VariableDeclaration.var;
 import static org.zwobble.couscous.ast.VariableReferenceNode.reference;
 import static org.zwobble.couscous.backends.python.ast.PythonAssignmentNode.pythonAssignment;
 import static org.zwobble.couscous.backends.python.ast.PythonAttributeAccessNode.pythonAttributeAccess;
+import static org.zwobble.couscous.backends.python.ast.PythonBinaryOperation.pythonLessThan;
 import static org.zwobble.couscous.backends.python.ast.PythonBooleanLiteralNode.pythonBooleanLiteral;
 import static org.zwobble.couscous.backends.python.ast.PythonCallNode.pythonCall;
 import static org.zwobble.couscous.backends.python.ast.PythonClassNode.pythonClass;
 import static org.zwobble.couscous.backends.python.ast.PythonConditionalExpressionNode.pythonConditionalExpression;
+import static org.zwobble.couscous.backends.python.ast.PythonForNode.pythonFor;
 import static org.zwobble.couscous.backends.python.ast.PythonFunctionDefinitionNode.pythonFunctionDefinition;
+import static org.zwobble.couscous.backends.python.ast.PythonGetSliceNode.pythonGetSlice;
 import static org.zwobble.couscous.backends.python.ast.PythonIfStatementNode.pythonIfStatement;
 import static org.zwobble.couscous.backends.python.ast.PythonImportAliasNode.pythonImportAlias;
 import static org.zwobble.couscous.backends.python.ast.PythonImportNode.pythonImport;
@@ -56,14 +68,42 @@ import static org.zwobble.couscous.util.ExtraIterables.*;
 import static org.zwobble.couscous.util.ExtraLists.*;
 
 public class PythonCodeGenerator {
+    private static final int MIN_TABLE_SWITCH_CASES = 4;
+    private static final String SWITCH_INDEX = "_couscous_switch_index";
+
     public static PythonModuleNode generateCode(TypeNode typeNode) {
-        Iterator<PythonImportNode> imports = generateImports(typeNode).iterator();
+        return generateCode(typeNode, false);
+    }
+
+    /**
+     * When imports are lazy, classes that are only used by methods are bound
+     * to placeholders that import the class on first use, and then replace
+     * themselves with it. Classes used by the static constructor, which runs
+     * when the module is imported, and classes used as values, which need to
+     * be the real class, are still imported eagerly.
+     */
+    public static PythonModuleNode generateCode(TypeNode typeNode, boolean lazyImports) {
+        Set<ScalarType> referencedClasses = findReferencedClasses(typeNode);
+        Set<ScalarType> eagerClasses = lazyImports
+            ? findEagerlyReferencedClasses(typeNode)
+            : referencedClasses;
+        Iterator<PythonImportNode> imports = generateImports(typeNode, eagerClasses).iterator();
+        Iterator<PythonStatementNode> lazyImportBindings = referencedClasses.stream()
+            .filter(name -> !eagerClasses.contains(name) && isImportable(name) && !name.equals(typeNode.getName()))
+            .sorted(Comparator.comparing(ScalarType::getQualifiedName))
+            .map(name -> generateLazyImport(typeNode, name))
+            .iterator();
+        Iterator<PythonStatementNode> switchTables = generateSwitchTables(typeNode);
 
         PythonImportNode internalsImport = pythonImport(
             importPathToRoot(typeNode),
             list(pythonImportAlias("_couscous")));
 
         Optional<ClassNode> classNode = tryCast(ClassNode.class, typeNode);
+        List<? extends PythonStatementNode> slots = classNode
+            .map(node -> list(generateSlots(node)))
+            .orElse(list());
+
         List<? extends PythonStatementNode> constructor = classNode
             .map(node -> list(generateConstructor(node.getConstructor())))
             .orElse(list());
@@ -78,22 +118,38 @@ public class PythonCodeGenerator {
 
         PythonClassNode pythonClass = pythonClass(
             typeNode.getName().getSimpleName(),
-            ImmutableList.copyOf(Iterables.concat(constructor, pythonMethods)));
+            ImmutableList.copyOf(Iterables.concat(slots, constructor, pythonMethods)));
 
         return pythonModule(ImmutableList.copyOf(Iterators.concat(
             singletonIterator(pythonClass),
             imports,
             singletonIterator(internalsImport),
+            lazyImportBindings,
+            switchTables,
             staticConstructor.iterator())));
     }
 
-    private static Stream<PythonImportNode> generateImports(TypeNode classNode) {
-        Set<ScalarType> classes = findReferencedClasses(classNode);
+    private static Stream<PythonImportNode> generateImports(TypeNode classNode, Set<ScalarType> classes) {
         return classes.stream()
-            .filter(name -> !name.equals(InternalCouscousValue.REF))
+            .filter(PythonCodeGenerator::isImportable)
             .map(name -> pythonImport(importPathToRoot(classNode) + name.getQualifiedName(), list(pythonImportAlias(name.getSimpleName()))));
     }
 
+    private static boolean isImportable(ScalarType name) {
+        return !name.equals(InternalCouscousValue.REF);
+    }
+
+    private static PythonStatementNode generateLazyImport(TypeNode classNode, ScalarType name) {
+        return pythonAssignment(
+            pythonVariableReference(name.getSimpleName()),
+            pythonCall(
+                pythonAttributeAccess(pythonVariableReference("_couscous"), "_LazyImport"),
+                list(
+                    pythonCall(pythonVariableReference("globals"), list()),
+                    pythonStringLiteral(importPathToRoot(classNode) + name.getQualifiedName()),
+                    pythonStringLiteral(name.getSimpleName()))));
+    }
+
     private static String importPathToRoot(TypeNode classNode) {
         return Strings.repeat(".", packageDepth(classNode) + 1);
     }
@@ -115,6 +171,19 @@ public class PythonCodeGenerator {
             .collect(Collectors.toSet());
     }
 
+    private static Set<ScalarType> findEagerlyReferencedClasses(TypeNode classNode) {
+        Stream<Node> staticConstructor = tryCast(ClassNode.class, classNode)
+            .map(node -> node.getStaticConstructor().stream().flatMap(NodeStructure::descendantNodesAndSelf))
+            .orElse(Stream.empty());
+        Stream<ScalarType> typeLiterals = NodeStructure.descendantNodes(classNode)
+            .flatMap(node -> tryCast(LiteralNode.class, node)
+                .flatMap(literal -> tryCast(TypeValue.class, literal.getValue()))
+                .map(value -> Stream.of(value.getValue()))
+                .orElse(Stream.empty()));
+        return Stream.concat(staticConstructor.flatMap(FindDirectlyReferencedClasses.VISITOR), typeLiterals)
+            .collect(Collectors.toSet());
+    }
+
     public static class FindDirectlyReferencedClasses {
         private static final Function<Node, Stream<ScalarType>> VISITOR =
             DynamicNodeMapper.instantiate(new FindDirectlyReferencedClasses(), "visit");
@@ -184,6 +253,18 @@ public class PythonCodeGenerator {
         });
     }
 
+    /**
+     * Instances only ever have the fields declared by their class, including
+     * fields for captured variables, so they don't need a {@code __dict__}.
+     */
+    private static PythonStatementNode generateSlots(ClassNode classNode) {
+        return pythonAssignment(
+            pythonVariableReference("__slots__"),
+            pythonList(eagerMap(
+                filter(classNode.getFields(), field -> !field.isStatic()),
+                field -> pythonStringLiteral(field.getName()))));
+    }
+
     private static PythonFunctionDefinitionNode generateConstructor(ConstructorNode constructor) {
         Iterable<String> explicitArgumentNames = transform(constructor.getArguments(), argument -> argument.getName());
         Iterable<String> argumentNames = Iterables.concat(list("self"), explicitArgumentNames);
@@ -280,12 +361,189 @@ public class PythonCodeGenerator {
             ));
         }
 
+        public List<PythonStatementNode> visit(ForNode forLoop) {
+            return generateRangeLoop(forLoop)
+                .map(loop -> list((PythonStatementNode) loop))
+                .orElseGet(() -> generateStatements(DesugarForToWhile.desugar(forLoop)));
+        }
+
+        public List<PythonStatementNode> visit(SwitchNode switchNode) {
+            if (!isTableSwitch(switchNode)) {
+                Scope scope = Scope.create().temporaryPrefix("_couscous_desugar_switch_to_if");
+                return generateStatements(DesugarSwitchToIfElse.desugar(scope, switchNode));
+            }
+            List<List<StatementNode>> bodies = switchBodies(switchNode);
+            PythonAssignmentNode index = pythonAssignment(
+                pythonVariableReference(SWITCH_INDEX),
+                pythonCall(
+                    pythonAttributeAccess(pythonVariableReference(switchTableName(switchNode)), "get"),
+                    list(
+                        generateExpression(switchNode.getValue()),
+                        pythonIntegerLiteral(bodies.indexOf(defaultBody(switchNode))))));
+            return cons(index, generateSwitchBranches(bodies, 0, bodies.size()));
+        }
+
         public List<PythonStatementNode> visit(StatementBlockNode block) {
             // TODO: this doesn't handle separate variables in different blocks with the same name properly
             return generateStatements(block.getStatements());
         }
     }
 
+    /**
+     * Switches with enough cases are written as a lookup of the case index in
+     * a dict, built once when the module is imported, followed by a binary
+     * search on the index, rather than comparing the value against each case
+     * in turn. Cases that run the same statements, including after falling
+     * through, share an index.
+     */
+    public static boolean isTableSwitch(SwitchNode switchNode) {
+        Type type = switchNode.getValue().getType();
+        return (type.equals(Types.INT) || type.equals(Types.STRING)) &&
+            switchNode.hasLiteralCases() &&
+            Iterables.size(filter(switchNode.getCases(), switchCase -> !switchCase.isDefault())) >= MIN_TABLE_SWITCH_CASES;
+    }
+
+    private static Iterator<PythonStatementNode> generateSwitchTables(TypeNode typeNode) {
+        Map<String, PythonStatementNode> tables = new TreeMap<>();
+        NodeStructure.descendantNodes(typeNode)
+            .flatMap(node -> tryCast(SwitchNode.class, node).map(Stream::of).orElse(Stream.empty()))
+            .filter(PythonCodeGenerator::isTableSwitch)
+            .forEach(switchNode -> tables.put(
+                switchTableName(switchNode),
+                pythonAssignment(
+                    pythonVariableReference(switchTableName(switchNode)),
+                    pythonCall(
+                        pythonAttributeAccess(pythonVariableReference("_couscous"), "_switch_table"),
+                        list(pythonList(switchKeys(switchNode)), pythonList(switchIndices(switchNode)))))));
+        return tables.values().iterator();
+    }
+
+    private static String switchTableName(SwitchNode switchNode) {
+        String table = PythonSerializer.serialize(pythonList(switchKeys(switchNode))) +
+            PythonSerializer.serialize(pythonList(switchIndices(switchNode)));
+        return "_couscous_switch_" + Hashing.sha256().hashString(table, StandardCharsets.UTF_8).toString().substring(0, 16);
+    }
+
+    private static List<PythonExpressionNode> switchKeys(SwitchNode switchNode) {
+        return eagerMap(valueCases(switchNode.getCases()), switchCase -> generateExpression(switchCase.getValue().get()));
+    }
+
+    private static List<PythonExpressionNode> switchIndices(SwitchNode switchNode) {
+        List<List<StatementNode>> bodies = switchBodies(switchNode);
+        return eagerMap(
+            valueCases(switchNode.getCasesWithFallthrough()),
+            switchCase -> pythonIntegerLiteral(bodies.indexOf(switchCase.getStatements())));
+    }
+
+    private static List<List<StatementNode>> switchBodies(SwitchNode switchNode) {
+        List<List<StatementNode>> bodies = new ArrayList<>();
+        for (List<StatementNode> body : append(eagerMap(valueCases(switchNode.getCasesWithFallthrough()), SwitchCaseNode::getStatements), defaultBody(switchNode))) {
+            if (!bodies.contains(body)) {
+                bodies.add(body);
+            }
+        }
+        return bodies;
+    }
+
+    private static List<StatementNode> defaultBody(SwitchNode switchNode) {
+        return Iterables.tryFind(switchNode.getCasesWithFallthrough(), SwitchCaseNode::isDefault)
+            .transform(SwitchCaseNode::getStatements)
+            .or(list());
+    }
+
+    private static List<SwitchCaseNode> valueCases(List<SwitchCaseNode> cases) {
+        return eagerFilter(cases, switchCase -> !switchCase.isDefault());
+    }
+
+    private static List<PythonStatementNode> generateSwitchBranches(List<List<StatementNode>> bodies, int start, int end) {
+        if (end - start == 1) {
+            return generateStatements(bodies.get(start));
+        } else {
+            int middle = (start + end) / 2;
+            return list(pythonIfStatement(
+                pythonLessThan(pythonVariableReference(SWITCH_INDEX), pythonIntegerLiteral(middle)),
+                generateSwitchBranches(bodies, start, middle),
+                generateSwitchBranches(bodies, middle, end)));
+        }
+    }
+
+    /**
+     * Loops of the form {@code for (int i = start; i < end; ++i)} are written
+     * as {@code for i in range(start, end)}. Since the range is only evaluated
+     * once, the body must not assign to either the loop variable or the end.
+     */
+    private static Optional<PythonForNode> generateRangeLoop(ForNode forLoop) {
+        if (forLoop.getInitializers().size() != 1 || forLoop.getUpdaters().size() != 1) {
+            return Optional.empty();
+        }
+        LocalVariableDeclarationNode initializer = forLoop.getInitializers().get(0);
+        VariableDeclaration variable = initializer.getDeclaration();
+        if (!variable.getType().equals(Types.INT) ||
+            !isIncrement(forLoop.getUpdaters().get(0), variable) ||
+            isAssigned(forLoop.getStatements(), variable))
+        {
+            return Optional.empty();
+        }
+        return tryCast(OperationNode.class, forLoop.getCondition())
+            .filter(condition ->
+                (condition.getOperator() == Operator.LESS_THAN || condition.getOperator() == Operator.LESS_THAN_OR_EQUAL) &&
+                isReference(condition.getArguments().get(0), variable) &&
+                isInvariant(condition.getArguments().get(1), forLoop.getStatements()))
+            .map(condition -> {
+                ExpressionNode end = condition.getArguments().get(1);
+                return pythonFor(
+                    pythonVariableReference(variable.getName()),
+                    pythonCall(
+                        pythonVariableReference("range"),
+                        list(
+                            generateExpression(initializer.getInitialValue()),
+                            generateExpression(condition.getOperator() == Operator.LESS_THAN ? end : increment(end)))),
+                    generateStatements(forLoop.getStatements()));
+            });
+    }
+
+    private static boolean isIncrement(ExpressionNode expression, VariableDeclaration variable) {
+        return tryCast(AssignmentNode.class, expression)
+            .filter(assignment -> isReference(assignment.getTarget(), variable))
+            .flatMap(assignment -> tryCast(OperationNode.class, assignment.getValue()))
+            .filter(operation ->
+                operation.getOperator() == Operator.ADD &&
+                isReference(operation.getArguments().get(0), variable) &&
+                operation.getArguments().get(1).equals(literal(1)))
+            .isPresent();
+    }
+
+    private static boolean isInvariant(ExpressionNode expression, List<StatementNode> body) {
+        if (expression instanceof LiteralNode) {
+            return true;
+        } else {
+            return tryCast(VariableReferenceNode.class, expression)
+                .filter(reference -> !isAssigned(body, reference.getReferent()))
+                .isPresent();
+        }
+    }
+
+    private static boolean isAssigned(List<StatementNode> statements, VariableDeclaration variable) {
+        return statements.stream()
+            .flatMap(NodeStructure::descendantNodesAndSelf)
+            .anyMatch(node -> tryCast(AssignmentNode.class, node)
+                .filter(assignment -> isReference(assignment.getTarget(), variable))
+                .isPresent());
+    }
+
+    private static boolean isReference(ExpressionNode expression, VariableDeclaration variable) {
+        return tryCast(VariableReferenceNode.class, expression)
+            .filter(reference -> reference.getReferent().equals(variable))
+            .isPresent();
+    }
+
+    private static ExpressionNode increment(ExpressionNode expression) {
+        return tryCast(LiteralNode.class, expression)
+            .flatMap(literal -> tryCast(IntegerValue.class, literal.getValue()))
+            .<ExpressionNode>map(value -> literal(value.getValue() + 1))
+            .orElseGet(() -> Operations.integerAdd(expression, literal(1)));
+    }
+
     public static PythonExpressionNode generateExpression(ExpressionNode expression) {
         return ExpressionGenerator.VISITOR.apply(expression);
     }
@@ -316,6 +574,12 @@ public class PythonCodeGenerator {
                 PythonCodeGenerator::generateExpression));
         }
 
+        public PythonExpressionNode visit(ArrayIndexNode arrayIndex) {
+            return pythonGetSlice(
+                generateExpression(arrayIndex.getArray()),
+                list(generateExpression(arrayIndex.getIndex())));
+        }
+
         public PythonExpressionNode visit(TernaryConditionalNode ternaryConditional) {
             return pythonConditionalExpression(generateExpression(ternaryConditional.getCondition()), generateExpression(ternaryConditional.getIfTrue()), generateExpression(ternaryConditional.getIfFalse()));
         }
@@ -5,6 +5,10 @@ import org.zwobble.couscous.backends.python.ast.*;
 import org.zwobble.couscous.backends.python.ast.visitors.PythonExpressionStatement;
 import org.zwobble.couscous.backends.python.ast.visitors.PythonNodeVisitor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
 import static org.zwobble.couscous.util.ExtraSets.set;
 
 public class PythonSerializer implements PythonNodeVisitor {
@@ -19,6 +23,22 @@ public class PythonSerializer implements PythonNodeVisitor {
         serializer.write(node);
         return writer.asString();
     }
+
+    public static void serialize(PythonNode node, Writer output) throws IOException {
+        SourceCodeWriter writer = new SourceCodeWriter(
+            output,
+            (writer2) -> writer2.writeSymbol(":"),
+            (writer2) -> {},
+            set(),
+            identifier -> identifier
+        );
+        try {
+            new PythonSerializer(writer).write(node);
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        writer.flush();
+    }
     
     private final SourceCodeWriter writer;
     
@@ -212,6 +232,20 @@ public class PythonSerializer implements PythonNodeVisitor {
         });
     }
 
+    @Override
+    public void visit(PythonForNode forLoop) {
+        writer.writeStatement(() -> {
+            writer.writeKeyword("for");
+            writer.writeSpace();
+            write(forLoop.getTarget());
+            writer.writeSpace();
+            writer.writeKeyword("in");
+            writer.writeSpace();
+            write(forLoop.getIterable());
+            writeBlock(forLoop.getBody());
+        });
+    }
+
     private void writeParenthesised(PythonExpressionNode expression, PythonExpressionNode parent) {
         boolean requiresParens = parent.precedence() >= expression.precedence();
         if (requiresParens) {
@@ -0,0 +1,41 @@
+package org.zwobble.couscous.backends.python.ast;
+
+import org.zwobble.couscous.backends.python.ast.visitors.PythonNodeVisitor;
+
+import java.util.List;
+
+public class PythonForNode implements PythonStatementNode {
+    public static PythonForNode pythonFor(
+            PythonVariableReferenceNode target,
+            PythonExpressionNode iterable,
+            List<PythonStatementNode> body) {
+        return new PythonForNode(target, iterable, new PythonBlock(body));
+    }
+
+    private final PythonVariableReferenceNode target;
+    private final PythonExpressionNode iterable;
+    private final PythonBlock body;
+
+    private PythonForNode(PythonVariableReferenceNode target, PythonExpressionNode iterable, PythonBlock body) {
+        this.target = target;
+        this.iterable = iterable;
+        this.body = body;
+    }
+
+    public PythonVariableReferenceNode getTarget() {
+        return target;
+    }
+
+    public PythonExpressionNode getIterable() {
+        return iterable;
+    }
+
+    public PythonBlock getBody() {
+        return body;
+    }
+
+    @Override
+    public void accept(PythonNodeVisitor visitor) {
+        visitor.visit(this);
+    }
+}
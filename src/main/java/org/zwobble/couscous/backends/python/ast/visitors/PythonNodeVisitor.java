@@ -24,6 +24,7 @@ public interface PythonNodeVisitor {
     void visit(PythonImportNode importNode);
     void visit(PythonIfStatementNode ifStatement);
     void visit(PythonWhileNode whileLoop);
+    void visit(PythonForNode forLoop);
 
     void visit(PythonModuleNode module);
 }
@@ -5,10 +5,13 @@ import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 import org.zwobble.couscous.Backend;
 import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.OutputDirectory;
 import org.zwobble.couscous.backends.csharp.CsharpBackend;
 import org.zwobble.couscous.backends.python.PythonBackend;
 import org.zwobble.couscous.frontends.java.JavaFrontend;
+import org.zwobble.couscous.transforms.TreeShaking;
 import org.zwobble.couscous.util.FileSet;
+import org.zwobble.couscous.util.ParallelTasks;
 
 import java.io.FileReader;
 import java.io.IOException;
@@ -23,6 +26,11 @@ public class CouscousCli {
     public static final String SOURCEPATH = "sourcepath";
     public static final String BACKEND = "backend";
     public static final String OUTPUT = "output";
+    public static final String ENTRY_POINTS = "entryPoints";
+    public static final String WRITE_IF_CHANGED = "writeIfChanged";
+    public static final String FILE_PER_TYPE = "filePerType";
+    public static final String BUNDLE = "bundle";
+    public static final String LAZY_IMPORTS = "lazyImports";
 
     public static void main(String[] rawArguments) throws Exception {
         JsonObject configuration = Json.parse(new FileReader("couscous.json")).asObject();
@@ -42,18 +50,39 @@ public class CouscousCli {
             List<TypeNode> classNodes = frontend.readSourceDirectory(
                 paths(sourcePaths),
                 FileSet.globs(files));
-            backend.compile(classNodes);
+            if (configuration.get(ENTRY_POINTS) != null) {
+                List<String> entryPoints = eagerMap(
+                    configuration.get(ENTRY_POINTS).asArray().values(),
+                    JsonValue::asString);
+                TreeShaking.Result shaken = TreeShaking.shake(classNodes, entryPoints);
+                System.out.print(shaken.describe());
+                classNodes = shaken.getTypes();
+            }
+            System.out.println(backend.compile(classNodes).describe());
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
     }
 
     private static Backend backend(String backend, String output, JsonObject configuration) {
+        OutputDirectory.Mode outputMode = configuration.getBoolean(WRITE_IF_CHANGED, false)
+            ? OutputDirectory.Mode.WRITE_IF_CHANGED
+            : OutputDirectory.Mode.OVERWRITE;
         switch (backend) {
             case "python":
-                return new PythonBackend(path(output), "_couscous");
+                PythonBackend.Builder python = PythonBackend.builder(path(output), "_couscous").outputMode(outputMode);
+                if (configuration.getBoolean(BUNDLE, false)) {
+                    python.bundle();
+                }
+                if (configuration.getBoolean(LAZY_IMPORTS, false)) {
+                    python.lazyImports();
+                }
+                return python.build();
             case "csharp":
-                return new CsharpBackend(path(output), configuration.get("namespace").asString());
+                String namespace = configuration.get("namespace").asString();
+                return configuration.getBoolean(FILE_PER_TYPE, false)
+                    ? CsharpBackend.filePerType(path(output), namespace, ParallelTasks.defaultThreads(), outputMode)
+                    : new CsharpBackend(path(output), namespace, outputMode);
             default:
                 throw new RuntimeException("Unrecognised backend: " + backend);
         }
@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static java.util.Arrays.asList;
+import static org.zwobble.couscous.ast.ArrayIndexNode.arrayIndex;
 import static org.zwobble.couscous.ast.ArrayNode.array;
 import static org.zwobble.couscous.ast.CastNode.cast;
 import static org.zwobble.couscous.ast.ConstructorCallNode.constructorCall;
@@ -77,6 +78,9 @@ public class JavaExpressionReader {
                 case ASTNode.ARRAY_CREATION:
                     return readArrayCreation((ArrayCreation)expression);
 
+                case ASTNode.ARRAY_ACCESS:
+                    return readArrayAccess((ArrayAccess)expression);
+
                 case ASTNode.PARENTHESIZED_EXPRESSION:
                     return readParenthesizedExpression((ParenthesizedExpression)expression);
 
@@ -174,6 +178,13 @@ public class JavaExpressionReader {
         return array(elementType, eagerMap(expressions, element -> readExpression(elementType, element)));
     }
 
+    private ExpressionNode readArrayAccess(ArrayAccess expression) {
+        return arrayIndex(
+            readExpressionWithoutBoxing(expression.getArray()),
+            readExpression(Types.INT, expression.getIndex()),
+            typeOf(expression));
+    }
+
     private ExpressionNode readParenthesizedExpression(ParenthesizedExpression expression) {
         return readExpressionWithoutBoxing(expression.getExpression());
     }
@@ -0,0 +1,43 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.interpreter.values.InterpreterValue;
+
+/**
+ * How the most recently executed statement completed. Each executor reuses a
+ * single completion for every statement it runs, so signalling completion
+ * never allocates.
+ */
+class Completion {
+    enum Kind {
+        NORMAL,
+        RETURN,
+        BREAK,
+        CONTINUE,
+        THROW
+    }
+
+    private Kind kind = Kind.NORMAL;
+    private InterpreterValue value;
+
+    Kind normal() {
+        return complete(Kind.NORMAL, null);
+    }
+
+    Kind returns(InterpreterValue value) {
+        return complete(Kind.RETURN, value);
+    }
+
+    Kind complete(Kind kind, InterpreterValue value) {
+        this.kind = kind;
+        this.value = value;
+        return kind;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    InterpreterValue getValue() {
+        return value;
+    }
+}
@@ -1,30 +1,46 @@
 package org.zwobble.couscous.interpreter;
 
 import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.ast.FieldAccessNode;
+import org.zwobble.couscous.ast.LiteralNode;
 import org.zwobble.couscous.ast.VariableDeclaration;
 import org.zwobble.couscous.ast.VariableNode;
 import org.zwobble.couscous.ast.identifiers.Identifier;
+import org.zwobble.couscous.ast.sugar.SwitchNode;
 import org.zwobble.couscous.types.Type;
 import org.zwobble.couscous.interpreter.errors.UnboundVariable;
 import org.zwobble.couscous.interpreter.errors.VariableNotInScope;
 import org.zwobble.couscous.interpreter.values.InterpreterValue;
 import org.zwobble.couscous.interpreter.values.StaticReceiverValue;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 
 import static java.util.stream.Collectors.toMap;
 
 public class Environment {
-    private final Map<ScalarType, StaticReceiverValue> types;
     private final Optional<InterpreterValue> thisValue;
     private final Map<Identifier, VariableEntry> stackFrame;
     private final Project project;
+    private final ExecutionState state;
 
     public Environment(Project project, Optional<InterpreterValue> thisValue, Map<VariableDeclaration, Optional<InterpreterValue>> stackFrame) {
+        this(project, new ExecutionState(), thisValue, stackFrame);
+    }
+
+    Environment(Project project, ExecutionState state) {
+        this(project, state, Optional.empty(), Collections.emptyMap());
+    }
+
+    private Environment(
+        Project project,
+        ExecutionState state,
+        Optional<InterpreterValue> thisValue,
+        Map<VariableDeclaration, Optional<InterpreterValue>> stackFrame)
+    {
         this.project = project;
-        this.types = new HashMap<>();
+        this.state = state;
         this.thisValue = thisValue;
         this.stackFrame = stackFrame.entrySet().stream()
             .collect(toMap(
@@ -32,19 +48,35 @@ public class Environment {
                 entry -> VariableEntry.of(entry.getKey().getType(), entry.getValue())));
     }
     
+    public Project getProject() {
+        return project;
+    }
+
+    ExecutionState getState() {
+        return state;
+    }
+
     public Optional<InterpreterValue> getThis() {
         return thisValue;
     }
     
+    public boolean isTrusted() {
+        return project.isTrusted();
+    }
+
     public InterpreterValue get(Identifier variableId) {
-        checkVariableIsInScope(variableId);
+        if (!project.isTrusted()) {
+            checkVariableIsInScope(variableId);
+        }
         final org.zwobble.couscous.interpreter.Environment.VariableEntry entry = stackFrame.get(variableId);
         return entry.getValue().orElseThrow(() -> new UnboundVariable(variableId));
     }
     
     public void put(Identifier variableId, InterpreterValue value) {
-        checkVariableIsInScope(variableId);
-        checkVariableType(variableId, value);
+        if (!project.isTrusted()) {
+            checkVariableIsInScope(variableId);
+            checkVariableType(variableId, value);
+        }
         stackFrame.get(variableId).setValue(Optional.of(value));
     }
     
@@ -53,16 +85,35 @@ public class Environment {
     }
     
     public StaticReceiverValue findClass(ScalarType className) {
-        if (!types.containsKey(className)) {
-            StaticReceiverValue value = new StaticReceiverValue(project.findClass(className));
-            types.put(className, value);
-            value.callStaticConstructor(this);
-        }
-        return types.get(className);
+        return state.findClass(this, className);
+    }
+
+    StaticReceiverValue findClass(Links.ClassLink clazz) {
+        return state.findClass(this, clazz);
+    }
+
+    Links getLinks() {
+        return project.getLinks();
     }
     
     public Environment withStackFrame(Optional<InterpreterValue> thisValue, Map<VariableDeclaration, Optional<InterpreterValue>> stackFrame) {
-        return new Environment(project, thisValue, stackFrame);
+        return new Environment(project, state, thisValue, stackFrame);
+    }
+
+    Optional<Profiler> getProfiler() {
+        return state.getProfiler();
+    }
+
+    FieldSlotCache fieldSlotCache(FieldAccessNode fieldAccess) {
+        return state.fieldSlotCache(fieldAccess);
+    }
+
+    InterpreterValue literal(LiteralNode literal) {
+        return state.literal(literal);
+    }
+
+    SwitchTable switchTable(SwitchNode switchNode) {
+        return state.switchTable(switchNode);
     }
     
     private void checkVariableIsInScope(Identifier variableId) {
@@ -73,7 +124,7 @@ public class Environment {
     
     private void checkVariableType(Identifier variableId, InterpreterValue value) {
         Type variableType = stackFrame.get(variableId).getType();
-        InterpreterTypes.checkIsInstance(variableType, value);
+        InterpreterTypes.checkIsInstance(project, variableType, value);
     }
     
     private static class VariableEntry {
@@ -5,6 +5,8 @@ import org.zwobble.couscous.ast.visitors.DynamicNodeMapper;
 import org.zwobble.couscous.ast.visitors.DynamicNodeVisitor;
 import org.zwobble.couscous.interpreter.errors.ConditionMustBeBoolean;
 import org.zwobble.couscous.interpreter.errors.InvalidCast;
+import org.zwobble.couscous.interpreter.errors.NoSuchField;
+import org.zwobble.couscous.interpreter.types.FieldLayout;
 import org.zwobble.couscous.interpreter.values.*;
 import org.zwobble.couscous.types.ParameterizedType;
 import org.zwobble.couscous.types.ScalarType;
@@ -13,7 +15,7 @@ import org.zwobble.couscous.types.Types;
 
 import java.util.List;
 import java.util.function.BiConsumer;
-import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.zwobble.couscous.types.Types.erasure;
@@ -30,20 +32,20 @@ public class Evaluator {
         return new Evaluator(environment).evalCondition(expression);
     }
 
-    private static final BiFunction<Node, Evaluator, InterpreterValue> EVAL = DynamicNodeMapper.visitor(Evaluator.class, "visit");
-    
     private final Environment environment;
+    private final Function<Node, InterpreterValue> dispatcher;
     
-    private Evaluator(Environment environment) {
+    Evaluator(Environment environment) {
         this.environment = environment;
+        this.dispatcher = DynamicNodeMapper.instantiate(this, "visit");
     }
     
     public InterpreterValue eval(ExpressionNode expression) {
-        return EVAL.apply(expression, this);
+        return dispatcher.apply(expression);
     }
     
     public InterpreterValue visit(LiteralNode literal) {
-        return InterpreterValues.value(literal.getValue());
+        return environment.literal(literal);
     }
     
     public InterpreterValue visit(VariableReferenceNode variableReference) {
@@ -58,26 +60,79 @@ public class Evaluator {
     }
 
     public InterpreterValue visit(ArrayNode array) {
-        return new ArrayInterpreterValue(
+        environment.getProfiler().ifPresent(Profiler::recordAllocation);
+        return ArrayInterpreterValue.of(
             array.getElementType(),
             eagerMap(array.getElements(), this::eval));
     }
 
+    public InterpreterValue visit(ArrayIndexNode arrayIndex) {
+        return evalArray(arrayIndex.getArray()).get(evalIndex(arrayIndex.getIndex()));
+    }
+
+    private ArrayInterpreterValue evalArray(ExpressionNode expression) {
+        InterpreterValue value = eval(expression);
+        if (!environment.isTrusted()) {
+            InterpreterTypes.checkIsInstance(environment.getProject(), expression.getType(), value);
+        }
+        return (ArrayInterpreterValue) value;
+    }
+
+    private int evalIndex(ExpressionNode expression) {
+        InterpreterValue value = eval(expression);
+        if (!environment.isTrusted()) {
+            InterpreterTypes.checkIsInstance(environment.getProject(), Types.INT, value);
+        }
+        return ((IntegerInterpreterValue) value).getValue();
+    }
+
     public InterpreterValue visit(AssignmentNode assignment) {
-        InterpreterValue value = eval(assignment.getValue());
-        AssignableExpressionVisitor.visit.accept(assignment.getTarget(), new AssignableExpressionVisitor() {
-            @Override
-            public void visit(FieldAccessNode fieldAccess) {
-                ReceiverValue left = evalReceiver(fieldAccess.getLeft());
-                left.setField(fieldAccess.getFieldName(), value);
+        Assignment evaluator = new Assignment(assignment.getValue());
+        AssignableExpressionVisitor.visit.accept(assignment.getTarget(), evaluator);
+        return evaluator.value;
+    }
+
+    /**
+     * As in Java, the object, array and index of the target are evaluated
+     * before the value.
+     */
+    private class Assignment implements AssignableExpressionVisitor {
+        private final ExpressionNode valueExpression;
+        private InterpreterValue value;
+
+        private Assignment(ExpressionNode valueExpression) {
+            this.valueExpression = valueExpression;
+        }
+
+        @Override
+        public void visit(FieldAccessNode fieldAccess) {
+            Links.StaticField link = environment.getLinks().staticField(fieldAccess);
+            if (link != null) {
+                value = eval(valueExpression);
+                environment.findClass(link.getClassLink()).getFields().setField(link.getSlot(), value);
+            } else {
+                InterpreterFields fields = evalFields(fieldAccess);
+                value = eval(valueExpression);
+                fields.setField(fieldSlot(environment, fieldAccess, fields), value);
             }
+        }
 
-            @Override
-            public void visit(VariableReferenceNode reference) {
-                environment.put(reference.getReferentId(), value);
+        @Override
+        public void visit(VariableReferenceNode reference) {
+            value = eval(valueExpression);
+            environment.put(reference.getReferentId(), value);
+        }
+
+        @Override
+        public void visit(ArrayIndexNode arrayIndex) {
+            ArrayInterpreterValue array = evalArray(arrayIndex.getArray());
+            int index = evalIndex(arrayIndex.getIndex());
+            value = eval(valueExpression);
+            if (!environment.isTrusted()) {
+                InterpreterTypes.checkIsInstance(environment.getProject(), array.getElementType(), value);
             }
-        });
-        return value;
+            array.set(index, value);
+        }
     }
 
     public interface AssignableExpressionVisitor {
@@ -85,6 +140,7 @@ public class Evaluator {
 
         void visit(VariableReferenceNode node);
         void visit(FieldAccessNode node);
+        void visit(ArrayIndexNode node);
     }
     
     public InterpreterValue visit(TernaryConditionalNode ternaryConditional) {
@@ -93,9 +149,9 @@ public class Evaluator {
         return eval(branch);
     }
 
-    private boolean evalCondition(ExpressionNode condition) {
+    boolean evalCondition(ExpressionNode condition) {
         InterpreterValue value = eval(condition);
-        if (!(value instanceof BooleanInterpreterValue)) {
+        if (!environment.isTrusted() && !(value instanceof BooleanInterpreterValue)) {
             throw new ConditionMustBeBoolean(value);
         }
         return ((BooleanInterpreterValue)value).getValue();
@@ -103,6 +159,11 @@ public class Evaluator {
 
     public InterpreterValue visit(MethodCallNode methodCall) {
         List<InterpreterValue> arguments = evalArguments(methodCall.getArguments());
+        Links.StaticCall link = environment.getLinks().staticCall(methodCall);
+        if (link != null) {
+            environment.findClass(link.getClassLink());
+            return link.call(environment, new Arguments(list(), arguments));
+        }
         MethodSignature signature = methodCall.signature();
 
         return evalReceiver(methodCall.getReceiver())
@@ -110,12 +171,19 @@ public class Evaluator {
     }
     
     public InterpreterValue visit(ConstructorCallNode call) {
-        StaticReceiverValue clazz = environment.findClass(erasure(call.getType()));
+        Links.Constructor link = environment.getLinks().constructor(call);
+        StaticReceiverValue clazz = link == null
+            ? environment.findClass(erasure(call.getType()))
+            : environment.findClass(link.getClassLink());
         List<InterpreterValue> arguments = evalArguments(call.getArguments());
         List<Type> typeParameters = tryCast(ParameterizedType.class, call.getType())
             .map(type -> type.getParameters())
             .orElse(list());
-        return clazz.callConstructor(environment, new Arguments(typeParameters, arguments));
+        environment.getProfiler().ifPresent(Profiler::recordAllocation);
+        Arguments argumentValues = new Arguments(typeParameters, arguments);
+        return link == null
+            ? clazz.callConstructor(environment, argumentValues)
+            : link.call(environment, clazz, argumentValues);
     }
 
     public InterpreterValue visit(OperationNode operation) {
@@ -123,14 +191,51 @@ public class Evaluator {
     }
 
     public InterpreterValue visit(FieldAccessNode fieldAccess) {
-        ReceiverValue left = evalReceiver(fieldAccess.getLeft());
-        return left.getField(fieldAccess.getFieldName());
+        Links.StaticField link = environment.getLinks().staticField(fieldAccess);
+        if (link != null) {
+            return environment.findClass(link.getClassLink()).getFields().getField(link.getSlot());
+        }
+        InterpreterFields fields = evalFields(fieldAccess);
+        return fields.getField(fieldSlot(environment, fieldAccess, fields));
+    }
+
+    private InterpreterFields evalFields(FieldAccessNode fieldAccess) {
+        return fieldAccess.getLeft().accept(new Receiver.Mapper<InterpreterFields>() {
+            @Override
+            public InterpreterFields visit(ExpressionNode receiver) {
+                return objectFields(fieldAccess, eval(receiver));
+            }
+
+            @Override
+            public InterpreterFields visit(ScalarType receiver) {
+                return environment.findClass(receiver).getFields();
+            }
+        });
+    }
+
+    static InterpreterFields objectFields(FieldAccessNode fieldAccess, InterpreterValue value) {
+        if (value instanceof ObjectInterpreterValue) {
+            return ((ObjectInterpreterValue) value).getFields();
+        } else {
+            throw new NoSuchField(fieldAccess.getFieldName());
+        }
+    }
+
+    static int fieldSlot(Environment environment, FieldAccessNode fieldAccess, InterpreterFields fields) {
+        int slot = environment.fieldSlotCache(fieldAccess).slot(fields.getLayout(), fieldAccess.getFieldName());
+        if (slot == FieldLayout.NO_SLOT) {
+            throw new NoSuchField(fieldAccess.getFieldName());
+        }
+        return slot;
     }
 
     public InterpreterValue visit(TypeCoercionNode typeCoercion) {
         // TODO: check that the type coercion is valid
         // TODO: boxing booleans
-        InterpreterValue value = eval(typeCoercion.getExpression());
+        return coerce(typeCoercion, eval(typeCoercion.getExpression()));
+    }
+
+    static InterpreterValue coerce(TypeCoercionNode typeCoercion, InterpreterValue value) {
         if (isIntegerBox(typeCoercion)) {
             return BoxedIntegerInterpreterValue.of(((IntegerInterpreterValue)value));
         } else if (isIntegerUnbox(typeCoercion)) {
@@ -141,8 +246,11 @@ public class Evaluator {
     }
 
     public InterpreterValue visit(CastNode cast) {
-        InterpreterValue value = eval(cast.getExpression());
-        if (!InterpreterTypes.isSubType(cast.getType(), value.getType())) {
+        return checkCast(environment.getProject(), cast, eval(cast.getExpression()));
+    }
+
+    static InterpreterValue checkCast(Project project, CastNode cast, InterpreterValue value) {
+        if (!project.isSubType(cast.getType(), value.getType())) {
             throw new InvalidCast(cast.getType(), value.getType().getType());
         }
         return value;
@@ -0,0 +1,147 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.ast.FieldAccessNode;
+import org.zwobble.couscous.ast.LiteralNode;
+import org.zwobble.couscous.ast.MethodSignature;
+import org.zwobble.couscous.ast.sugar.SwitchNode;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+import org.zwobble.couscous.interpreter.types.InterpreterType;
+import org.zwobble.couscous.interpreter.values.InterpreterValue;
+import org.zwobble.couscous.interpreter.values.InterpreterValues;
+import org.zwobble.couscous.interpreter.values.StaticReceiverValue;
+import org.zwobble.couscous.interpreter.values.StringInterpreterValue;
+import org.zwobble.couscous.values.StringValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * The mutable state of a single run of the interpreter: initialised classes
+ * with their static fields, and inline caches. Everything reachable from a
+ * {@link Project} is immutable, so runs that each have their own state can
+ * share a project across threads.
+ */
+class ExecutionState {
+    private static final MethodSignature STATIC_CONSTRUCTOR = MethodSignature.signature("<clinit>", list(), Types.VOID);
+
+    private final Map<ScalarType, StaticReceiverValue> classes = new LinkedHashMap<>();
+    // Initialised classes indexed by ClassLink.getIndex(). Any class in this
+    // array is also in classes, but not necessarily the other way around.
+    private StaticReceiverValue[] linkedClasses = new StaticReceiverValue[0];
+    private final Map<FieldAccessNode, FieldSlotCache> fieldSlotCaches = new IdentityHashMap<>();
+    private final Map<SwitchNode, SwitchTable> switchTables = new IdentityHashMap<>();
+    private final Map<String, StringInterpreterValue> stringLiterals = new HashMap<>();
+    private final Optional<Profiler> profiler;
+
+    ExecutionState() {
+        this(Optional.empty());
+    }
+
+    ExecutionState(Optional<Profiler> profiler) {
+        this.profiler = profiler;
+    }
+
+    Optional<Profiler> getProfiler() {
+        return profiler;
+    }
+
+    StaticReceiverValue findClass(Environment environment, ScalarType className) {
+        StaticReceiverValue value = classes.get(className);
+        if (value == null) {
+            InterpreterType type = environment.getProject().findClass(className);
+            value = new StaticReceiverValue(type);
+            classes.put(className, value);
+            if (profiler.isPresent()) {
+                profiler.get().enter(className, STATIC_CONSTRUCTOR, type.getStaticConstructor());
+            }
+            try {
+                value.callStaticConstructor(environment);
+            } finally {
+                if (profiler.isPresent()) {
+                    profiler.get().exit();
+                }
+            }
+        }
+        return value;
+    }
+
+    StaticReceiverValue findClass(Environment environment, Links.ClassLink clazz) {
+        int index = clazz.getIndex();
+        StaticReceiverValue value = index < linkedClasses.length ? linkedClasses[index] : null;
+        if (value == null) {
+            value = findClass(environment, clazz.getName());
+            if (index >= linkedClasses.length) {
+                linkedClasses = Arrays.copyOf(linkedClasses, Math.max(index + 1, linkedClasses.length * 2));
+            }
+            linkedClasses[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Initialised classes in the order that their initialisation started.
+     */
+    Map<ScalarType, StaticReceiverValue> getClasses() {
+        return Collections.unmodifiableMap(classes);
+    }
+
+    void addInitialisedClass(ScalarType className, StaticReceiverValue value) {
+        classes.put(className, value);
+    }
+
+    FieldSlotCache fieldSlotCache(FieldAccessNode fieldAccess) {
+        return fieldSlotCaches.computeIfAbsent(fieldAccess, key -> new FieldSlotCache());
+    }
+
+    /**
+     * String literals with equal values evaluate to the same value, as in
+     * Java. Literals are only interned for the lifetime of this state.
+     */
+    InterpreterValue literal(LiteralNode literal) {
+        if (literal.getValue() instanceof StringValue) {
+            return stringLiterals.computeIfAbsent(((StringValue) literal.getValue()).getValue(), StringInterpreterValue::of);
+        } else {
+            return InterpreterValues.value(literal.getValue());
+        }
+    }
+
+    SwitchTable switchTable(SwitchNode switchNode) {
+        return switchTables.computeIfAbsent(switchNode, SwitchTable::build);
+    }
+
+    Snapshot snapshot() {
+        StaticStateFile.Copier copier = new StaticStateFile.Copier();
+        Map<ScalarType, InterpreterValue[]> staticValues = new HashMap<>();
+        classes.forEach((className, value) -> staticValues.put(className, copier.copyValues(value.getFields().copyValues())));
+        return new Snapshot(staticValues);
+    }
+
+    void restore(Snapshot snapshot) {
+        classes.keySet().retainAll(snapshot.staticValues.keySet());
+        Arrays.fill(linkedClasses, null);
+        // Restore from a fresh copy so that the snapshot itself is never
+        // mutated, and can be restored again after the next run.
+        StaticStateFile.Copier copier = new StaticStateFile.Copier();
+        classes.forEach((className, value) -> value.getFields().restoreValues(copier.copyValues(snapshot.staticValues.get(className))));
+    }
+
+    /**
+     * The static fields of every initialised class, along with a copy of
+     * every object and array reachable from them.
+     */
+    static class Snapshot {
+        private final Map<ScalarType, InterpreterValue[]> staticValues;
+
+        private Snapshot(Map<ScalarType, InterpreterValue[]> staticValues) {
+            this.staticValues = staticValues;
+        }
+    }
+}
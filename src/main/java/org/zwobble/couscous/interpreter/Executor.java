@@ -1,30 +1,60 @@
 package org.zwobble.couscous.interpreter;
 
 import org.zwobble.couscous.ast.*;
+import org.zwobble.couscous.ast.sugar.SwitchCaseNode;
+import org.zwobble.couscous.ast.sugar.SwitchNode;
 import org.zwobble.couscous.ast.visitors.DynamicNodeMapper;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
 import org.zwobble.couscous.interpreter.values.InterpreterValue;
 import org.zwobble.couscous.interpreter.values.UnitInterpreterValue;
+import org.zwobble.couscous.types.Types;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static org.zwobble.couscous.ast.structure.NodeStructure.descendantNodesAndSelf;
-import static org.zwobble.couscous.interpreter.Evaluator.eval;
-import static org.zwobble.couscous.interpreter.Evaluator.evalCondition;
+import static org.zwobble.couscous.types.Types.erasure;
 import static org.zwobble.couscous.util.ExtraIterables.forEach;
+import static org.zwobble.couscous.util.ExtraLists.eagerMap;
 
 public class Executor {
     public static InterpreterValue callMethod(
         Environment environment,
-        MethodNode method,
+        TieredMethod method,
         Optional<InterpreterValue> thisValue,
         Arguments actualArguments)
     {
-        List<StatementNode> body = method.getBody().orElseThrow(() -> new RuntimeException("Cannot call abstract method"));
-        return callMethod(environment, method.getArguments(), body, thisValue, actualArguments);
+        Optional<Profiler> profiler = environment.getProfiler();
+        if (!profiler.isPresent()) {
+            return callTieredMethod(environment, method, thisValue, actualArguments);
+        }
+        MethodNode methodNode = method.getMethod();
+        profiler.get().enter(method.getClassName(), methodNode.signature(), methodNode.getBody().orElse(Collections.emptyList()));
+        try {
+            return callTieredMethod(environment, method, thisValue, actualArguments);
+        } finally {
+            profiler.get().exit();
+        }
+    }
+
+    private static InterpreterValue callTieredMethod(
+        Environment environment,
+        TieredMethod method,
+        Optional<InterpreterValue> thisValue,
+        Arguments actualArguments)
+    {
+        Optional<InterpreterValue> compiledResult = method.recordInvocation()
+            .flatMap(compiled -> compiled.call(actualArguments.getValues()));
+        if (compiledResult.isPresent()) {
+            return compiledResult.get();
+        }
+        MethodNode methodNode = method.getMethod();
+        List<StatementNode> body = methodNode.getBody().orElseThrow(() -> new RuntimeException("Cannot call abstract method"));
+        Environment innerEnvironment = buildEnvironment(environment, methodNode.getArguments(), body, thisValue, actualArguments);
+        return new Executor(innerEnvironment, Optional.of(method)).execBody(body);
     }
 
     public static InterpreterValue callConstructor(
@@ -33,7 +63,19 @@ public class Executor {
         InterpreterValue thisValue,
         Arguments actualArguments)
     {
-        return callMethod(environment, constructor.getArguments(), constructor.getBody(), Optional.of(thisValue), actualArguments);
+        Optional<Profiler> profiler = environment.getProfiler();
+        if (!profiler.isPresent()) {
+            return callMethod(environment, constructor.getArguments(), constructor.getBody(), Optional.of(thisValue), actualArguments);
+        }
+        profiler.get().enter(
+            erasure(thisValue.getType().getType()),
+            MethodSignature.signature("<init>", eagerMap(constructor.getArguments(), FormalArgumentNode::getType), Types.VOID),
+            constructor.getBody());
+        try {
+            return callMethod(environment, constructor.getArguments(), constructor.getBody(), Optional.of(thisValue), actualArguments);
+        } finally {
+            profiler.get().exit();
+        }
     }
 
     private static InterpreterValue callMethod(
@@ -44,11 +86,10 @@ public class Executor {
         Arguments actualArguments)
     {
         Environment innerEnvironment = buildEnvironment(environment, formalArguments, statements, thisValue, actualArguments);
-        return exec(innerEnvironment, statements)
-            .orElse(UnitInterpreterValue.UNIT);
+        return new Executor(innerEnvironment, Optional.empty()).execBody(statements);
     }
 
-    private static Environment buildEnvironment(
+    static Environment buildEnvironment(
         Environment environment,
         List<FormalArgumentNode> formalArguments,
         List<StatementNode> statements,
@@ -61,9 +102,9 @@ public class Executor {
         return environment.withStackFrame(thisValue, stackFrame.build());
     }
 
-    private static Stream<VariableNode> findDeclarations(List<StatementNode> body) {
+    static Stream<VariableNode> findDeclarations(List<StatementNode> body) {
         return body.stream()
-            .flatMap(statement -> descendantNodesAndSelf(statement, node -> node instanceof StatementNode))
+            .flatMap(statement -> descendantNodesAndSelf(statement, node -> node instanceof StatementNode || node instanceof SwitchCaseNode))
             .flatMap(FindDirectDeclarations.VISITOR);
     }
 
@@ -80,72 +121,89 @@ public class Executor {
         }
     }
 
-    public static Optional<InterpreterValue> exec(Environment environment, Iterable<StatementNode> statements) {
-        for (StatementNode statement : statements) {
-            Optional<InterpreterValue> result = exec(environment, statement);
-            if (result.isPresent()) {
-                return result;
-            }
-        }
-        return Optional.empty();
-    }
-
-
-    public static Optional<InterpreterValue> exec(Environment environment, StatementNode statement) {
-        return EXEC.apply(statement, new Executor(environment));
+    public static Optional<InterpreterValue> exec(Environment environment, List<StatementNode> statements) {
+        Executor executor = new Executor(environment, Optional.empty());
+        return executor.exec(statements) == Completion.Kind.RETURN
+            ? Optional.of(executor.completion.getValue())
+            : Optional.empty();
     }
 
-    private static final BiFunction<Node, Executor, Optional<InterpreterValue>> EXEC = DynamicNodeMapper.visitor(Executor.class, "visit");
-
     private final Environment environment;
+    private final Optional<TieredMethod> method;
+    private final Optional<Profiler> profiler;
+    private final Evaluator evaluator;
+    private final Completion completion;
+    private final Function<Node, Completion.Kind> dispatcher;
 
-    private Executor(Environment environment) {
+    private Executor(Environment environment, Optional<TieredMethod> method) {
         this.environment = environment;
+        this.method = method;
+        this.profiler = environment.getProfiler();
+        this.evaluator = new Evaluator(environment);
+        this.completion = new Completion();
+        this.dispatcher = DynamicNodeMapper.instantiate(this, "visit");
     }
 
-    public Optional<InterpreterValue> visit(ReturnNode returnNode) {
-        return Optional.of(eval(environment, returnNode.getValue()));
+    private InterpreterValue execBody(List<StatementNode> body) {
+        return exec(body) == Completion.Kind.RETURN
+            ? completion.getValue()
+            : UnitInterpreterValue.UNIT;
     }
 
-    public Optional<InterpreterValue> visit(ExpressionStatementNode expressionStatement) {
-        eval(environment, expressionStatement.getExpression());
-        return Optional.empty();
+    public Completion.Kind visit(ReturnNode returnNode) {
+        return completion.returns(evaluator.eval(returnNode.getValue()));
     }
 
-    public Optional<InterpreterValue> visit(LocalVariableDeclarationNode localVariableDeclaration) {
-        final org.zwobble.couscous.interpreter.values.InterpreterValue value = eval(environment, localVariableDeclaration.getInitialValue());
+    public Completion.Kind visit(ExpressionStatementNode expressionStatement) {
+        evaluator.eval(expressionStatement.getExpression());
+        return completion.normal();
+    }
+
+    public Completion.Kind visit(LocalVariableDeclarationNode localVariableDeclaration) {
+        InterpreterValue value = evaluator.eval(localVariableDeclaration.getInitialValue());
         environment.put(localVariableDeclaration, value);
-        return Optional.empty();
+        return completion.normal();
     }
 
-    public Optional<InterpreterValue> visit(IfStatementNode ifStatement) {
-        List<StatementNode> body = evalCondition(environment, ifStatement.getCondition())
+    public Completion.Kind visit(IfStatementNode ifStatement) {
+        List<StatementNode> body = evaluator.evalCondition(ifStatement.getCondition())
             ? ifStatement.getTrueBranch()
             : ifStatement.getFalseBranch();
         return exec(body);
     }
 
-    public Optional<InterpreterValue> visit(WhileNode whileLoop) {
-        while (evalCondition(environment, whileLoop.getCondition())) {
-            Optional<InterpreterValue> result = exec(whileLoop.getBody());
-            if (result.isPresent()) {
-                return result;
+    public Completion.Kind visit(WhileNode whileLoop) {
+        while (evaluator.evalCondition(whileLoop.getCondition())) {
+            if (profiler.isPresent()) {
+                profiler.get().recordIteration(whileLoop);
+            }
+            Completion.Kind kind = exec(whileLoop.getBody());
+            if (kind == Completion.Kind.BREAK) {
+                break;
+            } else if (kind != Completion.Kind.NORMAL && kind != Completion.Kind.CONTINUE) {
+                return kind;
             }
+            method.ifPresent(TieredMethod::recordBackEdge);
         }
-        return Optional.empty();
+        return completion.normal();
+    }
+
+    public Completion.Kind visit(SwitchNode switchNode) {
+        InterpreterValue value = evaluator.eval(switchNode.getValue());
+        return exec(environment.switchTable(switchNode).statementsFor(value));
     }
 
-    public Optional<InterpreterValue> visit(StatementBlockNode block) {
+    public Completion.Kind visit(StatementBlockNode block) {
         return exec(block.getStatements());
     }
 
-    private Optional<InterpreterValue> exec(List<StatementNode> statements) {
-        for (StatementNode statement : statements) {
-            Optional<InterpreterValue> result = exec(environment, statement);
-            if (result.isPresent()) {
-                return result;
+    private Completion.Kind exec(List<StatementNode> statements) {
+        for (int index = 0; index < statements.size(); index++) {
+            Completion.Kind kind = dispatcher.apply(statements.get(index));
+            if (kind != Completion.Kind.NORMAL) {
+                return kind;
             }
         }
-        return Optional.empty();
+        return completion.normal();
     }
 }
@@ -0,0 +1,16 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.interpreter.types.FieldLayout;
+
+class FieldSlotCache {
+    private FieldLayout layout;
+    private int slot;
+
+    int slot(FieldLayout layout, String fieldName) {
+        if (layout != this.layout) {
+            this.slot = layout.slotOf(fieldName);
+            this.layout = layout;
+        }
+        return slot;
+    }
+}
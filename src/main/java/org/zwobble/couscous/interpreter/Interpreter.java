@@ -1,6 +1,5 @@
 package org.zwobble.couscous.interpreter;
 
-import com.google.common.collect.ImmutableMap;
 import org.zwobble.couscous.ast.MethodSignature;
 import org.zwobble.couscous.types.ScalarType;
 import org.zwobble.couscous.types.Type;
@@ -8,30 +7,59 @@ import org.zwobble.couscous.interpreter.values.InterpreterValue;
 import org.zwobble.couscous.interpreter.values.StaticReceiverValue;
 
 import java.util.List;
-import java.util.Optional;
 
 import static org.zwobble.couscous.util.ExtraLists.eagerMap;
 import static org.zwobble.couscous.util.ExtraLists.list;
 
 public class Interpreter {
-    private Project project;
+    /**
+     * Create an interpreter that keeps interpreted calls on a heap-allocated
+     * stack rather than the JVM stack, so that deep recursion doesn't cause
+     * a {@link StackOverflowError}. Methods are never compiled in this mode,
+     * and profiling isn't supported.
+     */
+    public static Interpreter withExplicitStack(Project project) {
+        return new Interpreter(project, true);
+    }
+
+    private final Project project;
+    private final boolean explicitStack;
     
     public Interpreter(Project project) {
+        this(project, false);
+    }
+
+    private Interpreter(Project project, boolean explicitStack) {
         this.project = project;
+        this.explicitStack = explicitStack;
     }
     
     public InterpreterValue run(ScalarType className, String methodName, List<InterpreterValue> arguments, Type returnType) {
-        final Environment environment = new Environment(
-            project,
-            Optional.empty(),
-            ImmutableMap.of());
-        
+        return run(new Environment(project, new ExecutionState()), explicitStack, className, methodName, arguments, returnType);
+    }
+
+    public InterpreterSession.Builder session() {
+        InterpreterSession.Builder builder = InterpreterSession.builder(project);
+        return explicitStack ? builder.explicitStack() : builder;
+    }
+
+    static InterpreterValue run(
+        Environment environment,
+        boolean explicitStack,
+        ScalarType className,
+        String methodName,
+        List<InterpreterValue> arguments,
+        Type returnType)
+    {
         StaticReceiverValue clazz = environment.findClass(className);
         MethodSignature signature = new MethodSignature(
             methodName,
             list(),
             eagerMap(arguments, argument -> argument.getType().getType()),
             returnType);
-        return clazz.callMethod(environment, signature, new Arguments(list(), arguments));
+        Arguments argumentValues = new Arguments(list(), arguments);
+        return explicitStack
+            ? StackMachine.callMethod(environment, clazz, signature, argumentValues)
+            : clazz.callMethod(environment, signature, argumentValues);
     }
-}
\ No newline at end of file
+}
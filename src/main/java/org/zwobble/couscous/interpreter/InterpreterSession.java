@@ -0,0 +1,143 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.interpreter.values.InterpreterValue;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Type;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves repeated runs against one project, keeping initialised classes and
+ * their static fields between runs. A session is not thread-safe: give each
+ * thread its own session.
+ */
+public class InterpreterSession {
+    public static Builder builder(Project project) {
+        return new Builder(project);
+    }
+
+    public static class Builder {
+        private final Project project;
+        private final List<ScalarType> classesToInitialise;
+        private boolean resetBetweenRuns;
+        private Optional<ExecutionState> restoredState;
+        private boolean validateRestoredState;
+        private Optional<Profiler> profiler;
+        private boolean explicitStack;
+
+        private Builder(Project project) {
+            this.project = project;
+            this.classesToInitialise = new ArrayList<>();
+            this.resetBetweenRuns = false;
+            this.restoredState = Optional.empty();
+            this.validateRestoredState = false;
+            this.profiler = Optional.empty();
+            this.explicitStack = false;
+        }
+
+        public Builder initialise(ScalarType className) {
+            classesToInitialise.add(className);
+            return this;
+        }
+
+        public Builder resetBetweenRuns() {
+            resetBetweenRuns = true;
+            return this;
+        }
+
+        /**
+         * Start from static state saved by {@link InterpreterSession#saveStaticState},
+         * without running the static constructors of the saved classes.
+         */
+        public Builder restoreStaticState(Path path) throws IOException {
+            restoredState = Optional.of(StaticStateFile.read(project, path));
+            return this;
+        }
+
+        /**
+         * Initialise the restored classes from scratch when building the
+         * session, and throw {@link org.zwobble.couscous.interpreter.errors.StaticStateMismatch}
+         * if the result differs from the restored state.
+         */
+        public Builder validateRestoredState() {
+            validateRestoredState = true;
+            return this;
+        }
+
+        public Builder profiler(Profiler profiler) {
+            this.profiler = Optional.of(profiler);
+            return this;
+        }
+
+        /**
+         * Keep interpreted calls on a heap-allocated stack: see
+         * {@link Interpreter#withExplicitStack}.
+         */
+        public Builder explicitStack() {
+            explicitStack = true;
+            return this;
+        }
+
+        public InterpreterSession build() {
+            ExecutionState state = new ExecutionState(profiler);
+            restoredState.ifPresent(restored -> restored.getClasses().forEach(state::addInitialisedClass));
+            if (validateRestoredState && restoredState.isPresent()) {
+                ExecutionState freshState = new ExecutionState();
+                Environment freshEnvironment = new Environment(project, freshState);
+                for (ScalarType className : state.getClasses().keySet()) {
+                    freshEnvironment.findClass(className);
+                }
+                StaticStateFile.checkMatches(state, freshState);
+            }
+            Environment environment = new Environment(project, state);
+            for (ScalarType className : classesToInitialise) {
+                environment.findClass(className);
+            }
+            return new InterpreterSession(environment, resetBetweenRuns, explicitStack);
+        }
+    }
+
+    private final Environment environment;
+    private final boolean explicitStack;
+    private final Optional<ExecutionState.Snapshot> snapshot;
+    private final Latencies latencies;
+
+    private InterpreterSession(Environment environment, boolean resetBetweenRuns, boolean explicitStack) {
+        this.environment = environment;
+        this.explicitStack = explicitStack;
+        this.snapshot = resetBetweenRuns
+            ? Optional.of(environment.getState().snapshot())
+            : Optional.empty();
+        this.latencies = new Latencies();
+    }
+
+    public InterpreterValue run(ScalarType className, String methodName, List<InterpreterValue> arguments, Type returnType) {
+        long start = System.nanoTime();
+        try {
+            return Interpreter.run(environment, explicitStack, className, methodName, arguments, returnType);
+        } finally {
+            snapshot.ifPresent(environment.getState()::restore);
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Save the static fields of all initialised classes, and everything
+     * reachable from them, so that a later session can restore them with
+     * {@link Builder#restoreStaticState}. Throws
+     * {@link org.zwobble.couscous.interpreter.errors.UnsupportedStaticState}
+     * without changing the file at the path if the state holds a value that
+     * can't be saved.
+     */
+    public void saveStaticState(Path path) throws IOException {
+        StaticStateFile.write(environment.getState(), path);
+    }
+
+    public Latencies getLatencies() {
+        return latencies;
+    }
+}
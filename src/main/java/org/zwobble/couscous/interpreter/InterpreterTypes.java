@@ -7,17 +7,14 @@ import org.zwobble.couscous.interpreter.values.InterpreterValue;
 import org.zwobble.couscous.types.Types;
 
 public class InterpreterTypes {
-    public static void checkIsInstance(Type type, InterpreterValue value) {
-        checkIsSubType(type, value.getType());
-    }
-
-    private static void checkIsSubType(Type superType, InterpreterType subType) {
-        if (!isSubType(superType, subType)) {
-            throw new UnexpectedValueType(superType, subType.getType());
+    public static void checkIsInstance(Project project, Type type, InterpreterValue value) {
+        InterpreterType valueType = value.getType();
+        if (!project.isSubType(type, valueType)) {
+            throw new UnexpectedValueType(type, valueType.getType());
         }
     }
 
-    public static boolean isSubType(Type superType, InterpreterType subType) {
+    public static boolean isDirectSubType(Type superType, InterpreterType subType) {
         return
             superType.equals(subType.getType()) ||
             superType.equals(Types.OBJECT) ||
@@ -0,0 +1,54 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.ast.*;
+import org.zwobble.couscous.ast.identifiers.Identifier;
+import org.zwobble.couscous.interpreter.errors.VariableNotInScope;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.zwobble.couscous.ast.structure.NodeStructure.descendantNodesAndSelf;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * Checks once, at load time, the invariants that trusted projects no longer
+ * check on every variable access: each variable reference resolves to a
+ * variable declared in the frame of the enclosing method. Type compatibility
+ * is left to the Java compiler that produced the IR.
+ */
+public class IrVerifier {
+    public static void verify(Iterable<TypeNode> types) {
+        for (TypeNode type : types) {
+            verify(type);
+        }
+    }
+
+    private static void verify(TypeNode type) {
+        if (type instanceof ClassNode) {
+            ClassNode classNode = (ClassNode) type;
+            verifyBody(list(), classNode.getStaticConstructor());
+            ConstructorNode constructor = classNode.getConstructor();
+            verifyBody(constructor.getArguments(), constructor.getBody());
+        }
+        for (MethodNode method : type.getMethods()) {
+            method.getBody().ifPresent(body -> verifyBody(method.getArguments(), body));
+        }
+    }
+
+    private static void verifyBody(List<FormalArgumentNode> arguments, List<StatementNode> body) {
+        Set<Identifier> declared = Stream.concat(arguments.stream(), Executor.findDeclarations(body))
+            .map(variable -> variable.getDeclaration().getId())
+            .collect(Collectors.toSet());
+        body.stream()
+            .flatMap(statement -> descendantNodesAndSelf(statement, node -> !(node instanceof TypeNode)))
+            .filter(node -> node instanceof VariableReferenceNode)
+            .map(node -> ((VariableReferenceNode) node).getReferentId())
+            .filter(id -> !declared.contains(id))
+            .findFirst()
+            .ifPresent(id -> {
+                throw new VariableNotInScope(id);
+            });
+    }
+}
@@ -3,6 +3,7 @@ package org.zwobble.couscous.interpreter;
 import com.google.common.collect.Iterables;
 import org.zwobble.couscous.ast.TypeNode;
 import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
 import org.zwobble.couscous.interpreter.types.InterpreterType;
 import org.zwobble.couscous.interpreter.types.IntrinsicInterpreterType;
 import org.zwobble.couscous.interpreter.types.UserDefinedInterpreterType;
@@ -11,6 +12,7 @@ import org.zwobble.couscous.interpreter.values.InternalCouscousInterpreterValue;
 import org.zwobble.couscous.transforms.AnonymousClassToInnerClass;
 import org.zwobble.couscous.transforms.DesugarForToWhile;
 import org.zwobble.couscous.transforms.DesugarSwitchToIfElse;
+import org.zwobble.couscous.transforms.FoldConstants;
 import org.zwobble.couscous.transforms.HoistNestedTypes;
 
 import java.util.List;
@@ -29,19 +31,40 @@ public class JavaProject {
     }
 
     public static Project of(List<TypeNode> classNodes) {
-        NodeTransformer switchTransformer = DesugarSwitchToIfElse.transformer();
+        return of(classNodes, TieredMethod.DEFAULT_COMPILE_THRESHOLD);
+    }
+
+    public static Project of(List<TypeNode> classNodes, int compileThreshold) {
+        return builder()
+            .addClasses(Iterables.transform(
+                transform(classNodes),
+                typeNode -> new UserDefinedInterpreterType(typeNode, compileThreshold)))
+            .build();
+    }
+
+    public static Project trusted(List<TypeNode> classNodes) {
+        return trusted(classNodes, TieredMethod.DEFAULT_COMPILE_THRESHOLD);
+    }
+
+    public static Project trusted(List<TypeNode> classNodes, int compileThreshold) {
+        List<TypeNode> types = transform(classNodes);
+        IrVerifier.verify(types);
+        return builder()
+            .trusted()
+            .addClasses(Iterables.transform(
+                types,
+                typeNode -> new UserDefinedInterpreterType(typeNode, compileThreshold)))
+            .build();
+    }
+
+    private static List<TypeNode> transform(List<TypeNode> classNodes) {
+        NodeTransformer switchTransformer = DesugarSwitchToIfElse.transformer(switchNode -> !SwitchTable.isSupported(switchNode));
         NodeTransformer forTransformer = DesugarForToWhile.transformer();
-        Iterable<InterpreterType> concreteTypes = Iterables.transform(
-            HoistNestedTypes.hoist(
-                eagerMap(
-                    NodeTransformer.applyAll(list(switchTransformer, forTransformer), classNodes),
-                    AnonymousClassToInnerClass::transform
-                )
-            ),
-            UserDefinedInterpreterType::new
+        return HoistNestedTypes.hoist(
+            eagerMap(
+                NodeTransformer.applyAll(list(switchTransformer, forTransformer, FoldConstants.transformer()), classNodes),
+                AnonymousClassToInnerClass::transform
+            )
         );
-        return builder()
-                .addClasses(concreteTypes)
-                .build();
     }
 }
@@ -0,0 +1,44 @@
+package org.zwobble.couscous.interpreter;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the most recent runs of a session. Only the last
+ * {@link #WINDOW} samples are kept, so memory use is bounded however long
+ * the session runs, and percentiles are computed over that window. Call
+ * {@link #clear} to start a new window, such as after warming up.
+ */
+public class Latencies {
+    public static final int WINDOW = 8192;
+
+    private final long[] samples = new long[WINDOW];
+    private long count = 0;
+
+    void record(long nanos) {
+        samples[(int) (count % WINDOW)] = nanos;
+        count++;
+    }
+
+    /**
+     * The number of samples recorded since this was last cleared, including
+     * samples that have since left the window.
+     */
+    public long count() {
+        return count;
+    }
+
+    public long percentileNanos(double percentile) {
+        if (count == 0) {
+            throw new IllegalStateException("No latencies recorded");
+        }
+        int size = (int) Math.min(count, WINDOW);
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+}
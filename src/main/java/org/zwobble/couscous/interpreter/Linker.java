@@ -0,0 +1,155 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.ast.*;
+import org.zwobble.couscous.interpreter.errors.NoSuchMethod;
+import org.zwobble.couscous.interpreter.errors.UnresolvedReferences;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.interpreter.types.FieldLayout;
+import org.zwobble.couscous.interpreter.types.InterpreterType;
+import org.zwobble.couscous.interpreter.types.IntrinsicInterpreterType;
+import org.zwobble.couscous.interpreter.types.UserDefinedInterpreterType;
+import org.zwobble.couscous.interpreter.values.StaticMethodValue;
+import org.zwobble.couscous.types.ScalarType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.zwobble.couscous.ast.structure.NodeStructure.descendantNodesAndSelf;
+import static org.zwobble.couscous.types.Types.erasure;
+import static org.zwobble.couscous.util.Casts.tryCast;
+
+/**
+ * Binds each static method call, constructor call and static field access in
+ * the user-defined types of a project to its target, so that the interpreter
+ * doesn't need to find classes and methods by name on every execution.
+ * References that can't be resolved are all reported together, by throwing
+ * {@link UnresolvedReferences}, before anything runs.
+ */
+class Linker {
+    static Links link(Map<ScalarType, InterpreterType> classes) {
+        Linker linker = new Linker(classes);
+        for (InterpreterType clazz : classes.values()) {
+            if (clazz instanceof UserDefinedInterpreterType) {
+                linker.linkType((UserDefinedInterpreterType) clazz);
+            }
+        }
+        if (!linker.errors.isEmpty()) {
+            throw new UnresolvedReferences(linker.errors);
+        }
+        return new Links(linker.staticCalls, linker.constructors, linker.staticFields);
+    }
+
+    private final Map<ScalarType, InterpreterType> classes;
+    private final Map<ScalarType, Links.ClassLink> classLinks;
+    private final Map<MethodCallNode, Links.StaticCall> staticCalls;
+    private final Map<ConstructorCallNode, Links.Constructor> constructors;
+    private final Map<FieldAccessNode, Links.StaticField> staticFields;
+    private final List<String> errors;
+
+    private Linker(Map<ScalarType, InterpreterType> classes) {
+        this.classes = classes;
+        this.classLinks = new HashMap<>();
+        for (ScalarType className : classes.keySet()) {
+            classLinks.put(className, new Links.ClassLink(classLinks.size(), className));
+        }
+        this.staticCalls = new IdentityHashMap<>();
+        this.constructors = new IdentityHashMap<>();
+        this.staticFields = new IdentityHashMap<>();
+        this.errors = new ArrayList<>();
+    }
+
+    private void linkType(UserDefinedInterpreterType type) {
+        ScalarType referrer = type.getTypeNode().getName();
+        descendantNodesAndSelf(type.getTypeNode()).forEach(node -> {
+            if (node instanceof MethodCallNode) {
+                linkMethodCall(referrer, (MethodCallNode) node);
+            } else if (node instanceof ConstructorCallNode) {
+                linkConstructorCall(referrer, (ConstructorCallNode) node);
+            } else if (node instanceof FieldAccessNode) {
+                linkFieldAccess(referrer, (FieldAccessNode) node);
+            }
+        });
+    }
+
+    private void linkMethodCall(ScalarType referrer, MethodCallNode methodCall) {
+        if (!(methodCall.getReceiver() instanceof StaticReceiver)) {
+            return;
+        }
+        ScalarType className = ((StaticReceiver) methodCall.getReceiver()).getType();
+        MethodSignature signature = methodCall.signature().generic();
+        findClass(referrer, className).ifPresent(clazz -> {
+            InterpreterType type = classes.get(className);
+            if (type instanceof UserDefinedInterpreterType) {
+                try {
+                    TieredMethod method = ((UserDefinedInterpreterType) type).findMethod(signature, true);
+                    staticCalls.put(methodCall, new Links.StaticCall(clazz, Optional.of(method), Optional.empty()));
+                } catch (NoSuchMethod exception) {
+                    error(referrer, "cannot find static method " + describe(className, signature));
+                }
+            } else {
+                Optional<StaticMethodValue> method = tryCast(IntrinsicInterpreterType.class, type)
+                    .flatMap(intrinsicType -> intrinsicType.findStaticMethod(signature));
+                if (method.isPresent()) {
+                    staticCalls.put(methodCall, new Links.StaticCall(clazz, Optional.empty(), method));
+                } else {
+                    error(referrer, "cannot find static method " + describe(className, signature));
+                }
+            }
+        });
+    }
+
+    private void linkConstructorCall(ScalarType referrer, ConstructorCallNode call) {
+        ScalarType className = erasure(call.getType());
+        findClass(referrer, className).ifPresent(clazz -> {
+            InterpreterType type = classes.get(className);
+            if (type instanceof UserDefinedInterpreterType) {
+                Optional<ConstructorNode> constructor = tryCast(ClassNode.class, ((UserDefinedInterpreterType) type).getTypeNode())
+                    .map(ClassNode::getConstructor);
+                if (!constructor.isPresent()) {
+                    error(referrer, "cannot instantiate non-class type " + className.getQualifiedName());
+                } else if (constructor.get().getArguments().size() != call.getArguments().size()) {
+                    error(referrer, "wrong number of arguments to constructor of " + className.getQualifiedName());
+                } else {
+                    constructors.put(call, new Links.Constructor(clazz, constructor));
+                }
+            } else {
+                constructors.put(call, new Links.Constructor(clazz, Optional.empty()));
+            }
+        });
+    }
+
+    private void linkFieldAccess(ScalarType referrer, FieldAccessNode fieldAccess) {
+        if (!(fieldAccess.getLeft() instanceof StaticReceiver)) {
+            return;
+        }
+        ScalarType className = ((StaticReceiver) fieldAccess.getLeft()).getType();
+        findClass(referrer, className).ifPresent(clazz -> {
+            int slot = classes.get(className).getStaticFieldLayout().slotOf(fieldAccess.getFieldName());
+            if (slot == FieldLayout.NO_SLOT) {
+                error(referrer, "cannot find static field " + className.getQualifiedName() + "." + fieldAccess.getFieldName());
+            } else {
+                staticFields.put(fieldAccess, new Links.StaticField(clazz, slot));
+            }
+        });
+    }
+
+    private Optional<Links.ClassLink> findClass(ScalarType referrer, ScalarType className) {
+        Optional<Links.ClassLink> clazz = Optional.ofNullable(classLinks.get(className));
+        if (!clazz.isPresent()) {
+            error(referrer, "cannot find class " + className.getQualifiedName());
+        }
+        return clazz;
+    }
+
+    private void error(ScalarType referrer, String description) {
+        errors.add(referrer.getQualifiedName() + ": " + description);
+    }
+
+    private static String describe(ScalarType className, MethodSignature signature) {
+        return className.getQualifiedName() + "." + signature.getName() + signature.getArguments();
+    }
+}
@@ -0,0 +1,157 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.ast.ConstructorCallNode;
+import org.zwobble.couscous.ast.ConstructorNode;
+import org.zwobble.couscous.ast.FieldAccessNode;
+import org.zwobble.couscous.ast.MethodCallNode;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.interpreter.values.InterpreterValue;
+import org.zwobble.couscous.interpreter.values.ObjectInterpreterValue;
+import org.zwobble.couscous.interpreter.values.StaticMethodValue;
+import org.zwobble.couscous.interpreter.values.StaticReceiverValue;
+import org.zwobble.couscous.types.ScalarType;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The targets of the static method calls, constructor calls and static field
+ * accesses in a project, bound by {@link Linker} when the project is built.
+ *
+ * Links are keyed by node identity. Nodes that weren't part of the project
+ * when it was linked, such as those created by desugaring operations at
+ * runtime, have no link, and are resolved by name instead.
+ */
+public class Links {
+    private final Map<MethodCallNode, StaticCall> staticCalls;
+    private final Map<ConstructorCallNode, Constructor> constructors;
+    private final Map<FieldAccessNode, StaticField> staticFields;
+
+    Links(
+        Map<MethodCallNode, StaticCall> staticCalls,
+        Map<ConstructorCallNode, Constructor> constructors,
+        Map<FieldAccessNode, StaticField> staticFields)
+    {
+        this.staticCalls = staticCalls;
+        this.constructors = constructors;
+        this.staticFields = staticFields;
+    }
+
+    // These return null rather than Optional.empty() for unlinked nodes
+    // since they're called for every evaluation of the node.
+
+    StaticCall staticCall(MethodCallNode methodCall) {
+        return staticCalls.get(methodCall);
+    }
+
+    Constructor constructor(ConstructorCallNode call) {
+        return constructors.get(call);
+    }
+
+    StaticField staticField(FieldAccessNode fieldAccess) {
+        return staticFields.get(fieldAccess);
+    }
+
+    /**
+     * A class in the project. Each class has an index, unique within the
+     * project, that execution states use to find initialised classes
+     * without a lookup by name.
+     */
+    static class ClassLink {
+        private final int index;
+        private final ScalarType name;
+
+        ClassLink(int index, ScalarType name) {
+            this.index = index;
+            this.name = name;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        ScalarType getName() {
+            return name;
+        }
+    }
+
+    static class StaticCall {
+        private final ClassLink clazz;
+        private final Optional<TieredMethod> method;
+        private final Optional<StaticMethodValue> intrinsic;
+
+        StaticCall(ClassLink clazz, Optional<TieredMethod> method, Optional<StaticMethodValue> intrinsic) {
+            this.clazz = clazz;
+            this.method = method;
+            this.intrinsic = intrinsic;
+        }
+
+        ClassLink getClassLink() {
+            return clazz;
+        }
+
+        /**
+         * The method when it's defined by a user-defined type.
+         */
+        Optional<TieredMethod> getMethod() {
+            return method;
+        }
+
+        InterpreterValue call(Environment environment, Arguments arguments) {
+            return method.isPresent()
+                ? Executor.callMethod(environment, method.get(), Optional.empty(), arguments)
+                : intrinsic.get().apply(environment, arguments);
+        }
+    }
+
+    static class Constructor {
+        private final ClassLink clazz;
+        private final Optional<ConstructorNode> constructor;
+
+        Constructor(ClassLink clazz, Optional<ConstructorNode> constructor) {
+            this.clazz = clazz;
+            this.constructor = constructor;
+        }
+
+        ClassLink getClassLink() {
+            return clazz;
+        }
+
+        /**
+         * The constructor when the class is user-defined. It should only be
+         * called directly when the environment is trusted: otherwise, the
+         * class needs to check the arguments.
+         */
+        Optional<ConstructorNode> getConstructor() {
+            return constructor;
+        }
+
+        InterpreterValue call(Environment environment, StaticReceiverValue receiver, Arguments arguments) {
+            if (constructor.isPresent() && environment.isTrusted()) {
+                ObjectInterpreterValue value = receiver.instantiate(arguments.getTypes());
+                Executor.callConstructor(environment, constructor.get(), value, arguments);
+                return value;
+            } else {
+                return receiver.callConstructor(environment, arguments);
+            }
+        }
+    }
+
+    static class StaticField {
+        private final ClassLink clazz;
+        private final int slot;
+
+        StaticField(ClassLink clazz, int slot) {
+            this.clazz = clazz;
+            this.slot = slot;
+        }
+
+        ClassLink getClassLink() {
+            return clazz;
+        }
+
+        int getSlot() {
+            return slot;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.zwobble.couscous.interpreter;
 
 import com.google.common.collect.ImmutableMap;
 import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Type;
 import org.zwobble.couscous.interpreter.types.InterpreterType;
 
 import java.util.Map;
@@ -15,9 +16,16 @@ public class MapBackedProject implements Project {
     
     public static class Builder {
         private final ImmutableMap.Builder<ScalarType, InterpreterType> classes;
+        private boolean isTrusted;
         
         private Builder() {
             classes = ImmutableMap.builder();
+            isTrusted = false;
+        }
+        
+        public Builder trusted() {
+            isTrusted = true;
+            return this;
         }
         
         public Builder addClass(InterpreterType clazz) {
@@ -33,14 +41,24 @@ public class MapBackedProject implements Project {
         }
         
         public Project build() {
-            return new MapBackedProject(classes.build());
+            return new MapBackedProject(classes.build(), isTrusted);
         }
     }
 
-    private Map<ScalarType, InterpreterType> classes;
+    private final Map<ScalarType, InterpreterType> classes;
+    private final SubtypeTable subtypes;
+    private final boolean isTrusted;
+    private final Links links;
     
     public MapBackedProject(Map<ScalarType, InterpreterType> classes) {
+        this(classes, false);
+    }
+    
+    private MapBackedProject(Map<ScalarType, InterpreterType> classes, boolean isTrusted) {
         this.classes = classes;
+        this.subtypes = SubtypeTable.build(classes);
+        this.isTrusted = isTrusted;
+        this.links = Linker.link(classes);
     }
     
     @Override
@@ -51,4 +69,19 @@ public class MapBackedProject implements Project {
             throw new IllegalArgumentException("Cannot find class: " + name);
         }
     }
+
+    @Override
+    public boolean isTrusted() {
+        return isTrusted;
+    }
+
+    @Override
+    public Links getLinks() {
+        return links;
+    }
+
+    @Override
+    public boolean isSubType(Type superType, InterpreterType subType) {
+        return subtypes.isSubType(superType, subType);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,275 @@
+package org.zwobble.couscous.interpreter;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.WriterConfig;
+import org.zwobble.couscous.ast.MethodSignature;
+import org.zwobble.couscous.ast.StatementNode;
+import org.zwobble.couscous.ast.WhileNode;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.zwobble.couscous.ast.structure.NodeStructure.descendantNodesAndSelf;
+
+/**
+ * Records where an interpreted program spends its time. Pass a profiler to
+ * {@link InterpreterSession.Builder#profiler} to enable it: without one, the
+ * interpreter does no profiling work.
+ *
+ * For each method, the profiler records invocations, inclusive and exclusive
+ * time, and the number of objects and arrays allocated directly by that
+ * method. For each while loop, it records the number of iterations, naming
+ * the loop by its position within its method. Methods
+ * are identified by their class and signature, so overloads are recorded
+ * separately. Static initialisers and constructors are recorded as
+ * {@code <clinit>} and {@code <init>} respectively.
+ *
+ * A profiler is not thread-safe, and should only be used by one session.
+ */
+public class Profiler {
+    private static final String TOP_LEVEL = "<top>";
+
+    private final Map<MethodKey, MethodProfile> methods = new LinkedHashMap<>();
+    private final Map<WhileNode, LoopProfile> loops = new IdentityHashMap<>();
+    private final List<LoopProfile> loopsInOrder = new ArrayList<>();
+    private final StackNode stacks = new StackNode(null);
+    private Frame frame = null;
+    private int topLevelLoops = 0;
+
+    /**
+     * The body of a method is only used to number its loops, and is only
+     * read the first time that the method is entered.
+     */
+    void enter(ScalarType className, MethodSignature signature, List<StatementNode> body) {
+        MethodKey key = new MethodKey(className, signature);
+        MethodProfile method = methods.get(key);
+        if (method == null) {
+            method = new MethodProfile(key, body);
+            methods.put(key, method);
+        }
+        method.invocations++;
+        method.activations++;
+        StackNode stack = (frame == null ? stacks : frame.stack).child(method);
+        frame = new Frame(frame, method, stack, System.nanoTime());
+    }
+
+    void exit() {
+        long elapsed = System.nanoTime() - frame.start;
+        long exclusive = elapsed - frame.childNanos;
+        MethodProfile method = frame.method;
+        method.exclusiveNanos += exclusive;
+        // Only the outermost activation of a recursive method counts towards
+        // its inclusive time, so that nested calls aren't counted twice.
+        if (--method.activations == 0) {
+            method.inclusiveNanos += elapsed;
+        }
+        frame.stack.exits++;
+        frame.stack.exclusiveNanos += exclusive;
+        frame = frame.parent;
+        if (frame != null) {
+            frame.childNanos += elapsed;
+        }
+    }
+
+    void recordAllocation() {
+        if (frame != null) {
+            frame.method.allocations++;
+        }
+    }
+
+    void recordIteration(WhileNode loop) {
+        LoopProfile profile = loops.get(loop);
+        if (profile == null) {
+            MethodProfile method = frame == null ? null : frame.method;
+            int index = method == null ? ++topLevelLoops : method.loopNumber(loop);
+            profile = new LoopProfile(method, index);
+            loops.put(loop, profile);
+            loopsInOrder.add(profile);
+        }
+        profile.iterations++;
+    }
+
+    /**
+     * Write the exclusive time of each stack, in nanoseconds, in the
+     * collapsed format read by flame graph tools such as flamegraph.pl.
+     */
+    public void writeCollapsedStacks(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (StackNode stack : stacks.children.values()) {
+                writeCollapsedStacks(writer, stack, stack.method.name());
+            }
+        }
+    }
+
+    private static void writeCollapsedStacks(Writer writer, StackNode stack, String name) throws IOException {
+        if (stack.exits > 0) {
+            writer.write(name);
+            writer.write(' ');
+            writer.write(Long.toString(stack.exclusiveNanos));
+            writer.write('\n');
+        }
+        for (StackNode child : stack.children.values()) {
+            writeCollapsedStacks(writer, child, name + ";" + child.method.name());
+        }
+    }
+
+    public void writeSummary(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            toJson().writeTo(writer, WriterConfig.PRETTY_PRINT);
+        }
+    }
+
+    public JsonObject toJson() {
+        JsonArray methodsJson = new JsonArray();
+        for (MethodProfile method : methods.values()) {
+            if (method.invocations > 0) {
+                methodsJson.add(new JsonObject()
+                    .add("name", method.name())
+                    .add("invocations", method.invocations)
+                    .add("inclusiveNanos", method.inclusiveNanos)
+                    .add("exclusiveNanos", method.exclusiveNanos)
+                    .add("allocations", method.allocations));
+            }
+        }
+        JsonArray loopsJson = new JsonArray();
+        for (LoopProfile loop : loopsInOrder) {
+            loopsJson.add(new JsonObject()
+                .add("name", loop.name())
+                .add("iterations", loop.iterations));
+        }
+        return new JsonObject()
+            .add("methods", methodsJson)
+            .add("loops", loopsJson);
+    }
+
+    private static class Frame {
+        private final Frame parent;
+        private final MethodProfile method;
+        private final StackNode stack;
+        private final long start;
+        private long childNanos;
+
+        private Frame(Frame parent, MethodProfile method, StackNode stack, long start) {
+            this.parent = parent;
+            this.method = method;
+            this.stack = stack;
+            this.start = start;
+            this.childNanos = 0;
+        }
+    }
+
+    private static class StackNode {
+        private final MethodProfile method;
+        private final Map<MethodProfile, StackNode> children = new LinkedHashMap<>();
+        private long exits;
+        private long exclusiveNanos;
+
+        private StackNode(MethodProfile method) {
+            this.method = method;
+        }
+
+        private StackNode child(MethodProfile method) {
+            StackNode child = children.get(method);
+            if (child == null) {
+                child = new StackNode(method);
+                children.put(method, child);
+            }
+            return child;
+        }
+    }
+
+    private static class MethodKey {
+        private final ScalarType className;
+        private final MethodSignature signature;
+
+        private MethodKey(ScalarType className, MethodSignature signature) {
+            this.className = className;
+            this.signature = signature;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            MethodKey that = (MethodKey) o;
+
+            if (!className.equals(that.className)) return false;
+            return signature.equals(that.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = className.hashCode();
+            result = 31 * result + signature.hashCode();
+            return result;
+        }
+    }
+
+    private static class MethodProfile {
+        private final MethodKey key;
+        private long invocations;
+        private long inclusiveNanos;
+        private long exclusiveNanos;
+        private long allocations;
+        private int activations;
+        private final List<StatementNode> body;
+        private Map<WhileNode, Integer> loopNumbers;
+
+        private MethodProfile(MethodKey key, List<StatementNode> body) {
+            this.key = key;
+            this.body = body;
+        }
+
+        /**
+         * Loops are numbered from 1 in the order they appear in the body of
+         * the method, so the same loop has the same number regardless of
+         * which loops run.
+         */
+        private int loopNumber(WhileNode loop) {
+            if (loopNumbers == null) {
+                loopNumbers = new IdentityHashMap<>();
+                for (StatementNode statement : body) {
+                    descendantNodesAndSelf(statement)
+                        .filter(node -> node instanceof WhileNode)
+                        .forEach(node -> loopNumbers.put((WhileNode) node, loopNumbers.size() + 1));
+                }
+            }
+            return loopNumbers.computeIfAbsent(loop, key -> loopNumbers.size() + 1);
+        }
+
+        private String name() {
+            return key.className.getQualifiedName() + "." + key.signature.getName() +
+                key.signature.getArguments().stream()
+                    .map(argument -> Types.erasure(argument).getQualifiedName())
+                    .collect(Collectors.joining(",", "(", ")"));
+        }
+    }
+
+    private static class LoopProfile {
+        private final MethodProfile method;
+        private final int index;
+        private long iterations;
+
+        private LoopProfile(MethodProfile method, int index) {
+            this.method = method;
+            this.index = index;
+        }
+
+        private String name() {
+            return (method == null ? TOP_LEVEL : method.name()) + " loop " + index;
+        }
+    }
+}
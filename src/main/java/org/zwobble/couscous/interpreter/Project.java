@@ -1,8 +1,12 @@
 package org.zwobble.couscous.interpreter;
 
 import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Type;
 import org.zwobble.couscous.interpreter.types.InterpreterType;
 
 public interface Project {
     InterpreterType findClass(ScalarType name);
+    boolean isSubType(Type superType, InterpreterType subType);
+    boolean isTrusted();
+    Links getLinks();
 }
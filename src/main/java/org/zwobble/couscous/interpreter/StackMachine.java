@@ -0,0 +1,547 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.ast.*;
+import org.zwobble.couscous.ast.sugar.SwitchNode;
+import org.zwobble.couscous.interpreter.errors.ConditionMustBeBoolean;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.interpreter.types.InterpreterType;
+import org.zwobble.couscous.interpreter.types.ParameterizedInterpreterType;
+import org.zwobble.couscous.interpreter.types.UserDefinedInterpreterType;
+import org.zwobble.couscous.interpreter.values.*;
+import org.zwobble.couscous.types.ParameterizedType;
+import org.zwobble.couscous.types.Type;
+import org.zwobble.couscous.types.Types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.zwobble.couscous.types.Types.erasure;
+import static org.zwobble.couscous.util.Casts.tryCast;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * Executes methods of user-defined types without nesting JVM frames for each
+ * interpreted call, so the depth of recursion is bounded by memory rather
+ * than by the JVM stack.
+ *
+ * Pending work is kept on a heap-allocated task stack of (node, phase) pairs:
+ * the phase records how much of the node has been evaluated so far, with
+ * intermediate results held on a separate value stack. Calls to user-defined
+ * methods and constructors push a frame rather than recursing. Static
+ * initialisers and intrinsic methods still run on the JVM stack.
+ */
+class StackMachine {
+    static InterpreterValue callMethod(
+        Environment environment,
+        StaticReceiverValue clazz,
+        MethodSignature signature,
+        Arguments arguments)
+    {
+        StackMachine machine = new StackMachine(environment);
+        machine.invoke(clazz.getType(), Optional.empty(), signature, arguments);
+        return machine.execute();
+    }
+
+    private interface Step<T extends Node> {
+        void step(StackMachine machine, T node, int phase);
+    }
+
+    // Indexed by node type. Node types registered after this class is
+    // initialised, such as those private to a backend, have no step.
+    private static final Step<?>[] STEPS = new Step<?>[NodeTypes.count()];
+
+    private static <T extends Node> void register(int nodeType, Step<T> step) {
+        if (nodeType >= STEPS.length) {
+            throw new IllegalArgumentException("Node type " + nodeType + " is outside of the " + STEPS.length + " registered node types");
+        }
+        STEPS[nodeType] = step;
+    }
+
+    static {
+        register(NodeTypes.LITERAL, StackMachine::literal);
+        register(NodeTypes.VARIABLE_REFERENCE, StackMachine::variableReference);
+        register(NodeTypes.THIS_REFERENCE, StackMachine::thisReference);
+        register(NodeTypes.ARRAY, StackMachine::array);
+        register(NodeTypes.ARRAY_INDEX, StackMachine::arrayIndex);
+        register(NodeTypes.ASSIGNMENT, StackMachine::assignment);
+        register(NodeTypes.TERNARY_CONDITIONAL, StackMachine::ternaryConditional);
+        register(NodeTypes.METHOD_CALL, StackMachine::methodCall);
+        register(NodeTypes.CONSTRUCTOR_CALL, StackMachine::constructorCall);
+        register(NodeTypes.OPERATION, StackMachine::operation);
+        register(NodeTypes.FIELD_ACCESS, StackMachine::fieldAccess);
+        register(NodeTypes.TYPE_COERCION, StackMachine::typeCoercion);
+        register(NodeTypes.CAST, StackMachine::cast);
+        register(NodeTypes.RETURN, StackMachine::returnStatement);
+        register(NodeTypes.EXPRESSION_STATEMENT, StackMachine::expressionStatement);
+        register(NodeTypes.LOCAL_VARIABLE_DECLARATION, StackMachine::localVariableDeclaration);
+        register(NodeTypes.IF_STATEMENT, StackMachine::ifStatement);
+        register(NodeTypes.WHILE, StackMachine::whileLoop);
+        register(NodeTypes.SWITCH, StackMachine::switchStatement);
+        register(NodeTypes.STATEMENT_BLOCK, StackMachine::statementBlock);
+    }
+
+    // Marks the bottom of a frame on the task stack: reaching it means that
+    // the method finished without an explicit return.
+    private static final Object FRAME_END = new Object();
+
+    private Environment environment;
+    private Frame frame;
+    private Object[] tasks = new Object[64];
+    private int[] phases = new int[64];
+    private int taskCount = 0;
+    private InterpreterValue[] values = new InterpreterValue[64];
+    private int valueCount = 0;
+
+    private StackMachine(Environment environment) {
+        this.environment = environment;
+        this.frame = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private InterpreterValue execute() {
+        while (frame != null) {
+            int index = --taskCount;
+            Object task = tasks[index];
+            int phase = phases[index];
+            tasks[index] = null;
+            if (task == FRAME_END) {
+                returnFromFrame(UnitInterpreterValue.UNIT);
+            } else if (task instanceof List) {
+                statements((List<StatementNode>) task, phase);
+            } else {
+                Node node = (Node) task;
+                int nodeType = node.nodeType();
+                Step<Node> step = nodeType < STEPS.length ? (Step<Node>) STEPS[nodeType] : null;
+                if (step == null) {
+                    throw new UnsupportedOperationException("Cannot execute node: " + node);
+                }
+                step.step(this, node, phase);
+            }
+        }
+        return popValue();
+    }
+
+    private void statements(List<StatementNode> statements, int index) {
+        if (index + 1 < statements.size()) {
+            schedule(statements, index + 1);
+        }
+        schedule(statements.get(index), 0);
+    }
+
+    private static void literal(StackMachine machine, LiteralNode literal, int phase) {
+        machine.pushValue(machine.environment.literal(literal));
+    }
+
+    private static void variableReference(StackMachine machine, VariableReferenceNode reference, int phase) {
+        machine.pushValue(machine.environment.get(reference.getReferentId()));
+    }
+
+    private static void thisReference(StackMachine machine, ThisReferenceNode reference, int phase) {
+        machine.pushValue(machine.environment.getThis().get());
+    }
+
+    private static void array(StackMachine machine, ArrayNode array, int phase) {
+        List<ExpressionNode> elements = array.getElements();
+        if (phase < elements.size()) {
+            machine.schedule(array, phase + 1);
+            machine.schedule(elements.get(phase), 0);
+        } else {
+            machine.pushValue(ArrayInterpreterValue.of(array.getElementType(), machine.popValues(elements.size())));
+        }
+    }
+
+    private static void arrayIndex(StackMachine machine, ArrayIndexNode arrayIndex, int phase) {
+        if (phase == 0) {
+            machine.schedule(arrayIndex, 1);
+            machine.schedule(arrayIndex.getArray(), 0);
+        } else if (phase == 1) {
+            machine.schedule(arrayIndex, 2);
+            machine.schedule(arrayIndex.getIndex(), 0);
+        } else {
+            int index = machine.popIndex(arrayIndex.getIndex());
+            ArrayInterpreterValue array = machine.popArray(arrayIndex.getArray());
+            machine.pushValue(array.get(index));
+        }
+    }
+
+    private static void assignment(StackMachine machine, AssignmentNode assignment, int phase) {
+        // As in the evaluator, the object, array and index of the target are
+        // evaluated before the value. The value is left on the value stack as
+        // the result of the assignment.
+        AssignableExpressionNode target = assignment.getTarget();
+        if (target instanceof VariableReferenceNode) {
+            if (phase == 0) {
+                machine.schedule(assignment, 1);
+                machine.schedule(assignment.getValue(), 0);
+            } else {
+                machine.environment.put(((VariableReferenceNode) target).getReferentId(), machine.peekValue());
+            }
+        } else if (target instanceof FieldAccessNode) {
+            FieldAccessNode fieldAccess = (FieldAccessNode) target;
+            Receiver receiver = fieldAccess.getLeft();
+            if (receiver instanceof InstanceReceiver) {
+                if (phase == 0) {
+                    machine.schedule(assignment, 1);
+                    machine.schedule(((InstanceReceiver) receiver).getExpression(), 0);
+                } else if (phase == 1) {
+                    machine.schedule(assignment, 2);
+                    machine.schedule(assignment.getValue(), 0);
+                } else {
+                    InterpreterValue value = machine.popValue();
+                    InterpreterFields fields = Evaluator.objectFields(fieldAccess, machine.popValue());
+                    fields.setField(Evaluator.fieldSlot(machine.environment, fieldAccess, fields), value);
+                    machine.pushValue(value);
+                }
+            } else if (phase == 0) {
+                machine.schedule(assignment, 1);
+                machine.schedule(assignment.getValue(), 0);
+            } else {
+                Links.StaticField link = machine.environment.getLinks().staticField(fieldAccess);
+                if (link != null) {
+                    machine.environment.findClass(link.getClassLink()).getFields().setField(link.getSlot(), machine.peekValue());
+                } else {
+                    InterpreterFields fields = machine.staticFields((StaticReceiver) receiver);
+                    fields.setField(Evaluator.fieldSlot(machine.environment, fieldAccess, fields), machine.peekValue());
+                }
+            }
+        } else {
+            ArrayIndexNode arrayIndex = (ArrayIndexNode) target;
+            if (phase == 0) {
+                machine.schedule(assignment, 1);
+                machine.schedule(arrayIndex.getArray(), 0);
+            } else if (phase == 1) {
+                machine.schedule(assignment, 2);
+                machine.schedule(arrayIndex.getIndex(), 0);
+            } else if (phase == 2) {
+                machine.schedule(assignment, 3);
+                machine.schedule(assignment.getValue(), 0);
+            } else {
+                InterpreterValue value = machine.popValue();
+                int index = machine.popIndex(arrayIndex.getIndex());
+                ArrayInterpreterValue array = machine.popArray(arrayIndex.getArray());
+                if (!machine.environment.isTrusted()) {
+                    InterpreterTypes.checkIsInstance(machine.environment.getProject(), array.getElementType(), value);
+                }
+                array.set(index, value);
+                machine.pushValue(value);
+            }
+        }
+    }
+
+    private static void ternaryConditional(StackMachine machine, TernaryConditionalNode ternary, int phase) {
+        if (phase == 0) {
+            machine.schedule(ternary, 1);
+            machine.schedule(ternary.getCondition(), 0);
+        } else {
+            machine.schedule(machine.popCondition() ? ternary.getIfTrue() : ternary.getIfFalse(), 0);
+        }
+    }
+
+    private static void methodCall(StackMachine machine, MethodCallNode methodCall, int phase) {
+        List<ExpressionNode> arguments = methodCall.getArguments();
+        Receiver receiver = methodCall.getReceiver();
+        if (phase < arguments.size()) {
+            machine.schedule(methodCall, phase + 1);
+            machine.schedule(arguments.get(phase), 0);
+        } else if (phase == arguments.size() && receiver instanceof InstanceReceiver) {
+            machine.schedule(methodCall, phase + 1);
+            machine.schedule(((InstanceReceiver) receiver).getExpression(), 0);
+        } else if (receiver instanceof InstanceReceiver) {
+            InterpreterValue value = machine.popValue();
+            Arguments argumentValues = new Arguments(list(), machine.popValues(arguments.size()));
+            machine.invoke(value.getType(), Optional.of(value), methodCall.signature().generic(), argumentValues);
+        } else {
+            Links.StaticCall link = machine.environment.getLinks().staticCall(methodCall);
+            if (link == null) {
+                StaticReceiverValue clazz = machine.environment.findClass(((StaticReceiver) receiver).getType());
+                Arguments argumentValues = new Arguments(list(), machine.popValues(arguments.size()));
+                machine.invoke(clazz.getType(), Optional.empty(), methodCall.signature().generic(), argumentValues);
+                return;
+            }
+            machine.environment.findClass(link.getClassLink());
+            Arguments argumentValues = new Arguments(list(), machine.popValues(arguments.size()));
+            if (link.getMethod().isPresent()) {
+                machine.enterMethod(link.getMethod().get(), Optional.empty(), argumentValues);
+            } else {
+                machine.pushValue(link.call(machine.environment, argumentValues));
+            }
+        }
+    }
+
+    private static void constructorCall(StackMachine machine, ConstructorCallNode call, int phase) {
+        List<? extends ExpressionNode> arguments = call.getArguments();
+        Links.Constructor link = machine.environment.getLinks().constructor(call);
+        StaticReceiverValue clazz = link == null
+            ? machine.environment.findClass(erasure(call.getType()))
+            : machine.environment.findClass(link.getClassLink());
+        if (phase < arguments.size()) {
+            machine.schedule(call, phase + 1);
+            machine.schedule(arguments.get(phase), 0);
+            return;
+        }
+        List<Type> typeParameters = tryCast(ParameterizedType.class, call.getType())
+            .map(type -> type.getParameters())
+            .orElse(list());
+        Arguments argumentValues = new Arguments(typeParameters, machine.popValues(arguments.size()));
+        Optional<UserDefinedInterpreterType> userDefinedType = userDefinedType(clazz.getType());
+        if (userDefinedType.isPresent()) {
+            ConstructorNode constructor = link != null && machine.environment.isTrusted()
+                ? link.getConstructor().get()
+                : userDefinedType.get().findConstructor(machine.environment, argumentValues);
+            ObjectInterpreterValue value = clazz.instantiate(typeParameters);
+            machine.enter(constructor.getArguments(), constructor.getBody(), Optional.of(value), argumentValues, Optional.of(value));
+        } else {
+            machine.pushValue(clazz.callConstructor(machine.environment, argumentValues));
+        }
+    }
+
+    private static void operation(StackMachine machine, OperationNode operation, int phase) {
+        machine.schedule(operation.desugar(), 0);
+    }
+
+    private static void fieldAccess(StackMachine machine, FieldAccessNode fieldAccess, int phase) {
+        Receiver receiver = fieldAccess.getLeft();
+        if (phase == 0 && receiver instanceof InstanceReceiver) {
+            machine.schedule(fieldAccess, 1);
+            machine.schedule(((InstanceReceiver) receiver).getExpression(), 0);
+        } else if (phase == 0) {
+            Links.StaticField link = machine.environment.getLinks().staticField(fieldAccess);
+            if (link != null) {
+                machine.pushValue(machine.environment.findClass(link.getClassLink()).getFields().getField(link.getSlot()));
+            } else {
+                InterpreterFields fields = machine.staticFields((StaticReceiver) receiver);
+                machine.pushValue(fields.getField(Evaluator.fieldSlot(machine.environment, fieldAccess, fields)));
+            }
+        } else {
+            InterpreterFields fields = Evaluator.objectFields(fieldAccess, machine.popValue());
+            machine.pushValue(fields.getField(Evaluator.fieldSlot(machine.environment, fieldAccess, fields)));
+        }
+    }
+
+    private static void typeCoercion(StackMachine machine, TypeCoercionNode typeCoercion, int phase) {
+        if (phase == 0) {
+            machine.schedule(typeCoercion, 1);
+            machine.schedule(typeCoercion.getExpression(), 0);
+        } else {
+            machine.pushValue(Evaluator.coerce(typeCoercion, machine.popValue()));
+        }
+    }
+
+    private static void cast(StackMachine machine, CastNode cast, int phase) {
+        if (phase == 0) {
+            machine.schedule(cast, 1);
+            machine.schedule(cast.getExpression(), 0);
+        } else {
+            machine.pushValue(Evaluator.checkCast(machine.environment.getProject(), cast, machine.popValue()));
+        }
+    }
+
+    private static void returnStatement(StackMachine machine, ReturnNode returnNode, int phase) {
+        if (phase == 0) {
+            machine.schedule(returnNode, 1);
+            machine.schedule(returnNode.getValue(), 0);
+        } else {
+            machine.returnFromFrame(machine.popValue());
+        }
+    }
+
+    private static void expressionStatement(StackMachine machine, ExpressionStatementNode statement, int phase) {
+        if (phase == 0) {
+            machine.schedule(statement, 1);
+            machine.schedule(statement.getExpression(), 0);
+        } else {
+            machine.popValue();
+        }
+    }
+
+    private static void localVariableDeclaration(StackMachine machine, LocalVariableDeclarationNode declaration, int phase) {
+        if (phase == 0) {
+            machine.schedule(declaration, 1);
+            machine.schedule(declaration.getInitialValue(), 0);
+        } else {
+            machine.environment.put(declaration, machine.popValue());
+        }
+    }
+
+    private static void ifStatement(StackMachine machine, IfStatementNode ifStatement, int phase) {
+        if (phase == 0) {
+            machine.schedule(ifStatement, 1);
+            machine.schedule(ifStatement.getCondition(), 0);
+        } else {
+            machine.scheduleStatements(machine.popCondition() ? ifStatement.getTrueBranch() : ifStatement.getFalseBranch());
+        }
+    }
+
+    private static void whileLoop(StackMachine machine, WhileNode whileLoop, int phase) {
+        if (phase == 0) {
+            machine.schedule(whileLoop, 1);
+            machine.schedule(whileLoop.getCondition(), 0);
+        } else if (machine.popCondition()) {
+            machine.schedule(whileLoop, 0);
+            machine.scheduleStatements(whileLoop.getBody());
+        }
+    }
+
+    private static void switchStatement(StackMachine machine, SwitchNode switchNode, int phase) {
+        if (phase == 0) {
+            machine.schedule(switchNode, 1);
+            machine.schedule(switchNode.getValue(), 0);
+        } else {
+            machine.scheduleStatements(machine.environment.switchTable(switchNode).statementsFor(machine.popValue()));
+        }
+    }
+
+    private static void statementBlock(StackMachine machine, StatementBlockNode block, int phase) {
+        machine.scheduleStatements(block.getStatements());
+    }
+
+    private void invoke(
+        InterpreterType type,
+        Optional<InterpreterValue> receiver,
+        MethodSignature signature,
+        Arguments arguments)
+    {
+        Optional<UserDefinedInterpreterType> userDefinedType = userDefinedType(type);
+        if (userDefinedType.isPresent()) {
+            enterMethod(userDefinedType.get().findMethod(signature, !receiver.isPresent()), receiver, arguments);
+        } else if (receiver.isPresent()) {
+            pushValue(type.callMethod(environment, receiver.get(), signature, arguments));
+        } else {
+            pushValue(type.callStaticMethod(environment, signature, arguments));
+        }
+    }
+
+    private void enterMethod(TieredMethod method, Optional<InterpreterValue> receiver, Arguments arguments) {
+        MethodNode methodNode = method.getMethod();
+        List<StatementNode> body = methodNode.getBody().orElseThrow(() -> new RuntimeException("Cannot call abstract method"));
+        enter(methodNode.getArguments(), body, receiver, arguments, Optional.empty());
+    }
+
+    private static Optional<UserDefinedInterpreterType> userDefinedType(InterpreterType type) {
+        if (type instanceof ParameterizedInterpreterType) {
+            return userDefinedType(((ParameterizedInterpreterType) type).getGenericType());
+        } else {
+            return tryCast(UserDefinedInterpreterType.class, type);
+        }
+    }
+
+    private void enter(
+        List<FormalArgumentNode> formalArguments,
+        List<StatementNode> body,
+        Optional<InterpreterValue> thisValue,
+        Arguments arguments,
+        Optional<InterpreterValue> constructedValue)
+    {
+        Environment calleeEnvironment = Executor.buildEnvironment(environment, formalArguments, body, thisValue, arguments);
+        frame = new Frame(frame, environment, taskCount, valueCount, constructedValue);
+        environment = calleeEnvironment;
+        schedule(FRAME_END, 0);
+        scheduleStatements(body);
+    }
+
+    private void returnFromFrame(InterpreterValue value) {
+        Arrays.fill(tasks, frame.taskBase, taskCount, null);
+        taskCount = frame.taskBase;
+        valueCount = frame.valueBase;
+        environment = frame.callerEnvironment;
+        InterpreterValue result = frame.constructedValue.orElse(value);
+        frame = frame.caller;
+        pushValue(result);
+    }
+
+    private InterpreterFields staticFields(StaticReceiver receiver) {
+        return environment.findClass(receiver.getType()).getFields();
+    }
+
+    private boolean popCondition() {
+        InterpreterValue value = popValue();
+        if (!environment.isTrusted() && !(value instanceof BooleanInterpreterValue)) {
+            throw new ConditionMustBeBoolean(value);
+        }
+        return ((BooleanInterpreterValue) value).getValue();
+    }
+
+    private ArrayInterpreterValue popArray(ExpressionNode expression) {
+        InterpreterValue value = popValue();
+        if (!environment.isTrusted()) {
+            InterpreterTypes.checkIsInstance(environment.getProject(), expression.getType(), value);
+        }
+        return (ArrayInterpreterValue) value;
+    }
+
+    private int popIndex(ExpressionNode expression) {
+        InterpreterValue value = popValue();
+        if (!environment.isTrusted()) {
+            InterpreterTypes.checkIsInstance(environment.getProject(), Types.INT, value);
+        }
+        return ((IntegerInterpreterValue) value).getValue();
+    }
+
+    private void scheduleStatements(List<StatementNode> statements) {
+        if (!statements.isEmpty()) {
+            schedule(statements, 0);
+        }
+    }
+
+    private void schedule(Object task, int phase) {
+        if (taskCount == tasks.length) {
+            tasks = Arrays.copyOf(tasks, taskCount * 2);
+            phases = Arrays.copyOf(phases, taskCount * 2);
+        }
+        tasks[taskCount] = task;
+        phases[taskCount] = phase;
+        taskCount++;
+    }
+
+    private void pushValue(InterpreterValue value) {
+        if (valueCount == values.length) {
+            values = Arrays.copyOf(values, valueCount * 2);
+        }
+        values[valueCount++] = value;
+    }
+
+    private InterpreterValue peekValue() {
+        return values[valueCount - 1];
+    }
+
+    private InterpreterValue popValue() {
+        InterpreterValue value = values[--valueCount];
+        values[valueCount] = null;
+        return value;
+    }
+
+    private List<InterpreterValue> popValues(int count) {
+        List<InterpreterValue> popped = new ArrayList<>(count);
+        int base = valueCount - count;
+        for (int index = base; index < valueCount; index++) {
+            popped.add(values[index]);
+            values[index] = null;
+        }
+        valueCount = base;
+        return popped;
+    }
+
+    private static class Frame {
+        private final Frame caller;
+        private final Environment callerEnvironment;
+        private final int taskBase;
+        private final int valueBase;
+        private final Optional<InterpreterValue> constructedValue;
+
+        private Frame(
+            Frame caller,
+            Environment callerEnvironment,
+            int taskBase,
+            int valueBase,
+            Optional<InterpreterValue> constructedValue)
+        {
+            this.caller = caller;
+            this.callerEnvironment = callerEnvironment;
+            this.taskBase = taskBase;
+            this.valueBase = valueBase;
+            this.constructedValue = constructedValue;
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.interpreter.errors.StaticStateMismatch;
+import org.zwobble.couscous.interpreter.errors.UnsupportedStaticState;
+import org.zwobble.couscous.interpreter.types.InterpreterType;
+import org.zwobble.couscous.interpreter.types.ParameterizedInterpreterType;
+import org.zwobble.couscous.interpreter.values.*;
+import org.zwobble.couscous.types.ParameterizedType;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Type;
+import org.zwobble.couscous.types.Types;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+import static org.zwobble.couscous.types.Types.erasure;
+
+/**
+ * Reads and writes the static fields of initialised classes, along with
+ * everything reachable from them. Objects and arrays are written once and
+ * referred to by id afterwards, so sharing and cycles survive a round trip.
+ */
+class StaticStateFile {
+    private static final int MAGIC = 0x43535354;
+    private static final int VERSION = 1;
+
+    private static final byte UNBOUND = 0;
+    private static final byte INTEGER = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte STRING = 3;
+    private static final byte UNIT = 4;
+    private static final byte TYPE = 5;
+    private static final byte BACK_REFERENCE = 6;
+    private static final byte OBJECT = 7;
+    private static final byte INT_ARRAY = 8;
+    private static final byte BOOLEAN_ARRAY = 9;
+    private static final byte REFERENCE_ARRAY = 10;
+
+    private static final byte SCALAR_TYPE = 0;
+    private static final byte PARAMETERIZED_TYPE = 1;
+
+    /**
+     * The state is written to a temporary file in the same directory, which
+     * then replaces the destination. If the state can't be written, such as
+     * when it holds a value that can't be saved, the destination is left
+     * untouched.
+     */
+    static void write(ExecutionState state, Path path) throws IOException {
+        Path absolutePath = path.toAbsolutePath();
+        Path temporaryPath = Files.createTempFile(absolutePath.getParent(), absolutePath.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                new Writer(output).writeState(state);
+            }
+            Files.move(temporaryPath, absolutePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    static ExecutionState read(Project project, Path path) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return new Reader(project, input).readState();
+        }
+    }
+
+    /**
+     * Checks that two states hold the same classes with structurally equal
+     * static fields, as when comparing a restored state against a fresh
+     * initialisation.
+     */
+    static void checkMatches(ExecutionState actual, ExecutionState expected) {
+        new Comparison().compareStates(actual, expected);
+    }
+
+    /**
+     * Copies values along with every object and array reachable from them.
+     * Each object or array is copied once per copier, so sharing and cycles
+     * between all of the values copied by one copier are preserved. Other
+     * values are immutable, and are shared with the original.
+     */
+    static class Copier {
+        private final Map<InterpreterValue, InterpreterValue> copies = new IdentityHashMap<>();
+
+        InterpreterValue[] copyValues(InterpreterValue[] values) {
+            InterpreterValue[] copied = new InterpreterValue[values.length];
+            for (int index = 0; index < values.length; index++) {
+                copied[index] = copyValue(values[index]);
+            }
+            return copied;
+        }
+
+        private InterpreterValue copyValue(InterpreterValue value) {
+            if (copies.containsKey(value)) {
+                return copies.get(value);
+            } else if (value instanceof ObjectInterpreterValue) {
+                return copyObject((ObjectInterpreterValue) value);
+            } else if (value instanceof ArrayInterpreterValue) {
+                return copyArray((ArrayInterpreterValue) value);
+            } else {
+                return value;
+            }
+        }
+
+        private InterpreterValue copyObject(ObjectInterpreterValue value) {
+            ObjectInterpreterValue copy = new ObjectInterpreterValue(value.getType());
+            copies.put(value, copy);
+            InterpreterFields fields = value.getFields();
+            for (int slot = 0; slot < fields.getLayout().size(); slot++) {
+                InterpreterValue fieldValue = fields.findField(slot);
+                if (fieldValue != null) {
+                    copy.getFields().setField(slot, copyValue(fieldValue));
+                }
+            }
+            return copy;
+        }
+
+        private InterpreterValue copyArray(ArrayInterpreterValue value) {
+            Type elementType = value.getElementType();
+            if (elementType.equals(Types.INT) || elementType.equals(Types.BOOLEAN)) {
+                ArrayInterpreterValue copy = ArrayInterpreterValue.of(elementType, value.getElements());
+                copies.put(value, copy);
+                return copy;
+            } else {
+                // Register the copy before copying its elements so that
+                // elements can refer back to it.
+                ArrayInterpreterValue copy = ArrayInterpreterValue.of(elementType, Collections.nCopies(value.length(), null));
+                copies.put(value, copy);
+                for (int index = 0; index < value.length(); index++) {
+                    copy.set(index, copyValue(value.get(index)));
+                }
+                return copy;
+            }
+        }
+    }
+
+    private static class Comparison {
+        private final Map<InterpreterValue, InterpreterValue> visited = new IdentityHashMap<>();
+
+        private void compareStates(ExecutionState actual, ExecutionState expected) {
+            Map<ScalarType, StaticReceiverValue> actualClasses = actual.getClasses();
+            Map<ScalarType, StaticReceiverValue> expectedClasses = expected.getClasses();
+            if (!actualClasses.keySet().equals(expectedClasses.keySet())) {
+                throw new StaticStateMismatch(
+                    "initialised classes were " + actualClasses.keySet() + " but expected " + expectedClasses.keySet());
+            }
+            for (ScalarType className : actualClasses.keySet()) {
+                compareFields(
+                    className.getQualifiedName(),
+                    actualClasses.get(className).getFields(),
+                    expectedClasses.get(className).getFields());
+            }
+        }
+
+        private void compareFields(String path, InterpreterFields actual, InterpreterFields expected) {
+            for (int slot = 0; slot < expected.getLayout().size(); slot++) {
+                compareValues(
+                    path + "." + expected.getLayout().fieldName(slot),
+                    actual.findField(slot),
+                    expected.findField(slot));
+            }
+        }
+
+        private void compareValues(String path, InterpreterValue actual, InterpreterValue expected) {
+            if (actual == null || expected == null) {
+                if (actual != expected) {
+                    throw mismatch(path, actual, expected);
+                }
+            } else if (expected instanceof ObjectInterpreterValue || expected instanceof ArrayInterpreterValue) {
+                if (visited.containsKey(actual)) {
+                    if (visited.get(actual) != expected) {
+                        throw new StaticStateMismatch(path + " does not share the same object as expected");
+                    }
+                } else {
+                    visited.put(actual, expected);
+                    compareReferences(path, actual, expected);
+                }
+            } else if (expected instanceof TypeInterpreterValue) {
+                if (!(actual instanceof TypeInterpreterValue) ||
+                    !((TypeInterpreterValue) actual).getValue().equals(((TypeInterpreterValue) expected).getValue())) {
+                    throw mismatch(path, actual, expected);
+                }
+            } else if (!actual.equals(expected)) {
+                throw mismatch(path, actual, expected);
+            }
+        }
+
+        private void compareReferences(String path, InterpreterValue actual, InterpreterValue expected) {
+            if (!actual.getType().getType().equals(expected.getType().getType())) {
+                throw mismatch(path, actual.getType().getType(), expected.getType().getType());
+            }
+            if (expected instanceof ObjectInterpreterValue) {
+                compareFields(path, ((ObjectInterpreterValue) actual).getFields(), ((ObjectInterpreterValue) expected).getFields());
+            } else {
+                ArrayInterpreterValue actualArray = (ArrayInterpreterValue) actual;
+                ArrayInterpreterValue expectedArray = (ArrayInterpreterValue) expected;
+                if (actualArray.length() != expectedArray.length()) {
+                    throw new StaticStateMismatch(
+                        path + " had length " + actualArray.length() + " but expected " + expectedArray.length());
+                }
+                for (int index = 0; index < expectedArray.length(); index++) {
+                    compareValues(path + "[" + index + "]", actualArray.get(index), expectedArray.get(index));
+                }
+            }
+        }
+
+        private static StaticStateMismatch mismatch(String path, Object actual, Object expected) {
+            return new StaticStateMismatch(path + " was " + actual + " but expected " + expected);
+        }
+    }
+
+    private static class Writer {
+        private final DataOutputStream output;
+        private final Map<InterpreterValue, Integer> ids = new IdentityHashMap<>();
+
+        private Writer(DataOutputStream output) {
+            this.output = output;
+        }
+
+        private void writeState(ExecutionState state) throws IOException {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            Map<ScalarType, StaticReceiverValue> classes = state.getClasses();
+            output.writeInt(classes.size());
+            for (Map.Entry<ScalarType, StaticReceiverValue> entry : classes.entrySet()) {
+                writeType(entry.getKey());
+                InterpreterFields fields = entry.getValue().getFields();
+                output.writeInt(fields.getLayout().size());
+                for (int slot = 0; slot < fields.getLayout().size(); slot++) {
+                    writeString(fields.getLayout().fieldName(slot));
+                    writeValue(fields.findField(slot));
+                }
+            }
+        }
+
+        private void writeValue(InterpreterValue value) throws IOException {
+            if (value == null) {
+                output.writeByte(UNBOUND);
+            } else if (value instanceof IntegerInterpreterValue) {
+                output.writeByte(INTEGER);
+                output.writeInt(((IntegerInterpreterValue) value).getValue());
+            } else if (value instanceof BooleanInterpreterValue) {
+                output.writeByte(BOOLEAN);
+                output.writeBoolean(((BooleanInterpreterValue) value).getValue());
+            } else if (value instanceof StringInterpreterValue) {
+                output.writeByte(STRING);
+                writeString(((StringInterpreterValue) value).getValue());
+            } else if (value instanceof UnitInterpreterValue) {
+                output.writeByte(UNIT);
+            } else if (value instanceof TypeInterpreterValue) {
+                output.writeByte(TYPE);
+                writeType(((TypeInterpreterValue) value).getValue());
+            } else if (ids.containsKey(value)) {
+                output.writeByte(BACK_REFERENCE);
+                output.writeInt(ids.get(value));
+            } else if (value instanceof ObjectInterpreterValue) {
+                ids.put(value, ids.size());
+                writeObject((ObjectInterpreterValue) value);
+            } else if (value instanceof ArrayInterpreterValue) {
+                ids.put(value, ids.size());
+                writeArray((ArrayInterpreterValue) value);
+            } else {
+                throw new UnsupportedStaticState("cannot save value: " + value);
+            }
+        }
+
+        private void writeObject(ObjectInterpreterValue value) throws IOException {
+            output.writeByte(OBJECT);
+            InterpreterType type = value.getType();
+            writeType(erasure(type.getType()));
+            if (type instanceof ParameterizedInterpreterType) {
+                List<Type> parameters = ((ParameterizedType) type.getType()).getParameters();
+                output.writeInt(parameters.size());
+                for (Type parameter : parameters) {
+                    writeType(parameter);
+                }
+            } else {
+                output.writeInt(0);
+            }
+            InterpreterFields fields = value.getFields();
+            output.writeInt(fields.getLayout().size());
+            for (int slot = 0; slot < fields.getLayout().size(); slot++) {
+                writeValue(fields.findField(slot));
+            }
+        }
+
+        private void writeArray(ArrayInterpreterValue value) throws IOException {
+            Type elementType = value.getElementType();
+            if (elementType.equals(Types.INT)) {
+                output.writeByte(INT_ARRAY);
+                output.writeInt(value.length());
+                for (int index = 0; index < value.length(); index++) {
+                    output.writeInt(((IntegerInterpreterValue) value.get(index)).getValue());
+                }
+            } else if (elementType.equals(Types.BOOLEAN)) {
+                output.writeByte(BOOLEAN_ARRAY);
+                output.writeInt(value.length());
+                for (int index = 0; index < value.length(); index++) {
+                    output.writeBoolean(((BooleanInterpreterValue) value.get(index)).getValue());
+                }
+            } else {
+                output.writeByte(REFERENCE_ARRAY);
+                writeType(elementType);
+                output.writeInt(value.length());
+                for (int index = 0; index < value.length(); index++) {
+                    writeValue(value.get(index));
+                }
+            }
+        }
+
+        private void writeType(Type type) throws IOException {
+            if (type instanceof ScalarType) {
+                ScalarType scalarType = (ScalarType) type;
+                output.writeByte(SCALAR_TYPE);
+                output.writeBoolean(scalarType.getPackage().isPresent());
+                if (scalarType.getPackage().isPresent()) {
+                    writeString(scalarType.getPackage().get());
+                }
+                output.writeInt(scalarType.getTypeNames().size());
+                for (String typeName : scalarType.getTypeNames()) {
+                    writeString(typeName);
+                }
+            } else if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                output.writeByte(PARAMETERIZED_TYPE);
+                writeType(parameterizedType.getRawType());
+                output.writeInt(parameterizedType.getParameters().size());
+                for (Type parameter : parameterizedType.getParameters()) {
+                    writeType(parameter);
+                }
+            } else {
+                throw new UnsupportedStaticState("cannot save type: " + type);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static class Reader {
+        private final Project project;
+        private final DataInputStream input;
+        private final List<InterpreterValue> values = new ArrayList<>();
+
+        private Reader(Project project, DataInputStream input) {
+            this.project = project;
+            this.input = input;
+        }
+
+        private ExecutionState readState() throws IOException {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a static state file");
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported static state file version: " + version);
+            }
+            ExecutionState state = new ExecutionState();
+            int classCount = input.readInt();
+            for (int classIndex = 0; classIndex < classCount; classIndex++) {
+                ScalarType className = (ScalarType) readType();
+                StaticReceiverValue value = new StaticReceiverValue(project.findClass(className));
+                InterpreterFields fields = value.getFields();
+                int fieldCount = input.readInt();
+                if (fieldCount != fields.getLayout().size()) {
+                    throw new StaticStateMismatch(className + " has " + fields.getLayout().size() + " static fields, but file has " + fieldCount);
+                }
+                for (int slot = 0; slot < fieldCount; slot++) {
+                    String fieldName = readString();
+                    if (!fieldName.equals(fields.getLayout().fieldName(slot))) {
+                        throw new StaticStateMismatch(className + " has no static field " + fieldName + " at slot " + slot);
+                    }
+                    InterpreterValue fieldValue = readValue();
+                    if (fieldValue != null) {
+                        fields.setField(slot, fieldValue);
+                    }
+                }
+                state.addInitialisedClass(className, value);
+            }
+            return state;
+        }
+
+        private InterpreterValue readValue() throws IOException {
+            byte tag = input.readByte();
+            switch (tag) {
+                case UNBOUND:
+                    return null;
+                case INTEGER:
+                    return new IntegerInterpreterValue(input.readInt());
+                case BOOLEAN:
+                    return BooleanInterpreterValue.of(input.readBoolean());
+                case STRING:
+                    return StringInterpreterValue.of(readString());
+                case UNIT:
+                    return UnitInterpreterValue.UNIT;
+                case TYPE:
+                    return TypeInterpreterValue.of((ScalarType) readType());
+                case BACK_REFERENCE:
+                    return values.get(input.readInt());
+                case OBJECT:
+                    return readObject();
+                case INT_ARRAY:
+                case BOOLEAN_ARRAY:
+                case REFERENCE_ARRAY:
+                    return readArray(tag);
+                default:
+                    throw new IOException("Unknown value tag: " + tag);
+            }
+        }
+
+        private InterpreterValue readObject() throws IOException {
+            InterpreterType type = project.findClass((ScalarType) readType());
+            int parameterCount = input.readInt();
+            if (parameterCount > 0) {
+                List<Type> parameters = new ArrayList<>(parameterCount);
+                for (int index = 0; index < parameterCount; index++) {
+                    parameters.add(readType());
+                }
+                type = new ParameterizedInterpreterType(type, parameters);
+            }
+            ObjectInterpreterValue value = new ObjectInterpreterValue(type);
+            values.add(value);
+            InterpreterFields fields = value.getFields();
+            int fieldCount = input.readInt();
+            if (fieldCount != fields.getLayout().size()) {
+                throw new StaticStateMismatch(type.getType() + " has " + fields.getLayout().size() + " fields, but file has " + fieldCount);
+            }
+            for (int slot = 0; slot < fieldCount; slot++) {
+                InterpreterValue fieldValue = readValue();
+                if (fieldValue != null) {
+                    fields.setField(slot, fieldValue);
+                }
+            }
+            return value;
+        }
+
+        private InterpreterValue readArray(byte tag) throws IOException {
+            Type elementType = tag == INT_ARRAY ? Types.INT
+                : tag == BOOLEAN_ARRAY ? Types.BOOLEAN
+                : readType();
+            int length = input.readInt();
+            if (tag == REFERENCE_ARRAY) {
+                // Register the array before reading its elements so that
+                // elements can refer back to it.
+                ArrayInterpreterValue value = ArrayInterpreterValue.of(elementType, Collections.nCopies(length, null));
+                values.add(value);
+                for (int index = 0; index < length; index++) {
+                    value.set(index, readValue());
+                }
+                return value;
+            } else {
+                List<InterpreterValue> elements = new ArrayList<>(length);
+                for (int index = 0; index < length; index++) {
+                    elements.add(tag == INT_ARRAY
+                        ? new IntegerInterpreterValue(input.readInt())
+                        : BooleanInterpreterValue.of(input.readBoolean()));
+                }
+                ArrayInterpreterValue value = ArrayInterpreterValue.of(elementType, elements);
+                values.add(value);
+                return value;
+            }
+        }
+
+        private Type readType() throws IOException {
+            byte tag = input.readByte();
+            switch (tag) {
+                case SCALAR_TYPE: {
+                    Optional<String> packageName = input.readBoolean()
+                        ? Optional.of(readString())
+                        : Optional.empty();
+                    int typeNameCount = input.readInt();
+                    List<String> typeNames = new ArrayList<>(typeNameCount);
+                    for (int index = 0; index < typeNameCount; index++) {
+                        typeNames.add(readString());
+                    }
+                    return new ScalarType(packageName, typeNames);
+                }
+                case PARAMETERIZED_TYPE: {
+                    ScalarType rawType = (ScalarType) readType();
+                    int parameterCount = input.readInt();
+                    List<Type> parameters = new ArrayList<>(parameterCount);
+                    for (int index = 0; index < parameterCount; index++) {
+                        parameters.add(readType());
+                    }
+                    return new ParameterizedType(rawType, parameters);
+                }
+                default:
+                    throw new IOException("Unknown type tag: " + tag);
+            }
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[input.readInt()];
+            input.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.interpreter.types.InterpreterType;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Type;
+import org.zwobble.couscous.types.Types;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.zwobble.couscous.types.Types.erasure;
+
+public class SubtypeTable {
+    public static SubtypeTable build(Map<ScalarType, InterpreterType> classes) {
+        SubtypeTable table = new SubtypeTable(classes);
+        for (ScalarType type : classes.keySet()) {
+            table.superTypesOf(type);
+        }
+        return table;
+    }
+
+    private final Map<ScalarType, InterpreterType> classes;
+    private final Map<ScalarType, Integer> ids;
+    private final Map<ScalarType, BitSet> superTypes;
+
+    private SubtypeTable(Map<ScalarType, InterpreterType> classes) {
+        this.classes = classes;
+        this.ids = new HashMap<>();
+        this.superTypes = new HashMap<>();
+    }
+
+    public boolean isSubType(Type superType, InterpreterType subType) {
+        Type subTypeReference = subType.getType();
+        if (superType.equals(Types.OBJECT) || superType.equals(subTypeReference)) {
+            return true;
+        }
+        BitSet subTypeSuperTypes = superTypes.get(erasure(subTypeReference));
+        if (superType instanceof ScalarType && subTypeSuperTypes != null) {
+            Integer superTypeId = ids.get(superType);
+            return superTypeId != null && subTypeSuperTypes.get(superTypeId);
+        } else {
+            return InterpreterTypes.isDirectSubType(superType, subType);
+        }
+    }
+
+    private BitSet superTypesOf(ScalarType type) {
+        BitSet existing = superTypes.get(type);
+        if (existing != null) {
+            return existing;
+        }
+        BitSet result = new BitSet();
+        superTypes.put(type, result);
+        result.set(idOf(type));
+        for (Type superType : classes.get(type).getSuperTypes()) {
+            ScalarType erasedSuperType = erasure(superType);
+            result.set(idOf(erasedSuperType));
+            if (classes.containsKey(erasedSuperType)) {
+                result.or(superTypesOf(erasedSuperType));
+            }
+        }
+        return result;
+    }
+
+    private int idOf(ScalarType type) {
+        return ids.computeIfAbsent(type, key -> ids.size());
+    }
+}
@@ -0,0 +1,53 @@
+package org.zwobble.couscous.interpreter;
+
+import org.zwobble.couscous.ast.LiteralNode;
+import org.zwobble.couscous.ast.StatementNode;
+import org.zwobble.couscous.ast.sugar.SwitchCaseNode;
+import org.zwobble.couscous.ast.sugar.SwitchNode;
+import org.zwobble.couscous.interpreter.values.InterpreterValue;
+import org.zwobble.couscous.interpreter.values.InterpreterValues;
+import org.zwobble.couscous.types.Type;
+import org.zwobble.couscous.types.Types;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * The statements to run for each value of a switch, so that a switch takes a
+ * single lookup rather than comparing the value against each case in turn.
+ */
+class SwitchTable {
+    static boolean isSupported(SwitchNode switchNode) {
+        Type type = switchNode.getValue().getType();
+        return (type.equals(Types.INT) || type.equals(Types.STRING)) && switchNode.hasLiteralCases();
+    }
+
+    static SwitchTable build(SwitchNode switchNode) {
+        Map<InterpreterValue, List<StatementNode>> cases = new HashMap<>();
+        List<StatementNode> defaultCase = list();
+        for (SwitchCaseNode switchCase : switchNode.getCasesWithFallthrough()) {
+            if (switchCase.isDefault()) {
+                defaultCase = switchCase.getStatements();
+            } else {
+                LiteralNode value = (LiteralNode) switchCase.getValue().get();
+                cases.put(InterpreterValues.value(value.getValue()), switchCase.getStatements());
+            }
+        }
+        return new SwitchTable(cases, defaultCase);
+    }
+
+    private final Map<InterpreterValue, List<StatementNode>> cases;
+    private final List<StatementNode> defaultCase;
+
+    private SwitchTable(Map<InterpreterValue, List<StatementNode>> cases, List<StatementNode> defaultCase) {
+        this.cases = cases;
+        this.defaultCase = defaultCase;
+    }
+
+    List<StatementNode> statementsFor(InterpreterValue value) {
+        return cases.getOrDefault(value, defaultCase);
+    }
+}
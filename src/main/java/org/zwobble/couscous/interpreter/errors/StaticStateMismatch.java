@@ -0,0 +1,19 @@
+package org.zwobble.couscous.interpreter.errors;
+
+public final class StaticStateMismatch extends InterpreterException {
+    private static final long serialVersionUID = 1L;
+    private final String description;
+
+    public StaticStateMismatch(final String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return this.description;
+    }
+
+    @java.lang.Override
+    public java.lang.String toString() {
+        return "StaticStateMismatch(description=" + this.getDescription() + ")";
+    }
+}
@@ -0,0 +1,26 @@
+package org.zwobble.couscous.interpreter.errors;
+
+import java.util.List;
+
+public final class UnresolvedReferences extends InterpreterException {
+    private static final long serialVersionUID = 1L;
+    private final List<String> references;
+
+    public UnresolvedReferences(final List<String> references) {
+        this.references = references;
+    }
+
+    public List<String> getReferences() {
+        return this.references;
+    }
+
+    @java.lang.Override
+    public java.lang.String getMessage() {
+        return java.lang.String.join("\n", this.getReferences());
+    }
+
+    @java.lang.Override
+    public java.lang.String toString() {
+        return "UnresolvedReferences(references=" + this.getReferences() + ")";
+    }
+}
@@ -0,0 +1,5 @@
+package org.zwobble.couscous.interpreter.jit;
+
+public abstract class CompiledCode {
+    public abstract int invoke(int[] arguments);
+}
@@ -0,0 +1,46 @@
+package org.zwobble.couscous.interpreter.jit;
+
+import org.zwobble.couscous.interpreter.values.BooleanInterpreterValue;
+import org.zwobble.couscous.interpreter.values.IntegerInterpreterValue;
+import org.zwobble.couscous.interpreter.values.InterpreterValue;
+import org.zwobble.couscous.interpreter.values.UnitInterpreterValue;
+import org.zwobble.couscous.types.Type;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+import java.util.Optional;
+
+public class CompiledMethod {
+    private final CompiledCode code;
+    private final Type returnType;
+
+    CompiledMethod(CompiledCode code, Type returnType) {
+        this.code = code;
+        this.returnType = returnType;
+    }
+
+    public Optional<InterpreterValue> call(List<InterpreterValue> arguments) {
+        int[] compiledArguments = new int[arguments.size()];
+        for (int index = 0; index < compiledArguments.length; index++) {
+            InterpreterValue argument = arguments.get(index);
+            if (argument instanceof IntegerInterpreterValue) {
+                compiledArguments[index] = ((IntegerInterpreterValue) argument).getValue();
+            } else if (argument instanceof BooleanInterpreterValue) {
+                compiledArguments[index] = ((BooleanInterpreterValue) argument).getValue() ? 1 : 0;
+            } else {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(toInterpreterValue(code.invoke(compiledArguments)));
+    }
+
+    private InterpreterValue toInterpreterValue(int result) {
+        if (returnType.equals(Types.INT)) {
+            return new IntegerInterpreterValue(result);
+        } else if (returnType.equals(Types.BOOLEAN)) {
+            return BooleanInterpreterValue.of(result != 0);
+        } else {
+            return UnitInterpreterValue.UNIT;
+        }
+    }
+}
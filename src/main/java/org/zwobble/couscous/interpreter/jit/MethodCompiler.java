@@ -0,0 +1,368 @@
+package org.zwobble.couscous.interpreter.jit;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.ClassFileVersion;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.bytecode.Duplication;
+import net.bytebuddy.implementation.bytecode.Removal;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.collection.ArrayFactory;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.zwobble.couscous.ast.*;
+import org.zwobble.couscous.ast.identifiers.Identifier;
+import org.zwobble.couscous.ast.visitors.DynamicNodeMapper;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Type;
+import org.zwobble.couscous.types.Types;
+import org.zwobble.couscous.util.asm.Implementations;
+import org.zwobble.couscous.util.asm.StackManipulationInstruction;
+import org.zwobble.couscous.util.asm.StackManipulationLabel;
+import org.zwobble.couscous.util.asm.TypeDescriptions;
+import org.zwobble.couscous.values.PrimitiveValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import static org.zwobble.couscous.util.Casts.tryCast;
+import static org.zwobble.couscous.util.ExtraLists.eagerMap;
+import static org.zwobble.couscous.util.asm.StackManipulationIntegerVariable.load;
+import static org.zwobble.couscous.util.asm.StackManipulationIntegerVariable.store;
+import static org.zwobble.couscous.util.asm.StackManipulationJump.jump;
+import static org.zwobble.couscous.util.asm.StackManipulationJump.jumpIf;
+import static org.zwobble.couscous.util.asm.StackManipulationJump.jumpIfZero;
+
+/**
+ * Compiles static methods that only use {@code int} and {@code boolean} values to JVM bytecode.
+ *
+ * <p>
+ *   Booleans are represented as zero or one, and every variable is given its own local variable slot.
+ *   Methods using any other node or type are left to the interpreter.
+ * </p>
+ */
+public class MethodCompiler {
+    public static Optional<CompiledMethod> compile(ScalarType className, MethodNode method) {
+        if (!method.isStatic() || !method.getBody().isPresent() || !isCompilableReturnType(method.getReturnType())) {
+            return Optional.empty();
+        }
+        try {
+            MethodCompiler compiler = new MethodCompiler(className, method);
+            StackManipulation code = compiler.compileMethod();
+            Class<? extends CompiledCode> compiledClass = new ByteBuddy(ClassFileVersion.JAVA_V5)
+                .subclass(CompiledCode.class)
+                .method(ElementMatchers.named("invoke"))
+                .intercept(Implementations.stackManipulation(compiler.localVariableSize(), target -> code))
+                .make()
+                .load(MethodCompiler.class.getClassLoader())
+                .getLoaded();
+            return Optional.of(new CompiledMethod(compiledClass.newInstance(), method.getReturnType()));
+        } catch (UnsupportedNode exception) {
+            return Optional.empty();
+        } catch (InstantiationException | IllegalAccessException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private static boolean isCompilableReturnType(Type type) {
+        return type.equals(Types.VOID) || isCompilableType(type);
+    }
+
+    private static boolean isCompilableType(Type type) {
+        return type.equals(Types.INT) || type.equals(Types.BOOLEAN);
+    }
+
+    private static final BiFunction<Node, MethodCompiler, StackManipulation> COMPILE =
+        DynamicNodeMapper.visitor(MethodCompiler.class, "visit");
+
+    private static final int ARGUMENTS_SLOT = 1;
+
+    private final ScalarType className;
+    private final MethodNode method;
+    private final Map<Identifier, Integer> slots;
+    private int nextSlot;
+
+    private MethodCompiler(ScalarType className, MethodNode method) {
+        this.className = className;
+        this.method = method;
+        this.slots = new HashMap<>();
+        this.nextSlot = ARGUMENTS_SLOT + 1;
+    }
+
+    private StackManipulation compileMethod() {
+        List<StackManipulation> argumentSlots = eagerMap(method.getArguments(), argument -> declare(argument));
+        StackManipulation body = compileStatements(method.getBody().get());
+
+        List<StackManipulation> code = new ArrayList<>();
+        for (int slot = ARGUMENTS_SLOT + 1; slot < nextSlot; slot++) {
+            code.add(IntegerConstant.ZERO);
+            code.add(store(slot));
+        }
+        for (int index = 0; index < argumentSlots.size(); index++) {
+            code.add(MethodVariableAccess.REFERENCE.loadOffset(ARGUMENTS_SLOT));
+            code.add(IntegerConstant.forValue(index));
+            code.add(new StackManipulationInstruction(Opcodes.IALOAD, -1));
+            code.add(argumentSlots.get(index));
+        }
+        code.add(body);
+        code.add(IntegerConstant.ZERO);
+        code.add(MethodReturn.INTEGER);
+        return new StackManipulation.Compound(code);
+    }
+
+    private int localVariableSize() {
+        return nextSlot - (ARGUMENTS_SLOT + 1);
+    }
+
+    private StackManipulation declare(VariableNode variable) {
+        if (!isCompilableType(variable.getDeclaration().getType())) {
+            throw new UnsupportedNode(variable);
+        }
+        int slot = nextSlot++;
+        slots.put(variable.getDeclaration().getId(), slot);
+        return store(slot);
+    }
+
+    private int slot(VariableReferenceNode reference) {
+        Integer slot = slots.get(reference.getReferentId());
+        if (slot == null) {
+            throw new UnsupportedNode(reference);
+        }
+        return slot;
+    }
+
+    private StackManipulation compile(Node node) {
+        return COMPILE.apply(node, this);
+    }
+
+    private StackManipulation compileStatements(List<StatementNode> statements) {
+        return new StackManipulation.Compound(eagerMap(statements, this::compile));
+    }
+
+    private StackManipulation compileOperand(ExpressionNode expression) {
+        if (!isCompilableType(expression.getType())) {
+            throw new UnsupportedNode(expression);
+        }
+        return compile(expression);
+    }
+
+    public StackManipulation visit(Node node) {
+        throw new UnsupportedNode(node);
+    }
+
+    public StackManipulation visit(ReturnNode returnNode) {
+        return new StackManipulation.Compound(
+            compileOperand(returnNode.getValue()),
+            MethodReturn.INTEGER);
+    }
+
+    public StackManipulation visit(ExpressionStatementNode expressionStatement) {
+        ExpressionNode expression = expressionStatement.getExpression();
+        return new StackManipulation.Compound(
+            compile(expression),
+            expression.getType().equals(Types.VOID) ? StackManipulation.Trivial.INSTANCE : Removal.SINGLE);
+    }
+
+    public StackManipulation visit(LocalVariableDeclarationNode localVariableDeclaration) {
+        StackManipulation initialValue = compileOperand(localVariableDeclaration.getInitialValue());
+        return new StackManipulation.Compound(
+            initialValue,
+            declare(localVariableDeclaration));
+    }
+
+    public StackManipulation visit(IfStatementNode ifStatement) {
+        Label falseBranch = new Label();
+        Label end = new Label();
+        return new StackManipulation.Compound(
+            compileOperand(ifStatement.getCondition()),
+            jumpIfZero(falseBranch),
+            compileStatements(ifStatement.getTrueBranch()),
+            jump(end),
+            new StackManipulationLabel(falseBranch),
+            compileStatements(ifStatement.getFalseBranch()),
+            new StackManipulationLabel(end));
+    }
+
+    public StackManipulation visit(WhileNode whileLoop) {
+        Label condition = new Label();
+        Label end = new Label();
+        return new StackManipulation.Compound(
+            new StackManipulationLabel(condition),
+            compileOperand(whileLoop.getCondition()),
+            jumpIfZero(end),
+            compileStatements(whileLoop.getBody()),
+            jump(condition),
+            new StackManipulationLabel(end));
+    }
+
+    public StackManipulation visit(StatementBlockNode block) {
+        return compileStatements(block.getStatements());
+    }
+
+    public StackManipulation visit(LiteralNode literal) {
+        return literal.getValue().accept(new PrimitiveValue.Visitor<StackManipulation>() {
+            @Override
+            public StackManipulation visitInteger(int value) {
+                return IntegerConstant.forValue(value);
+            }
+
+            @Override
+            public StackManipulation visitChar(char value) {
+                throw new UnsupportedNode(literal);
+            }
+
+            @Override
+            public StackManipulation visitString(String value) {
+                throw new UnsupportedNode(literal);
+            }
+
+            @Override
+            public StackManipulation visitBoolean(boolean value) {
+                return IntegerConstant.forValue(value);
+            }
+
+            @Override
+            public StackManipulation visitUnit() {
+                throw new UnsupportedNode(literal);
+            }
+
+            @Override
+            public StackManipulation visitType(ScalarType value) {
+                throw new UnsupportedNode(literal);
+            }
+        });
+    }
+
+    public StackManipulation visit(VariableReferenceNode reference) {
+        return load(slot(reference));
+    }
+
+    public StackManipulation visit(AssignmentNode assignment) {
+        VariableReferenceNode target = tryCast(VariableReferenceNode.class, assignment.getTarget())
+            .orElseThrow(() -> new UnsupportedNode(assignment));
+        return new StackManipulation.Compound(
+            compileOperand(assignment.getValue()),
+            Duplication.SINGLE,
+            store(slot(target)));
+    }
+
+    public StackManipulation visit(TernaryConditionalNode ternary) {
+        Label ifFalse = new Label();
+        Label end = new Label();
+        return new StackManipulation.Compound(
+            compileOperand(ternary.getCondition()),
+            jumpIfZero(ifFalse),
+            compileOperand(ternary.getIfTrue()),
+            jump(end),
+            new StackManipulationLabel(ifFalse),
+            compileOperand(ternary.getIfFalse()),
+            new StackManipulationLabel(end));
+    }
+
+    public StackManipulation visit(MethodCallNode methodCall) {
+        boolean isRecursiveCall = tryCast(StaticReceiver.class, methodCall.getReceiver())
+            .filter(receiver -> receiver.getType().equals(className))
+            .isPresent() &&
+            methodCall.signature().generic().equals(method.signature().generic());
+        if (!isRecursiveCall) {
+            throw new UnsupportedNode(methodCall);
+        }
+        return new StackManipulation.Compound(
+            MethodVariableAccess.REFERENCE.loadOffset(0),
+            ArrayFactory.forType(new TypeDescription.ForLoadedType(int.class).asGenericType())
+                .withValues(eagerMap(methodCall.getArguments(), this::compileOperand)),
+            MethodInvocation.invoke(TypeDescriptions.findMethod(CompiledCode.class, "invoke", int[].class)),
+            methodCall.getType().equals(Types.VOID) ? Removal.SINGLE : StackManipulation.Trivial.INSTANCE);
+    }
+
+    public StackManipulation visit(OperationNode operation) {
+        List<StackManipulation> arguments = eagerMap(operation.getArguments(), this::compileOperand);
+        switch (operation.getOperator()) {
+            case BOOLEAN_AND:
+                return shortCircuit(arguments, 0);
+            case BOOLEAN_OR:
+                return shortCircuit(arguments, 1);
+            case BOOLEAN_NOT:
+                return new StackManipulation.Compound(
+                    arguments.get(0),
+                    IntegerConstant.ONE,
+                    new StackManipulationInstruction(Opcodes.IXOR, -1));
+            case INTEGER_NEGATION:
+                return new StackManipulation.Compound(
+                    arguments.get(0),
+                    new StackManipulationInstruction(Opcodes.INEG, 0));
+            case ADD:
+                return arithmetic(arguments, Opcodes.IADD);
+            case SUBTRACT:
+                return arithmetic(arguments, Opcodes.ISUB);
+            case MULTIPLY:
+                return arithmetic(arguments, Opcodes.IMUL);
+            case DIVIDE:
+                return arithmetic(arguments, Opcodes.IDIV);
+            case MOD:
+                return arithmetic(arguments, Opcodes.IREM);
+            case EQUALS:
+                return comparison(arguments, Opcodes.IF_ICMPEQ);
+            case NOT_EQUALS:
+                return comparison(arguments, Opcodes.IF_ICMPNE);
+            case GREATER_THAN:
+                return comparison(arguments, Opcodes.IF_ICMPGT);
+            case GREATER_THAN_OR_EQUAL:
+                return comparison(arguments, Opcodes.IF_ICMPGE);
+            case LESS_THAN:
+                return comparison(arguments, Opcodes.IF_ICMPLT);
+            case LESS_THAN_OR_EQUAL:
+                return comparison(arguments, Opcodes.IF_ICMPLE);
+            default:
+                throw new UnsupportedNode(operation);
+        }
+    }
+
+    private static StackManipulation arithmetic(List<StackManipulation> arguments, int opcode) {
+        return new StackManipulation.Compound(
+            arguments.get(0),
+            arguments.get(1),
+            new StackManipulationInstruction(opcode, -1));
+    }
+
+    private static StackManipulation comparison(List<StackManipulation> arguments, int opcode) {
+        Label isTrue = new Label();
+        Label end = new Label();
+        return new StackManipulation.Compound(
+            arguments.get(0),
+            arguments.get(1),
+            jumpIf(opcode, isTrue),
+            IntegerConstant.ZERO,
+            jump(end),
+            new StackManipulationLabel(isTrue),
+            IntegerConstant.ONE,
+            new StackManipulationLabel(end));
+    }
+
+    private static StackManipulation shortCircuit(List<StackManipulation> arguments, int shortCircuitValue) {
+        Label shortCircuit = new Label();
+        return new StackManipulation.Compound(
+            arguments.get(0),
+            Duplication.SINGLE,
+            jumpIf(shortCircuitValue == 0 ? Opcodes.IFEQ : Opcodes.IFNE, shortCircuit),
+            Removal.SINGLE,
+            arguments.get(1),
+            new StackManipulationLabel(shortCircuit));
+    }
+
+    private static class UnsupportedNode extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedNode(Object node) {
+            super("Cannot compile node: " + node);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.zwobble.couscous.interpreter.jit;
+
+import org.zwobble.couscous.ast.MethodNode;
+import org.zwobble.couscous.types.ScalarType;
+
+import java.util.Optional;
+
+public class TieredMethod {
+    public static final int DEFAULT_COMPILE_THRESHOLD = 10000;
+    public static final int NEVER_COMPILE = -1;
+
+    private final ScalarType className;
+    private final MethodNode method;
+    private final int compileThreshold;
+    // Counters are shared by every run of the project. They only decide when
+    // to compile, so updates lost to races are harmless, and they stop being
+    // written once that decision has been made.
+    private long invocations;
+    private long backEdges;
+    private volatile boolean compilationAttempted;
+    private volatile Optional<CompiledMethod> compiled;
+
+    public TieredMethod(ScalarType className, MethodNode method, int compileThreshold) {
+        this.className = className;
+        this.method = method;
+        this.compileThreshold = compileThreshold;
+        this.compilationAttempted = compileThreshold == NEVER_COMPILE;
+        this.compiled = Optional.empty();
+    }
+
+    public ScalarType getClassName() {
+        return className;
+    }
+
+    public MethodNode getMethod() {
+        return method;
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    public long getBackEdges() {
+        return backEdges;
+    }
+
+    public boolean isCompiled() {
+        return compiled.isPresent();
+    }
+
+    public Optional<CompiledMethod> recordInvocation() {
+        if (!compilationAttempted) {
+            invocations++;
+            if (invocations + backEdges > compileThreshold) {
+                compile();
+            }
+        }
+        return compiled;
+    }
+
+    public void recordBackEdge() {
+        if (!compilationAttempted) {
+            backEdges++;
+        }
+    }
+
+    private synchronized void compile() {
+        if (!compilationAttempted) {
+            compiled = MethodCompiler.compile(className, method);
+            compilationAttempted = true;
+        }
+    }
+}
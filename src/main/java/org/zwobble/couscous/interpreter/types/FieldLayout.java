@@ -0,0 +1,52 @@
+package org.zwobble.couscous.interpreter.types;
+
+import org.zwobble.couscous.ast.FieldDeclarationNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FieldLayout {
+    public static final int NO_SLOT = -1;
+
+    public static FieldLayout instanceFields(Iterable<FieldDeclarationNode> fields) {
+        return new FieldLayout(fields, false);
+    }
+
+    public static FieldLayout staticFields(Iterable<FieldDeclarationNode> fields) {
+        return new FieldLayout(fields, true);
+    }
+
+    private final List<String> fieldNames;
+    private final Map<String, Integer> slots;
+
+    private FieldLayout(Iterable<FieldDeclarationNode> fields, boolean isStatic) {
+        this.fieldNames = new ArrayList<>();
+        this.slots = new HashMap<>();
+        for (FieldDeclarationNode field : fields) {
+            if (field.isStatic() == isStatic) {
+                slots.put(field.getName(), fieldNames.size());
+                fieldNames.add(field.getName());
+            }
+        }
+    }
+
+    public int size() {
+        return fieldNames.size();
+    }
+
+    public int slotOf(String fieldName) {
+        Integer slot = slots.get(fieldName);
+        return slot == null ? NO_SLOT : slot;
+    }
+
+    public String fieldName(int slot) {
+        return fieldNames.get(slot);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldLayout(" + fieldNames + ")";
+    }
+}
@@ -16,6 +16,8 @@ public interface InterpreterType {
     Type getType();
     Set<Type> getSuperTypes();
     Optional<FieldDeclarationNode> getField(String fieldName);
+    FieldLayout getInstanceFieldLayout();
+    FieldLayout getStaticFieldLayout();
     List<StatementNode> getStaticConstructor();
     void callConstructor(Environment environment, InterpreterValue thisValue, Arguments arguments);
     InterpreterValue callMethod(Environment environment, InterpreterValue value, MethodSignature signature, Arguments arguments);
@@ -71,10 +71,17 @@ public class IntrinsicInterpreterType implements InterpreterType {
         private MethodValue toMethodValue(List<Type> argumentsTypes, BiFunction<Environment, MethodCallArguments<T>, InterpreterValue> method) {
             return new MethodValue(
                 argumentsTypes,
-                (environment, arguments) ->
-                    tryCast(interpreterValueType, arguments.getReceiver())
-                        .map(typedReceiver -> method.apply(environment, MethodCallArguments.of(typedReceiver, arguments.getArguments())))
-                        .orElseThrow(() -> new RuntimeException("receiver is of wrong type")));
+                (environment, arguments) -> {
+                    if (environment.isTrusted()) {
+                        @SuppressWarnings("unchecked")
+                        T typedReceiver = (T) arguments.getReceiver();
+                        return method.apply(environment, MethodCallArguments.of(typedReceiver, arguments.getArguments()));
+                    } else {
+                        return tryCast(interpreterValueType, arguments.getReceiver())
+                            .map(typedReceiver -> method.apply(environment, MethodCallArguments.of(typedReceiver, arguments.getArguments())))
+                            .orElseThrow(() -> new RuntimeException("receiver is of wrong type"));
+                    }
+                });
         }
 
         public Builder<T> staticMethod(
@@ -99,6 +106,8 @@ public class IntrinsicInterpreterType implements InterpreterType {
 
     private final Type type;
     private final Map<String, FieldDeclarationNode> fields;
+    private final FieldLayout instanceFieldLayout;
+    private final FieldLayout staticFieldLayout;
     private final MethodValue constructor;
     private final Map<MethodSignature, MethodValue> methods;
     private final Map<MethodSignature, StaticMethodValue> staticMethods;
@@ -112,6 +121,8 @@ public class IntrinsicInterpreterType implements InterpreterType {
     {
         this.type = type;
         this.fields = fields;
+        this.instanceFieldLayout = FieldLayout.instanceFields(fields.values());
+        this.staticFieldLayout = FieldLayout.staticFields(fields.values());
         this.constructor = constructor;
         this.methods = methods;
         this.staticMethods = staticMethods;
@@ -132,6 +143,16 @@ public class IntrinsicInterpreterType implements InterpreterType {
         return Optional.ofNullable(fields.get(fieldName));
     }
 
+    @Override
+    public FieldLayout getInstanceFieldLayout() {
+        return instanceFieldLayout;
+    }
+
+    @Override
+    public FieldLayout getStaticFieldLayout() {
+        return staticFieldLayout;
+    }
+
     @Override
     public List<StatementNode> getStaticConstructor() {
         return list();
@@ -149,6 +170,10 @@ public class IntrinsicInterpreterType implements InterpreterType {
         return method.apply(environment, arguments);
     }
 
+    public Optional<StaticMethodValue> findStaticMethod(MethodSignature signature) {
+        return Optional.ofNullable(staticMethods.get(signature));
+    }
+
     private static <T extends Callable> T findMethod(Map<MethodSignature, T> methods, MethodSignature signature) {
         if (!methods.containsKey(signature)) {
             throw new NoSuchMethod(signature);
@@ -30,6 +30,10 @@ public class ParameterizedInterpreterType implements InterpreterType {
         this.parameters = parameters;
     }
 
+    public InterpreterType getGenericType() {
+        return genericType;
+    }
+
     @Override
     public Type getType() {
         return parameterizedType(((ParameterizedType) genericType.getType()).getRawType(), parameters);
@@ -56,6 +60,16 @@ public class ParameterizedInterpreterType implements InterpreterType {
         return genericType.getField(fieldName);
     }
 
+    @Override
+    public FieldLayout getInstanceFieldLayout() {
+        return genericType.getInstanceFieldLayout();
+    }
+
+    @Override
+    public FieldLayout getStaticFieldLayout() {
+        return genericType.getStaticFieldLayout();
+    }
+
     @Override
     public List<StatementNode> getStaticConstructor() {
         throw new UnsupportedOperationException();
@@ -5,7 +5,9 @@ import org.zwobble.couscous.interpreter.Arguments;
 import org.zwobble.couscous.interpreter.Environment;
 import org.zwobble.couscous.interpreter.Executor;
 import org.zwobble.couscous.interpreter.InterpreterTypes;
+import org.zwobble.couscous.interpreter.Project;
 import org.zwobble.couscous.interpreter.errors.NoSuchMethod;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
 import org.zwobble.couscous.interpreter.errors.WrongNumberOfArguments;
 import org.zwobble.couscous.interpreter.values.InterpreterValue;
 import org.zwobble.couscous.types.Type;
@@ -26,23 +28,37 @@ import static org.zwobble.couscous.util.ExtraMaps.*;
 public class UserDefinedInterpreterType implements InterpreterType {
     private final TypeNode type;
     private final Map<String, FieldDeclarationNode> fields;
-    private final Map<MethodSignature, MethodNode> methods;
+    private final FieldLayout instanceFieldLayout;
+    private final FieldLayout staticFieldLayout;
+    private final Map<MethodSignature, TieredMethod> methods;
 
     public UserDefinedInterpreterType(TypeNode type) {
+        this(type, TieredMethod.DEFAULT_COMPILE_THRESHOLD);
+    }
+
+    public UserDefinedInterpreterType(TypeNode type, int compileThreshold) {
         this.type = type;
-        this.fields = tryCast(ClassNode.class, type)
-            .map(classNode -> toMapWithKeys(classNode.getFields(), FieldDeclarationNode::getName))
-            .orElse(map());
+        List<FieldDeclarationNode> fieldDeclarations = tryCast(ClassNode.class, type)
+            .map(ClassNode::getFields)
+            .orElse(list());
+        this.fields = toMapWithKeys(fieldDeclarations, FieldDeclarationNode::getName);
+        this.instanceFieldLayout = FieldLayout.instanceFields(fieldDeclarations);
+        this.staticFieldLayout = FieldLayout.staticFields(fieldDeclarations);
 
         Iterable<MethodNode> concreteMethods = filter(type.getMethods(), method -> !method.isAbstract());
 
-        Iterable<Map.Entry<MethodSignature, MethodNode>> entries = lazyFlatMap(concreteMethods, method -> {
+        Iterable<Map.Entry<MethodSignature, TieredMethod>> entries = lazyFlatMap(concreteMethods, method -> {
+            TieredMethod tieredMethod = new TieredMethod(type.getName(), method, compileThreshold);
             List<MethodSignature> signatures = cons(method.signature(), method.getOverrides());
-            return lazyMap(signatures, signature -> entry(signature.generic(), method));
+            return lazyMap(signatures, signature -> entry(signature.generic(), tieredMethod));
         });
         this.methods = toMap(entries);
     }
 
+    public TypeNode getTypeNode() {
+        return type;
+    }
+
     @Override
     public Type getType() {
         List<Type> parameters = eagerMap(
@@ -63,6 +79,16 @@ public class UserDefinedInterpreterType implements InterpreterType {
         return Optional.ofNullable(fields.get(fieldName));
     }
 
+    @Override
+    public FieldLayout getInstanceFieldLayout() {
+        return instanceFieldLayout;
+    }
+
+    @Override
+    public FieldLayout getStaticFieldLayout() {
+        return staticFieldLayout;
+    }
+
     @Override
     public List<StatementNode> getStaticConstructor() {
         return tryCast(ClassNode.class, type)
@@ -72,6 +98,18 @@ public class UserDefinedInterpreterType implements InterpreterType {
 
     @Override
     public void callConstructor(Environment environment, InterpreterValue thisValue, Arguments arguments) {
+        Executor.callConstructor(
+            environment,
+            findConstructor(environment, arguments),
+            thisValue,
+            arguments);
+    }
+
+    /**
+     * Find the constructor to call with the given arguments, checking the
+     * arguments unless the environment is trusted.
+     */
+    public ConstructorNode findConstructor(Environment environment, Arguments arguments) {
         ConstructorNode constructor = tryCast(ClassNode.class, type)
             // TODO: add test for this case
             .orElseThrow(() -> new RuntimeException("Cannot instantiate non-class types"))
@@ -79,21 +117,19 @@ public class UserDefinedInterpreterType implements InterpreterType {
         List<Type> formalArgumentTypes = eagerMap(
             constructor.getArguments(),
             FormalArgumentNode::getType);
-        checkMethodArguments(formalArgumentTypes, arguments.getValues());
-        Executor.callConstructor(
-            environment,
-            constructor,
-            thisValue,
-            arguments);
+        if (!environment.isTrusted()) {
+            checkMethodArguments(environment.getProject(), formalArgumentTypes, arguments.getValues());
+        }
+        return constructor;
     }
 
-    private static void checkMethodArguments(final List<Type> argumentTypes, List<InterpreterValue> arguments) {
+    private static void checkMethodArguments(Project project, List<Type> argumentTypes, List<InterpreterValue> arguments) {
         if (argumentTypes.size() != arguments.size()) {
             throw new WrongNumberOfArguments(argumentTypes.size(), arguments.size());
         }
         for (int index = 0; index < arguments.size(); index++) {
             Type formalArgumentType = argumentTypes.get(index);
-            InterpreterTypes.checkIsInstance(formalArgumentType, arguments.get(index));
+            InterpreterTypes.checkIsInstance(project, formalArgumentType, arguments.get(index));
         }
     }
 
@@ -115,9 +151,9 @@ public class UserDefinedInterpreterType implements InterpreterType {
             arguments);
     }
 
-    private MethodNode findMethod(MethodSignature signature, boolean isStatic) {
+    public TieredMethod findMethod(MethodSignature signature, boolean isStatic) {
         return Optional.ofNullable(methods.get(signature))
-            .filter(method -> method.isStatic() == isStatic)
+            .filter(method -> method.getMethod().isStatic() == isStatic)
             .orElseThrow(() -> new NoSuchMethod(signature));
     }
 }
@@ -7,16 +7,44 @@ import org.zwobble.couscous.types.Type;
 import org.zwobble.couscous.types.Types;
 import org.zwobble.couscous.values.PrimitiveValue;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public abstract class ArrayInterpreterValue implements InterpreterValue {
+    private static final Map<Type, InterpreterType> TYPES = new ConcurrentHashMap<>();
+
+    public static ArrayInterpreterValue of(Type elementType, List<InterpreterValue> elements) {
+        if (elementType.equals(Types.INT)) {
+            int[] values = new int[elements.size()];
+            for (int index = 0; index < values.length; index++) {
+                values[index] = ((IntegerInterpreterValue) elements.get(index)).getValue();
+            }
+            return new IntArray(values);
+        } else if (elementType.equals(Types.BOOLEAN)) {
+            boolean[] values = new boolean[elements.size()];
+            for (int index = 0; index < values.length; index++) {
+                values[index] = ((BooleanInterpreterValue) elements.get(index)).getValue();
+            }
+            return new BooleanArray(values);
+        } else {
+            return new ReferenceArray(elementType, elements.toArray(new InterpreterValue[elements.size()]));
+        }
+    }
 
-public class ArrayInterpreterValue implements InterpreterValue {
     private final Type elementType;
-    private final List<InterpreterValue> elements;
+    private final InterpreterType type;
 
-    public ArrayInterpreterValue(Type elementType, List<InterpreterValue> elements) {
+    private ArrayInterpreterValue(Type elementType) {
         this.elementType = elementType;
-        this.elements = elements;
+        this.type = TYPES.computeIfAbsent(elementType, ArrayInterpreterValue::arrayType);
+    }
+
+    private static InterpreterType arrayType(Type elementType) {
+        return IntrinsicInterpreterType.builder(ArrayInterpreterValue.class, Types.array(elementType))
+            .build();
     }
 
     public Type getElementType() {
@@ -24,13 +52,20 @@ public class ArrayInterpreterValue implements InterpreterValue {
     }
 
     public List<InterpreterValue> getElements() {
+        List<InterpreterValue> elements = new ArrayList<>(length());
+        for (int index = 0; index < length(); index++) {
+            elements.add(get(index));
+        }
         return elements;
     }
 
+    public abstract int length();
+    public abstract InterpreterValue get(int index);
+    public abstract void set(int index, InterpreterValue value);
+
     @Override
     public InterpreterType getType() {
-        return IntrinsicInterpreterType.builder(ArrayInterpreterValue.class, Types.array(elementType))
-            .build();
+        return type;
     }
 
     @Override
@@ -47,4 +82,76 @@ public class ArrayInterpreterValue implements InterpreterValue {
     public void setField(String fieldName, InterpreterValue value) {
         throw new NoSuchField(fieldName);
     }
+
+    private static class IntArray extends ArrayInterpreterValue {
+        private final int[] elements;
+
+        private IntArray(int[] elements) {
+            super(Types.INT);
+            this.elements = elements;
+        }
+
+        @Override
+        public int length() {
+            return elements.length;
+        }
+
+        @Override
+        public InterpreterValue get(int index) {
+            return new IntegerInterpreterValue(elements[index]);
+        }
+
+        @Override
+        public void set(int index, InterpreterValue value) {
+            elements[index] = ((IntegerInterpreterValue) value).getValue();
+        }
+    }
+
+    private static class BooleanArray extends ArrayInterpreterValue {
+        private final boolean[] elements;
+
+        private BooleanArray(boolean[] elements) {
+            super(Types.BOOLEAN);
+            this.elements = elements;
+        }
+
+        @Override
+        public int length() {
+            return elements.length;
+        }
+
+        @Override
+        public InterpreterValue get(int index) {
+            return BooleanInterpreterValue.of(elements[index]);
+        }
+
+        @Override
+        public void set(int index, InterpreterValue value) {
+            elements[index] = ((BooleanInterpreterValue) value).getValue();
+        }
+    }
+
+    private static class ReferenceArray extends ArrayInterpreterValue {
+        private final InterpreterValue[] elements;
+
+        private ReferenceArray(Type elementType, InterpreterValue[] elements) {
+            super(elementType);
+            this.elements = elements;
+        }
+
+        @Override
+        public int length() {
+            return elements.length;
+        }
+
+        @Override
+        public InterpreterValue get(int index) {
+            return elements[index];
+        }
+
+        @Override
+        public void set(int index, InterpreterValue value) {
+            elements[index] = value;
+        }
+    }
 }
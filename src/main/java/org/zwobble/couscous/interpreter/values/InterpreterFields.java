@@ -1,51 +1,69 @@
 package org.zwobble.couscous.interpreter.values;
 
-import org.zwobble.couscous.ast.FieldDeclarationNode;
 import org.zwobble.couscous.interpreter.errors.NoSuchField;
 import org.zwobble.couscous.interpreter.errors.UnboundField;
+import org.zwobble.couscous.interpreter.types.FieldLayout;
 import org.zwobble.couscous.interpreter.types.InterpreterType;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class InterpreterFields {
     public static InterpreterFields forClass(InterpreterType type) {
-        return new InterpreterFields(true, type);
+        return new InterpreterFields(type.getStaticFieldLayout());
     }
 
     public static InterpreterFields forInstanceOf(InterpreterType type) {
-        return new InterpreterFields(false, type);
+        return new InterpreterFields(type.getInstanceFieldLayout());
     }
 
-    private final boolean isStatic;
-    private final InterpreterType type;
-    private final Map<String, InterpreterValue> fields;
+    private final FieldLayout layout;
+    private final InterpreterValue[] values;
+
+    private InterpreterFields(FieldLayout layout) {
+        this.layout = layout;
+        this.values = new InterpreterValue[layout.size()];
+    }
 
-    private InterpreterFields(boolean isStatic, InterpreterType type) {
-        this.isStatic = isStatic;
-        this.type = type;
-        this.fields = new HashMap<>();
+    public FieldLayout getLayout() {
+        return layout;
     }
 
     public InterpreterValue getField(String fieldName) {
-        getFieldDefinition(fieldName);
-        if (fields.containsKey(fieldName)) {
-            return fields.get(fieldName);
-        } else {
-            throw new UnboundField(fieldName);
+        return getField(slotOf(fieldName));
+    }
+
+    public InterpreterValue getField(int slot) {
+        InterpreterValue value = values[slot];
+        if (value == null) {
+            throw new UnboundField(layout.fieldName(slot));
         }
+        return value;
+    }
+
+    public InterpreterValue findField(int slot) {
+        return values[slot];
     }
 
     public void setField(String fieldName, InterpreterValue value) {
-        FieldDeclarationNode field = getFieldDefinition(fieldName);
-        // TODO: re-enable this
-        //InterpreterTypes.checkIsInstance(field.getType(), value);
-        fields.put(fieldName, value);
+        setField(slotOf(fieldName), value);
     }
 
-    private FieldDeclarationNode getFieldDefinition(String fieldName) {
-        return type.getField(fieldName)
-            .filter(field -> field.isStatic() == isStatic)
-            .orElseThrow(() -> new NoSuchField(fieldName));
+    public void setField(int slot, InterpreterValue value) {
+        // TODO: check the value against the type of the field
+        values[slot] = value;
+    }
+
+    public InterpreterValue[] copyValues() {
+        return values.clone();
+    }
+
+    public void restoreValues(InterpreterValue[] savedValues) {
+        System.arraycopy(savedValues, 0, values, 0, values.length);
+    }
+
+    private int slotOf(String fieldName) {
+        int slot = layout.slotOf(fieldName);
+        if (slot == FieldLayout.NO_SLOT) {
+            throw new NoSuchField(fieldName);
+        }
+        return slot;
     }
 }
@@ -17,37 +17,41 @@ public class InterpreterValues {
     }
 
     public static InterpreterValue value(PrimitiveValue value) {
-        return value.accept(new PrimitiveValue.Visitor<InterpreterValue>() {
-            @Override
-            public InterpreterValue visitInteger(int value) {
-                return new IntegerInterpreterValue(value);
-            }
-
-            @Override
-            public InterpreterValue visitChar(char value) {
-                // TODO:
-                throw new UnsupportedOperationException();
-            }
-
-            @Override
-            public InterpreterValue visitString(String value) {
-                return StringInterpreterValue.of(value);
-            }
-
-            @Override
-            public InterpreterValue visitBoolean(boolean value) {
-                return BooleanInterpreterValue.of(value);
-            }
-
-            @Override
-            public InterpreterValue visitUnit() {
-                return UNIT;
-            }
-
-            @Override
-            public InterpreterValue visitType(ScalarType value) {
-                return TypeInterpreterValue.of(value);
-            }
-        });
+        return value.accept(VALUES);
+    }
+
+    private static final PrimitiveValue.Visitor<InterpreterValue> VALUES = new ToInterpreterValue();
+
+    private static class ToInterpreterValue implements PrimitiveValue.Visitor<InterpreterValue> {
+        @Override
+        public InterpreterValue visitInteger(int value) {
+            return new IntegerInterpreterValue(value);
+        }
+
+        @Override
+        public InterpreterValue visitChar(char value) {
+            // TODO:
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InterpreterValue visitString(String value) {
+            return StringInterpreterValue.of(value);
+        }
+
+        @Override
+        public InterpreterValue visitBoolean(boolean value) {
+            return BooleanInterpreterValue.of(value);
+        }
+
+        @Override
+        public InterpreterValue visitUnit() {
+            return UNIT;
+        }
+
+        @Override
+        public InterpreterValue visitType(ScalarType value) {
+            return TypeInterpreterValue.of(value);
+        }
     }
 }
@@ -14,6 +14,10 @@ public class ObjectInterpreterValue implements InterpreterValue {
         this.fields = InterpreterFields.forInstanceOf(type);
     }
     
+    public InterpreterFields getFields() {
+        return fields;
+    }
+
     @Override
     public InterpreterType getType() {
         return type;
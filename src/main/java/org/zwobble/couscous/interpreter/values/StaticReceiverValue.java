@@ -6,6 +6,9 @@ import org.zwobble.couscous.interpreter.Environment;
 import org.zwobble.couscous.interpreter.Executor;
 import org.zwobble.couscous.interpreter.types.InterpreterType;
 import org.zwobble.couscous.interpreter.types.ParameterizedInterpreterType;
+import org.zwobble.couscous.types.Type;
+
+import java.util.List;
 
 public class StaticReceiverValue implements ReceiverValue {
     private final InterpreterType type;
@@ -16,6 +19,14 @@ public class StaticReceiverValue implements ReceiverValue {
         this.fields = InterpreterFields.forClass(type);
     }
 
+    public InterpreterType getType() {
+        return type;
+    }
+
+    public InterpreterFields getFields() {
+        return fields;
+    }
+
     @Override
     public InterpreterValue callMethod(Environment environment, MethodSignature signature, Arguments arguments) {
         return type.callStaticMethod(environment, signature, arguments);
@@ -36,11 +47,18 @@ public class StaticReceiverValue implements ReceiverValue {
     }
 
     public InterpreterValue callConstructor(Environment environment, Arguments arguments) {
-        InterpreterType objectType = arguments.getTypes().isEmpty()
-            ? type
-            : new ParameterizedInterpreterType(type, arguments.getTypes());
-        ObjectInterpreterValue value = new ObjectInterpreterValue(objectType);
+        ObjectInterpreterValue value = instantiate(arguments.getTypes());
         type.callConstructor(environment, value, arguments);
         return value;
     }
+
+    /**
+     * Create an instance of this class without running its constructor.
+     */
+    public ObjectInterpreterValue instantiate(List<Type> typeParameters) {
+        InterpreterType objectType = typeParameters.isEmpty()
+            ? type
+            : new ParameterizedInterpreterType(type, typeParameters);
+        return new ObjectInterpreterValue(objectType);
+    }
 }
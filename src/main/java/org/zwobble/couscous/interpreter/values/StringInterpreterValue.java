@@ -7,6 +7,8 @@ import org.zwobble.couscous.interpreter.types.IntrinsicInterpreterType;
 import org.zwobble.couscous.types.Types;
 import org.zwobble.couscous.values.*;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Optional;
 
 import static org.zwobble.couscous.util.ExtraLists.list;
@@ -14,26 +16,26 @@ import static org.zwobble.couscous.util.ExtraLists.list;
 public final class StringInterpreterValue implements InterpreterValue {
     public static final InterpreterType TYPE = IntrinsicInterpreterType.builder(StringInterpreterValue.class, Types.STRING)
         .method("length", list(), Types.INT, (environment, arguments) ->
-            new IntegerInterpreterValue(arguments.getReceiver().value.length()))
+            new IntegerInterpreterValue(arguments.getReceiver().length))
 
         .method("substring", list(Types.INT, Types.INT), Types.STRING, (environment, arguments) -> {
             IntegerInterpreterValue startIndex = (IntegerInterpreterValue)arguments.get(0);
             IntegerInterpreterValue endIndex = (IntegerInterpreterValue)arguments.get(1);
-            return of(arguments.getReceiver().value.substring(startIndex.getValue(), endIndex.getValue()));
+            return of(arguments.getReceiver().getValue().substring(startIndex.getValue(), endIndex.getValue()));
         })
 
         .method(Operator.ADD.getSymbol(), list(Types.STRING), Types.STRING, (environment, arguments) -> {
             StringInterpreterValue right = (StringInterpreterValue)arguments.get(0);
-            return of(arguments.getReceiver().value + right.value);
+            return concat(arguments.getReceiver(), right);
         })
 
         .method("toLowerCase", list(), Types.STRING, (environment, arguments) ->
-            of(arguments.getReceiver().value.toLowerCase()))
+            of(arguments.getReceiver().getValue().toLowerCase()))
 
         .method("equals", list(Types.OBJECT), Types.BOOLEAN, (environment, arguments) -> {
             InterpreterValue right = arguments.get(0);
             if (right instanceof StringInterpreterValue) {
-                return BooleanInterpreterValue.of(arguments.getReceiver().value.equals(((StringInterpreterValue)right).value));
+                return BooleanInterpreterValue.of(arguments.getReceiver().equals(right));
             } else {
                 return InterpreterValues.FALSE;
             }
@@ -41,14 +43,39 @@ public final class StringInterpreterValue implements InterpreterValue {
 
         .build();
 
-    private final String value;
+    /**
+     * Concatenations shorter than this are copied straight away, since a
+     * rope node would cost more than the copy.
+     */
+    private static final int MIN_ROPE_LENGTH = 64;
 
-    private StringInterpreterValue(final String value) {
-        this.value = value;
+    // Either a flat String, or a Concatenation that is replaced by a flat
+    // String the first time that the contents are needed. Since the
+    // replacement is a single write, values can be shared between threads.
+    private volatile Object contents;
+    private final int length;
+
+    private StringInterpreterValue(final Object contents, final int length) {
+        this.contents = contents;
+        this.length = length;
     }
 
     public static StringInterpreterValue of(final String value) {
-        return new StringInterpreterValue(value);
+        return new StringInterpreterValue(value, value.length());
+    }
+
+    public static StringInterpreterValue concat(StringInterpreterValue left, StringInterpreterValue right) {
+        if (left.length == 0) {
+            return right;
+        } else if (right.length == 0) {
+            return left;
+        }
+        int length = left.length + right.length;
+        if (length < MIN_ROPE_LENGTH) {
+            return of(left.getValue().concat(right.getValue()));
+        } else {
+            return new StringInterpreterValue(new Concatenation(left, right), length);
+        }
     }
 
     @Override
@@ -58,7 +85,7 @@ public final class StringInterpreterValue implements InterpreterValue {
     
     @Override
     public Optional<PrimitiveValue> toPrimitiveValue() {
-        return Optional.of(PrimitiveValues.value(value));
+        return Optional.of(PrimitiveValues.value(getValue()));
     }
     
     @Override
@@ -71,8 +98,48 @@ public final class StringInterpreterValue implements InterpreterValue {
         throw new NoSuchField(fieldName);
     }
     
+    public int length() {
+        return length;
+    }
+
     public String getValue() {
-        return this.value;
+        Object currentContents = contents;
+        if (currentContents instanceof String) {
+            return (String) currentContents;
+        }
+        String value = flatten((Concatenation) currentContents);
+        contents = value;
+        return value;
+    }
+
+    private String flatten(Concatenation concatenation) {
+        // Ropes built in a loop are as deep as the number of iterations, so
+        // walk them with an explicit stack rather than recursing.
+        StringBuilder builder = new StringBuilder(length);
+        Deque<StringInterpreterValue> pending = new ArrayDeque<>();
+        pending.push(concatenation.right);
+        pending.push(concatenation.left);
+        while (!pending.isEmpty()) {
+            Object nodeContents = pending.pop().contents;
+            if (nodeContents instanceof String) {
+                builder.append((String) nodeContents);
+            } else {
+                Concatenation node = (Concatenation) nodeContents;
+                pending.push(node.right);
+                pending.push(node.left);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static class Concatenation {
+        private final StringInterpreterValue left;
+        private final StringInterpreterValue right;
+
+        private Concatenation(StringInterpreterValue left, StringInterpreterValue right) {
+            this.left = left;
+            this.right = right;
+        }
     }
     
     @java.lang.Override
@@ -80,6 +147,7 @@ public final class StringInterpreterValue implements InterpreterValue {
         if (o == this) return true;
         if (!(o instanceof StringInterpreterValue)) return false;
         final StringInterpreterValue other = (StringInterpreterValue)o;
+        if (this.length != other.length) return false;
         final java.lang.Object this$value = this.getValue();
         final java.lang.Object other$value = other.getValue();
         if (this$value == null ? other$value != null : !this$value.equals(other$value)) return false;
@@ -25,6 +25,10 @@ public class TypeInterpreterValue implements InterpreterValue {
         this.type = type;
     }
 
+    public ScalarType getValue() {
+        return type;
+    }
+
     @Override
     public InterpreterType getType() {
         return TYPE;
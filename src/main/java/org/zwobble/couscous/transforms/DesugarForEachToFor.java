@@ -8,6 +8,7 @@ import org.zwobble.couscous.types.Type;
 import org.zwobble.couscous.types.Types;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 import static org.zwobble.couscous.ast.LocalVariableDeclarationNode.localVariableDeclaration;
 import static org.zwobble.couscous.ast.MethodCallNode.methodCall;
@@ -18,8 +19,18 @@ import static org.zwobble.couscous.util.ExtraLists.list;
 
 public class DesugarForEachToFor {
     public static NodeTransformer transformer() {
+        return transformer(forEach -> true);
+    }
+
+    /**
+     * Only desugars the loops matching the predicate, leaving the rest for
+     * backends that can write them directly.
+     */
+    public static NodeTransformer transformer(Predicate<ForEachNode> shouldDesugar) {
         Scope scope = Scope.create().temporaryPrefix("_couscous_desugar_foreach_to_for");
-        return DesugarStatement.<ForEachNode>transformer(NodeTypes.FOR_EACH, node -> desugar(scope, node));
+        return DesugarStatement.<ForEachNode>transformer(
+            NodeTypes.FOR_EACH,
+            node -> shouldDesugar.test(node) ? desugar(scope, node) : list(node));
     }
 
     public static List<StatementNode> desugar(Scope scope, ForEachNode forEach) {
@@ -1,5 +1,6 @@
 package org.zwobble.couscous.transforms;
 
+import org.zwobble.couscous.ast.ExpressionNode;
 import org.zwobble.couscous.ast.LocalVariableDeclarationNode;
 import org.zwobble.couscous.ast.NodeTypes;
 import org.zwobble.couscous.ast.StatementNode;
@@ -8,53 +9,52 @@ import org.zwobble.couscous.ast.sugar.SwitchNode;
 import org.zwobble.couscous.ast.visitors.NodeTransformer;
 import org.zwobble.couscous.frontends.java.Scope;
 import org.zwobble.couscous.types.Types;
-import org.zwobble.couscous.util.ExtraLists;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 import static com.google.common.collect.Iterables.tryFind;
 import static org.zwobble.couscous.ast.IfStatementNode.ifStatement;
 import static org.zwobble.couscous.ast.MethodCallNode.methodCall;
+import static org.zwobble.couscous.ast.Operations.equal;
 import static org.zwobble.couscous.ast.TypeCoercionNode.coerce;
 import static org.zwobble.couscous.ast.VariableReferenceNode.reference;
-import static org.zwobble.couscous.ast.sugar.SwitchCaseNode.switchCase;
-import static org.zwobble.couscous.util.ExtraIterables.lazyFlatMap;
 import static org.zwobble.couscous.util.ExtraLists.*;
 import static org.zwobble.couscous.util.Fold.foldRight;
-import static org.zwobble.couscous.util.Tails.tails;
-import static org.zwobble.couscous.util.UpToAndIncludingIterable.upToAndIncluding;
 
 public class DesugarSwitchToIfElse {
     // TODO: ensure globally unique IDs, and locally unique variable names
 
     public static NodeTransformer transformer() {
+        return transformer(switchNode -> true);
+    }
+
+    /**
+     * Only desugars the switches matching the predicate, leaving the rest for
+     * backends that can run switches directly.
+     */
+    public static NodeTransformer transformer(Predicate<SwitchNode> shouldDesugar) {
         Scope scope = Scope.create().temporaryPrefix("_couscous_desugar_switch_to_if");
-        return DesugarStatement.<SwitchNode>transformer(NodeTypes.SWITCH, node -> desugar(scope, node));
+        return DesugarStatement.<SwitchNode>transformer(
+            NodeTypes.SWITCH,
+            node -> shouldDesugar.test(node) ? desugar(scope, node) : list(node));
     }
 
     public static List<StatementNode> desugar(Scope scope, SwitchNode switchNode) {
         LocalVariableDeclarationNode switchValueAssignment = scope.temporaryVariable(switchNode.getValue());
 
-        List<StatementNode> handleDefault = tryFind(switchNode.getCases(), SwitchCaseNode::isDefault)
+        List<SwitchCaseNode> cases = switchNode.getCasesWithFallthrough();
+
+        List<StatementNode> handleDefault = tryFind(cases, SwitchCaseNode::isDefault)
             .transform(SwitchCaseNode::getStatements)
             .or(list());
 
-        List<SwitchCaseNode> cases = eagerMap(
-            tails(switchNode.getCases()),
-            remainingCases -> readSwitchCase(remainingCases.get(0), remainingCases)
-        );
-
         return cons(
             switchValueAssignment,
             foldRight(cases, handleDefault, (handle, currentCase) ->
                 currentCase.getValue()
                     .map(value -> list(ifStatement(
-                        methodCall(
-                            reference(switchValueAssignment),
-                            "equals",
-                            list(coerce(value, Types.OBJECT)),
-                            Types.BOOLEAN
-                        ),
+                        caseMatches(switchValueAssignment, value),
                         currentCase.getStatements(),
                         handle
                     )))
@@ -63,19 +63,16 @@ public class DesugarSwitchToIfElse {
         );
     }
 
-    private static SwitchCaseNode readSwitchCase(SwitchCaseNode caseStatement, List<SwitchCaseNode> cases)
-    {
-        Iterable<StatementNode> statementsForCase = upToAndIncluding(
-            lazyFlatMap(cases, SwitchCaseNode::getStatements),
-            DesugarSwitchToIfElse::isEndOfCase
-        );
-        return switchCase(
-            caseStatement.getValue(),
-            ExtraLists.copyOf(statementsForCase)
-        );
-    }
-
-    private static boolean isEndOfCase(StatementNode statement) {
-        return statement.nodeType() == NodeTypes.RETURN;
+    private static ExpressionNode caseMatches(LocalVariableDeclarationNode switchValue, ExpressionNode caseValue) {
+        if (switchValue.getDeclaration().getType().equals(Types.INT)) {
+            return equal(reference(switchValue), caseValue);
+        } else {
+            return methodCall(
+                reference(switchValue),
+                "equals",
+                list(coerce(caseValue, Types.OBJECT)),
+                Types.BOOLEAN
+            );
+        }
     }
 }
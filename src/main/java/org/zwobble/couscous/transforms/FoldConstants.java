@@ -0,0 +1,209 @@
+package org.zwobble.couscous.transforms;
+
+import org.zwobble.couscous.ast.*;
+import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.types.Types;
+import org.zwobble.couscous.values.BooleanValue;
+import org.zwobble.couscous.values.CharValue;
+import org.zwobble.couscous.values.IntegerValue;
+import org.zwobble.couscous.values.PrimitiveValue;
+import org.zwobble.couscous.values.StringValue;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.zwobble.couscous.ast.LiteralNode.literal;
+import static org.zwobble.couscous.util.Casts.tryCast;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * Evaluates operations on integer, char, boolean and string literals, with
+ * the same results as Java, and removes the branches of if statements and
+ * ternary conditionals that can't be taken.
+ *
+ * Expressions are transformed bottom-up, so folded operands are folded again
+ * as part of their enclosing operation. Operations that would throw at
+ * runtime, such as division by zero, are left alone.
+ */
+public class FoldConstants {
+    public static NodeTransformer transformer() {
+        return NodeTransformer.builder()
+            .transformExpression(FoldConstants::foldExpression)
+            .transformStatement(FoldConstants::foldStatement)
+            .build();
+    }
+
+    private static Optional<ExpressionNode> foldExpression(ExpressionNode expression) {
+        if (expression.nodeType() == NodeTypes.OPERATION) {
+            return foldOperation((OperationNode) expression);
+        } else if (expression.nodeType() == NodeTypes.TERNARY_CONDITIONAL) {
+            TernaryConditionalNode ternary = (TernaryConditionalNode) expression;
+            return booleanValue(ternary.getCondition())
+                .map(condition -> condition ? ternary.getIfTrue() : ternary.getIfFalse());
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<List<StatementNode>> foldStatement(StatementNode statement) {
+        if (statement.nodeType() == NodeTypes.IF_STATEMENT) {
+            IfStatementNode ifStatement = (IfStatementNode) statement;
+            return booleanValue(ifStatement.getCondition())
+                .map(condition -> condition ? ifStatement.getTrueBranch() : ifStatement.getFalseBranch())
+                // Keep the branch in its own block so that its variables
+                // stay out of the enclosing scope
+                .map(branch -> branch.isEmpty() ? list() : list(new StatementBlockNode(branch)));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<ExpressionNode> foldOperation(OperationNode operation) {
+        List<ExpressionNode> arguments = operation.getArguments();
+        switch (operation.getOperator()) {
+            case BOOLEAN_NOT:
+                return booleanValue(arguments.get(0)).map(value -> literal(!value));
+            case BOOLEAN_AND:
+                return foldShortCircuit(arguments.get(0), arguments.get(1), false);
+            case BOOLEAN_OR:
+                return foldShortCircuit(arguments.get(0), arguments.get(1), true);
+            case INTEGER_NEGATION:
+                return integerValue(arguments.get(0)).map(value -> literal(-value));
+            default:
+                return foldBinaryOperation(operation, literalValue(arguments.get(0)), literalValue(arguments.get(1)));
+        }
+    }
+
+    private static Optional<ExpressionNode> foldShortCircuit(ExpressionNode left, ExpressionNode right, boolean shortCircuitValue) {
+        Optional<Boolean> leftValue = booleanValue(left);
+        if (leftValue.isPresent()) {
+            return Optional.of(leftValue.get() == shortCircuitValue ? literal(shortCircuitValue) : right);
+        }
+        // The right operand can only be dropped when it wouldn't change the
+        // result, since the left operand has to be evaluated anyway
+        Optional<Boolean> rightValue = booleanValue(right);
+        if (rightValue.isPresent() && rightValue.get() != shortCircuitValue) {
+            return Optional.of(left);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ExpressionNode> foldBinaryOperation(
+        OperationNode operation,
+        Optional<PrimitiveValue> left,
+        Optional<PrimitiveValue> right)
+    {
+        if (!left.isPresent() || !right.isPresent()) {
+            return Optional.empty();
+        }
+        Operator operator = operation.getOperator();
+        if (operator == Operator.ADD && operation.getType().equals(Types.STRING)) {
+            return concatenate(left.get(), right.get());
+        }
+        Optional<Integer> leftInteger = promoteToInteger(left.get());
+        Optional<Integer> rightInteger = promoteToInteger(right.get());
+        if (leftInteger.isPresent() && rightInteger.isPresent()) {
+            return foldIntegerOperation(operation, leftInteger.get(), rightInteger.get());
+        }
+        Optional<Boolean> leftBoolean = tryCast(BooleanValue.class, left.get()).map(BooleanValue::getValue);
+        Optional<Boolean> rightBoolean = tryCast(BooleanValue.class, right.get()).map(BooleanValue::getValue);
+        if (leftBoolean.isPresent() && rightBoolean.isPresent()) {
+            if (operator == Operator.EQUALS) {
+                return Optional.of(literal(leftBoolean.get() == rightBoolean.get()));
+            } else if (operator == Operator.NOT_EQUALS) {
+                return Optional.of(literal(leftBoolean.get() != rightBoolean.get()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<ExpressionNode> foldIntegerOperation(OperationNode operation, int left, int right) {
+        switch (operation.getOperator()) {
+            case EQUALS:
+                return Optional.of(literal(left == right));
+            case NOT_EQUALS:
+                return Optional.of(literal(left != right));
+            case GREATER_THAN:
+                return Optional.of(literal(left > right));
+            case GREATER_THAN_OR_EQUAL:
+                return Optional.of(literal(left >= right));
+            case LESS_THAN:
+                return Optional.of(literal(left < right));
+            case LESS_THAN_OR_EQUAL:
+                return Optional.of(literal(left <= right));
+        }
+        // Arithmetic on chars produces an int in Java, but the frontend gives
+        // the operation the type of its left operand, so only fold
+        // operations that are already typed as ints
+        if (!operation.getType().equals(Types.INT)) {
+            return Optional.empty();
+        }
+        switch (operation.getOperator()) {
+            case ADD:
+                return Optional.of(literal(left + right));
+            case SUBTRACT:
+                return Optional.of(literal(left - right));
+            case MULTIPLY:
+                return Optional.of(literal(left * right));
+            case DIVIDE:
+                return right == 0 ? Optional.empty() : Optional.of(literal(left / right));
+            case MOD:
+                return right == 0 ? Optional.empty() : Optional.of(literal(left % right));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<ExpressionNode> concatenate(PrimitiveValue left, PrimitiveValue right) {
+        if (!(left instanceof StringValue) && !(right instanceof StringValue)) {
+            return Optional.empty();
+        }
+        Optional<String> leftString = stringConversion(left);
+        Optional<String> rightString = stringConversion(right);
+        if (leftString.isPresent() && rightString.isPresent()) {
+            return Optional.of(literal(leftString.get() + rightString.get()));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<String> stringConversion(PrimitiveValue value) {
+        if (value instanceof StringValue) {
+            return Optional.of(((StringValue) value).getValue());
+        } else if (value instanceof IntegerValue) {
+            return Optional.of(Integer.toString(((IntegerValue) value).getValue()));
+        } else if (value instanceof CharValue) {
+            return Optional.of(String.valueOf(((CharValue) value).getValue()));
+        } else if (value instanceof BooleanValue) {
+            return Optional.of(Boolean.toString(((BooleanValue) value).getValue()));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Integer> promoteToInteger(PrimitiveValue value) {
+        if (value instanceof IntegerValue) {
+            return Optional.of(((IntegerValue) value).getValue());
+        } else if (value instanceof CharValue) {
+            return Optional.of((int) ((CharValue) value).getValue());
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Boolean> booleanValue(ExpressionNode expression) {
+        return literalValue(expression)
+            .flatMap(value -> tryCast(BooleanValue.class, value))
+            .map(BooleanValue::getValue);
+    }
+
+    private static Optional<Integer> integerValue(ExpressionNode expression) {
+        return literalValue(expression)
+            .flatMap(value -> tryCast(IntegerValue.class, value))
+            .map(IntegerValue::getValue);
+    }
+
+    private static Optional<PrimitiveValue> literalValue(ExpressionNode expression) {
+        return tryCast(LiteralNode.class, expression).map(LiteralNode::getValue);
+    }
+}
@@ -0,0 +1,356 @@
+package org.zwobble.couscous.transforms;
+
+import org.zwobble.couscous.ast.*;
+import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.types.BoundTypeParameter;
+import org.zwobble.couscous.types.ParameterizedType;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Type;
+import org.zwobble.couscous.types.TypeParameter;
+import org.zwobble.couscous.types.Types;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.newSetFromMap;
+import static org.zwobble.couscous.ast.structure.NodeStructure.descendantNodesAndSelf;
+import static org.zwobble.couscous.util.ExtraLists.eagerFilter;
+import static org.zwobble.couscous.util.ExtraLists.eagerMap;
+import static org.zwobble.couscous.util.ExtraLists.list;
+import static org.zwobble.couscous.util.ExtraSets.set;
+
+/**
+ * Removes the types and methods that can't be reached from a set of entry
+ * points.
+ *
+ * An entry point is either the name of a type, such as
+ * {@code com.example.Main}, which keeps every method of that type, or a
+ * method name qualified by its type, such as {@code com.example.Main.run},
+ * which keeps every method of that type with that name.
+ *
+ * A type is reachable if it's referenced from any reachable code, including
+ * as a supertype, or in a cast or a variable type. The static initialiser,
+ * constructor and fields of reachable types are always kept. Static methods
+ * are reachable when called. Since the analysis doesn't track the types of
+ * receivers, an instance method is reachable when any reachable code calls a
+ * method with the same name on any receiver, which also keeps the methods
+ * that override it. Instance methods that are called implicitly, such as
+ * {@code toString}, are always kept. A reachable type with a supertype from
+ * outside the program, such as {@code Comparable} or {@code Runnable}, keeps
+ * all of its instance methods, since they may override methods of that
+ * supertype that are called from outside the program. Other methods only
+ * called from outside the program should be listed as entry points.
+ */
+public class TreeShaking {
+    private static final Set<String> IMPLICITLY_CALLED_METHODS = set(
+        "toString", "equals", "hashCode");
+
+    public static Result shake(List<TypeNode> types, List<String> entryPoints) {
+        List<TypeNode> hoistedTypes = HoistNestedTypes.hoist(
+            eagerMap(types, AnonymousClassToInnerClass::transform));
+        TreeShaking shaking = new TreeShaking(hoistedTypes);
+        entryPoints.forEach(shaking::markEntryPoint);
+        shaking.run();
+        return shaking.result(hoistedTypes);
+    }
+
+    public static class Result {
+        private final List<TypeNode> types;
+        private final List<ScalarType> removedTypes;
+        private final List<String> removedMethods;
+
+        private Result(List<TypeNode> types, List<ScalarType> removedTypes, List<String> removedMethods) {
+            this.types = types;
+            this.removedTypes = removedTypes;
+            this.removedMethods = removedMethods;
+        }
+
+        public List<TypeNode> getTypes() {
+            return types;
+        }
+
+        public List<ScalarType> getRemovedTypes() {
+            return removedTypes;
+        }
+
+        /**
+         * Methods removed from types that were kept, as qualified names
+         * followed by their argument types, such as
+         * {@code com.example.Main.run(int)}.
+         */
+        public List<String> getRemovedMethods() {
+            return removedMethods;
+        }
+
+        public String describe() {
+            StringBuilder description = new StringBuilder();
+            description.append("Removed ").append(removedTypes.size()).append(" unreachable types and ")
+                .append(removedMethods.size()).append(" unreachable methods\n");
+            for (ScalarType type : removedTypes) {
+                description.append("  type ").append(type.getQualifiedName()).append("\n");
+            }
+            for (String method : removedMethods) {
+                description.append("  method ").append(method).append("\n");
+            }
+            return description.toString();
+        }
+    }
+
+    private final Map<ScalarType, TypeNode> types;
+    private final Set<ScalarType> reachableTypes = new HashSet<>();
+    private final Set<MethodNode> reachableMethods = newSetFromMap(new IdentityHashMap<>());
+    private final Set<String> calledMethodNames = new HashSet<>(IMPLICITLY_CALLED_METHODS);
+    private final Deque<Node> pending = new ArrayDeque<>();
+    private final NodeTransformer typeCollector;
+
+    private TreeShaking(List<TypeNode> types) {
+        this.types = new LinkedHashMap<>();
+        for (TypeNode type : types) {
+            this.types.put(type.getName(), type);
+        }
+        this.typeCollector = NodeTransformer.builder()
+            .transformType(type -> {
+                markTypeReferences(type);
+                return type;
+            })
+            .build();
+    }
+
+    private void markEntryPoint(String entryPoint) {
+        ScalarType typeName = ScalarType.topLevel(entryPoint);
+        if (types.containsKey(typeName)) {
+            markType(typeName);
+            types.get(typeName).getMethods().forEach(this::markMethod);
+            return;
+        }
+        int separator = entryPoint.lastIndexOf('.');
+        if (separator != -1) {
+            ScalarType className = ScalarType.topLevel(entryPoint.substring(0, separator));
+            String methodName = entryPoint.substring(separator + 1);
+            TypeNode type = types.get(className);
+            List<MethodNode> methods = type == null
+                ? list()
+                : eagerFilter(type.getMethods(), method -> method.getName().equals(methodName));
+            if (!methods.isEmpty()) {
+                markType(className);
+                methods.forEach(this::markMethod);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Cannot find entry point: " + entryPoint);
+    }
+
+    private void run() {
+        while (!pending.isEmpty()) {
+            scan(pending.pop());
+        }
+    }
+
+    private void markType(ScalarType name) {
+        TypeNode type = types.get(name);
+        if (type == null || !reachableTypes.add(name)) {
+            return;
+        }
+        type.getSuperTypes().forEach(this::markTypeReferences);
+        type.getTypeParameters().forEach(pending::push);
+        if (type instanceof ClassNode) {
+            ClassNode classNode = (ClassNode) type;
+            classNode.getFields().forEach(pending::push);
+            classNode.getStaticConstructor().forEach(pending::push);
+            pending.push(classNode.getConstructor());
+        } else if (type instanceof InterfaceNode) {
+            InterfaceNode interfaceNode = (InterfaceNode) type;
+            interfaceNode.getFields().forEach(pending::push);
+            interfaceNode.getStaticConstructor().forEach(pending::push);
+        }
+        boolean hasExternalSuperType = hasExternalSuperType(type);
+        for (MethodNode method : type.getMethods()) {
+            if (!method.isStatic() && (hasExternalSuperType || calledMethodNames.contains(method.getName()))) {
+                markMethod(method);
+            }
+        }
+    }
+
+    private boolean hasExternalSuperType(TypeNode type) {
+        for (Type superType : type.getSuperTypes()) {
+            ScalarType superTypeName = Types.erasure(superType);
+            TypeNode superTypeNode = types.get(superTypeName);
+            if (superTypeNode == null
+                ? !superTypeName.equals(Types.OBJECT)
+                : hasExternalSuperType(superTypeNode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markMethod(MethodNode method) {
+        if (reachableMethods.add(method)) {
+            pending.push(method);
+        }
+    }
+
+    private void markCalledMethodName(String name) {
+        if (calledMethodNames.add(name)) {
+            for (ScalarType typeName : reachableTypes) {
+                for (MethodNode method : types.get(typeName).getMethods()) {
+                    if (!method.isStatic() && method.getName().equals(name)) {
+                        markMethod(method);
+                    }
+                }
+            }
+        }
+    }
+
+    private void markStaticMethod(ScalarType typeName, String methodName) {
+        TypeNode type = types.get(typeName);
+        if (type == null) {
+            return;
+        }
+        markType(typeName);
+        boolean found = false;
+        for (MethodNode method : type.getMethods()) {
+            if (method.isStatic() && method.getName().equals(methodName)) {
+                markMethod(method);
+                found = true;
+            }
+        }
+        // Static methods can be called through a subtype
+        if (!found) {
+            for (Type superType : type.getSuperTypes()) {
+                superType.accept(new TypeNames()).forEach(superTypeName -> markStaticMethod(superTypeName, methodName));
+            }
+        }
+    }
+
+    private void markTypeReferences(Type type) {
+        type.accept(new TypeNames()).forEach(this::markType);
+    }
+
+    private void scan(Node node) {
+        collectTypes(node);
+        descendantNodesAndSelf(node).forEach(descendant -> {
+            if (descendant instanceof MethodCallNode) {
+                MethodCallNode methodCall = (MethodCallNode) descendant;
+                if (methodCall.getReceiver() instanceof StaticReceiver) {
+                    markStaticMethod(((StaticReceiver) methodCall.getReceiver()).getType(), methodCall.getMethodName());
+                } else {
+                    markCalledMethodName(methodCall.getMethodName());
+                }
+            } else if (descendant instanceof ForEachNode) {
+                // Backends that desugar for-each loops call these methods
+                list("iterator", "hasNext", "next").forEach(this::markCalledMethodName);
+            }
+        });
+    }
+
+    private void collectTypes(Node node) {
+        // Every type in the node is passed through the transformer, so
+        // collecting them doesn't need to know about each kind of node
+        if (node instanceof MethodNode) {
+            typeCollector.transformMethod((MethodNode) node);
+        } else if (node instanceof ConstructorNode) {
+            typeCollector.transformConstructor((ConstructorNode) node);
+        } else if (node instanceof FieldDeclarationNode) {
+            typeCollector.transformField((FieldDeclarationNode) node);
+        } else if (node instanceof FormalTypeParameterNode) {
+            typeCollector.transformFormalTypeParameter((FormalTypeParameterNode) node);
+        } else if (node instanceof StatementNode) {
+            typeCollector.transformStatement((StatementNode) node);
+        }
+    }
+
+    private Result result(List<TypeNode> hoistedTypes) {
+        List<TypeNode> keptTypes = new ArrayList<>();
+        List<ScalarType> removedTypes = new ArrayList<>();
+        List<String> removedMethods = new ArrayList<>();
+        for (TypeNode type : hoistedTypes) {
+            if (!reachableTypes.contains(type.getName())) {
+                removedTypes.add(type.getName());
+                continue;
+            }
+            List<MethodNode> methods = eagerFilter(type.getMethods(), reachableMethods::contains);
+            for (MethodNode method : type.getMethods()) {
+                if (!reachableMethods.contains(method)) {
+                    removedMethods.add(describeMethod(type, method));
+                }
+            }
+            keptTypes.add(withMethods(type, methods));
+        }
+        return new Result(
+            keptTypes,
+            Collections.unmodifiableList(removedTypes),
+            Collections.unmodifiableList(removedMethods));
+    }
+
+    private static String describeMethod(TypeNode type, MethodNode method) {
+        return type.getName().getQualifiedName() + "." + method.getName() +
+            method.getArguments().stream()
+                .map(argument -> Types.erasure(argument.getType()).getQualifiedName())
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static TypeNode withMethods(TypeNode type, List<MethodNode> methods) {
+        if (methods.size() == type.getMethods().size()) {
+            return type;
+        } else if (type instanceof ClassNode) {
+            ClassNode classNode = (ClassNode) type;
+            return ClassNode.declareClass(
+                classNode.getName(),
+                classNode.getTypeParameters(),
+                classNode.getSuperTypes(),
+                classNode.getFields(),
+                classNode.getStaticConstructor(),
+                classNode.getConstructor(),
+                methods,
+                classNode.getInnerTypes());
+        } else if (type instanceof InterfaceNode) {
+            InterfaceNode interfaceNode = (InterfaceNode) type;
+            return InterfaceNode.declareInterface(
+                interfaceNode.getName(),
+                interfaceNode.getTypeParameters(),
+                interfaceNode.getSuperTypes(),
+                interfaceNode.getFields(),
+                interfaceNode.getStaticConstructor(),
+                methods,
+                interfaceNode.getInnerTypes());
+        } else {
+            return type;
+        }
+    }
+
+    private static class TypeNames implements Type.Visitor<List<ScalarType>> {
+        @Override
+        public List<ScalarType> visit(ScalarType type) {
+            return list(type);
+        }
+
+        @Override
+        public List<ScalarType> visit(TypeParameter parameter) {
+            return list();
+        }
+
+        @Override
+        public List<ScalarType> visit(ParameterizedType type) {
+            List<ScalarType> names = new ArrayList<>(type.getRawType().accept(this));
+            for (Type parameter : type.getParameters()) {
+                names.addAll(parameter.accept(this));
+            }
+            return names;
+        }
+
+        @Override
+        public List<ScalarType> visit(BoundTypeParameter type) {
+            return type.getValue().accept(this);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.zwobble.couscous.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a task for each value on a bounded pool of threads.
+ *
+ * When tasks fail, the failure of the earliest value is thrown, regardless
+ * of which task happened to fail first, so that errors are deterministic.
+ */
+public class ParallelTasks {
+    public interface Task<T> {
+        void run(T value) throws IOException;
+    }
+
+    public static int defaultThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public static <T> void forEach(List<T> values, int threads, Task<? super T> task) throws IOException {
+        if (threads <= 1 || values.size() <= 1) {
+            for (T value : values) {
+                task.run(value);
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, values.size()), runnable -> {
+            Thread thread = new Thread(runnable, "couscous-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(values.size());
+            for (T value : values) {
+                futures.add(executor.submit(() -> {
+                    task.run(value);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+}
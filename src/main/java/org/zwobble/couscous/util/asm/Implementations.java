@@ -11,6 +11,13 @@ import java.util.function.Function;
 
 public class Implementations {
     public static Implementation stackManipulation(Function<Implementation.Target, StackManipulation> build) {
+        return stackManipulation(0, build);
+    }
+
+    public static Implementation stackManipulation(
+        int additionalLocalVariableSize,
+        Function<Implementation.Target, StackManipulation> build)
+    {
         return new Implementation() {
             @Override
             public InstrumentedType prepare(InstrumentedType instrumentedType) {
@@ -22,8 +29,11 @@ public class Implementations {
                 return new ByteCodeAppender() {
                     @Override
                     public Size apply(MethodVisitor methodVisitor, Context implementationContext, MethodDescription instrumentedMethod) {
-                        return new ByteCodeAppender.Simple(build.apply(implementationTarget))
+                        Size size = new ByteCodeAppender.Simple(build.apply(implementationTarget))
                             .apply(methodVisitor, implementationContext, instrumentedMethod);
+                        return new Size(
+                            size.getOperandStackSize(),
+                            size.getLocalVariableSize() + additionalLocalVariableSize);
                     }
                 };
             }
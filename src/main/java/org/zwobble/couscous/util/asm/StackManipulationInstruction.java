@@ -0,0 +1,26 @@
+package org.zwobble.couscous.util.asm;
+
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.jar.asm.MethodVisitor;
+
+public class StackManipulationInstruction implements StackManipulation {
+    private final int opcode;
+    private final int sizeImpact;
+
+    public StackManipulationInstruction(int opcode, int sizeImpact) {
+        this.opcode = opcode;
+        this.sizeImpact = sizeImpact;
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor, Implementation.Context implementationContext) {
+        methodVisitor.visitInsn(opcode);
+        return new Size(sizeImpact, Math.max(sizeImpact, 0));
+    }
+}
@@ -0,0 +1,37 @@
+package org.zwobble.couscous.util.asm;
+
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+
+public class StackManipulationIntegerVariable implements StackManipulation {
+    public static StackManipulation load(int index) {
+        return new StackManipulationIntegerVariable(Opcodes.ILOAD, index, 1);
+    }
+
+    public static StackManipulation store(int index) {
+        return new StackManipulationIntegerVariable(Opcodes.ISTORE, index, -1);
+    }
+
+    private final int opcode;
+    private final int index;
+    private final int sizeImpact;
+
+    private StackManipulationIntegerVariable(int opcode, int index, int sizeImpact) {
+        this.opcode = opcode;
+        this.index = index;
+        this.sizeImpact = sizeImpact;
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor, Implementation.Context implementationContext) {
+        methodVisitor.visitVarInsn(opcode, index);
+        return new Size(sizeImpact, Math.max(sizeImpact, 0));
+    }
+}
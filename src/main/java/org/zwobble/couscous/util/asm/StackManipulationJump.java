@@ -0,0 +1,50 @@
+package org.zwobble.couscous.util.asm;
+
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+
+public class StackManipulationJump implements StackManipulation {
+    public static StackManipulation jump(Label label) {
+        return new StackManipulationJump(Opcodes.GOTO, label);
+    }
+
+    public static StackManipulation jumpIfZero(Label label) {
+        return new StackManipulationJump(Opcodes.IFEQ, label);
+    }
+
+    public static StackManipulation jumpIf(int opcode, Label label) {
+        return new StackManipulationJump(opcode, label);
+    }
+
+    private final int opcode;
+    private final Label label;
+
+    private StackManipulationJump(int opcode, Label label) {
+        this.opcode = opcode;
+        this.label = label;
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public Size apply(MethodVisitor methodVisitor, Implementation.Context implementationContext) {
+        methodVisitor.visitJumpInsn(opcode, label);
+        return new Size(-poppedValues(), 0);
+    }
+
+    private int poppedValues() {
+        if (opcode == Opcodes.GOTO) {
+            return 0;
+        } else if (opcode >= Opcodes.IF_ICMPEQ && opcode <= Opcodes.IF_ICMPLE) {
+            return 2;
+        } else {
+            return 1;
+        }
+    }
+}
@@ -15,6 +15,10 @@ public class CharValue implements PrimitiveValue {
         return visitor.visitChar(value);
     }
 
+    public char getValue() {
+        return value;
+    }
+
     @Override
     public Type getType() {
         return Types.CHAR;
@@ -1,5 +1,29 @@
+import importlib
+
 def _div_round_to_zero(a, b):
     return -(-a // b) if (a < 0) ^ (b < 0) else a // b
 
 def _mod_round_to_zero(a, b):
     return -(-a % b) if (a < 0) ^ (b < 0) else a % b
+
+def _switch_table(values, indices):
+    return dict(zip(values, indices))
+
+class _LazyImport(object):
+    def __init__(self, module_globals, module_name, name):
+        object.__setattr__(self, "_lazy_import", (module_globals, module_name, name))
+
+    def _resolve(self):
+        module_globals, module_name, name = object.__getattribute__(self, "_lazy_import")
+        value = getattr(importlib.import_module(module_name, module_globals["__package__"]), name)
+        module_globals[name] = value
+        return value
+
+    def __getattr__(self, attribute):
+        return getattr(self._resolve(), attribute)
+
+    def __setattr__(self, attribute, value):
+        setattr(self._resolve(), attribute, value)
+
+    def __call__(self, *args):
+        return self._resolve()(*args)
@@ -1,4 +1,6 @@
 class Integer(object):
+    __slots__ = ["_value"]
+
     def __init__(self, value):
         self._value = value
     
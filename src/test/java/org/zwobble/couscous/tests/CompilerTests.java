@@ -48,6 +48,13 @@ public abstract class CompilerTests {
         assertEquals(value(true), exec(Types.BOOLEAN, "Object x = 1; return x.equals(1);"));
     }
 
+    @Test
+    public void arrayElementsCanBeReadAndWritten() {
+        assertEquals(value(6), exec(Types.INT, "int[] x = new int[] {1, 2, 3}; x[1] = 5; return x[0] + x[1];"));
+        assertEquals(value(true), exec(Types.BOOLEAN, "boolean[] x = new boolean[] {false}; x[0] = true; return x[0];"));
+        assertEquals(value("b"), exec(Types.STRING, "String[] x = new String[] {\"a\"}; x[0] = \"b\"; return x[0];"));
+    }
+
     @Test
     public void recursiveFactorial() throws Exception {
         assertEquals(
@@ -300,6 +307,18 @@ public abstract class CompilerTests {
                 Types.INT));
     }
 
+    @Test
+    public void staticFieldsKeepTheirValuesBetweenMethodCalls() throws Exception {
+        assertEquals(
+            value(2),
+            execTestProgram(
+                "static-fields",
+                ScalarType.topLevel("com.example.Counter"),
+                "incrementTwice",
+                list(),
+                Types.INT));
+    }
+
     @Test
     public void switchStatements() throws Exception {
         switchStatementTest("simpleReturn", "one", 1);
@@ -311,6 +330,31 @@ public abstract class CompilerTests {
 
         switchStatementTest("noDefaultReturn", "one", 1);
         switchStatementTest("noDefaultReturn", "zero", 0);
+
+        switchStatementTest("dayOfWeek", "monday", 1);
+        switchStatementTest("dayOfWeek", "friday", 5);
+        switchStatementTest("dayOfWeek", "sunday", 6);
+        switchStatementTest("dayOfWeek", "someday", 0);
+    }
+
+    @Test
+    public void intSwitchStatements() throws Exception {
+        intSwitchStatementTest(1, 11);
+        intSwitchStatementTest(2, 10);
+        intSwitchStatementTest(4, 3);
+        intSwitchStatementTest(6, 106);
+        intSwitchStatementTest(7, 100);
+    }
+
+    private void intSwitchStatementTest(int input, int expected) throws Exception {
+        assertEquals(
+            value(expected),
+            execTestProgram(
+                "switch-statements",
+                ScalarType.topLevel("com.example.SwitchStatements"),
+                "intFallthrough",
+                list(value(input)),
+                Types.INT));
     }
 
     private void switchStatementTest(String methodName, String input, int expected) throws Exception {
@@ -385,7 +429,7 @@ public abstract class CompilerTests {
         return path;
     }
 
-    private PrimitiveValue exec(ScalarType returnType, String source) {
+    protected PrimitiveValue exec(ScalarType returnType, String source) {
         try {
             String javaClass =
                 "package com.example;" +
@@ -0,0 +1,41 @@
+package org.zwobble.couscous.tests;
+
+import org.junit.Test;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.Project;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.zwobble.couscous.util.ExtraLists.list;
+import static org.zwobble.couscous.values.PrimitiveValues.value;
+
+public class JavaToInterpreterExplicitStackTests extends JavaToInterpreterTests {
+    private static final ScalarType RECURSION = ScalarType.topLevel("com.example.Recursion");
+
+    @Test
+    public void depthOfRecursionIsNotLimitedByJvmStack() throws Exception {
+        assertEquals(
+            value(1250025000),
+            execProgram(deepRecursionDirectory(), RECURSION, "sum", list(value(50000)), Types.INT));
+    }
+
+    @Test
+    public void constructorsCanBeCalledFromDeeplyRecursiveMethods() throws Exception {
+        assertEquals(
+            value(50000),
+            execProgram(deepRecursionDirectory(), RECURSION, "countDown", list(value(50000)), Types.INT));
+    }
+
+    private Path deepRecursionDirectory() throws Exception {
+        return Paths.get(getClass().getResource("/java/deep-recursion").toURI());
+    }
+
+    @Override
+    protected Interpreter buildInterpreter(Project project) {
+        return Interpreter.withExplicitStack(project);
+    }
+}
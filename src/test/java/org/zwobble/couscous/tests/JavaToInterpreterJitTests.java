@@ -0,0 +1,14 @@
+package org.zwobble.couscous.tests;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.Project;
+
+import java.util.List;
+
+public class JavaToInterpreterJitTests extends JavaToInterpreterTests {
+    @Override
+    protected Project buildProject(List<TypeNode> classNodes) {
+        return JavaProject.of(classNodes, 0);
+    }
+}
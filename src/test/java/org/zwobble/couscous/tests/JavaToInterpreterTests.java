@@ -8,18 +8,27 @@ import org.zwobble.couscous.frontends.java.JavaFrontend;
 import org.zwobble.couscous.interpreter.Interpreter;
 import org.zwobble.couscous.interpreter.JavaProject;
 import org.zwobble.couscous.interpreter.Project;
+import org.zwobble.couscous.interpreter.values.IntegerInterpreterValue;
 import org.zwobble.couscous.interpreter.values.InterpreterValue;
 import org.zwobble.couscous.interpreter.values.InterpreterValues;
 import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
 import org.zwobble.couscous.util.FileSet;
 import org.zwobble.couscous.values.PrimitiveValue;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.google.common.collect.Iterables.transform;
+import static org.junit.Assert.assertEquals;
 import static org.zwobble.couscous.util.ExtraLists.list;
+import static org.zwobble.couscous.values.PrimitiveValues.value;
 
 public class JavaToInterpreterTests extends CompilerTests {
     @Test
@@ -37,6 +46,33 @@ public class JavaToInterpreterTests extends CompilerTests {
     public void nestedEnum() throws Exception {
     }
 
+    @Test
+    public void arrayAndIndexOfAssignmentTargetAreEvaluatedBeforeValue() {
+        assertEquals(
+            value(1),
+            exec(Types.INT, "int i = 0; int[] x = new int[] {0, 0}; x[i = 1] = i; return x[1];"));
+    }
+
+    @Test
+    public void runsOfOneProjectCanExecuteConcurrentlyWithSeparateStaticState() throws Exception {
+        Path directory = Paths.get(getClass().getResource("/java/static-fields").toURI());
+        List<TypeNode> classNodes = new JavaFrontend().readSourceDirectory(list(directory), FileSet.directory(directory));
+        Interpreter interpreter = buildInterpreter(buildProject(classNodes));
+        ScalarType counter = ScalarType.topLevel("com.example.Counter");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<InterpreterValue>> results = executor.invokeAll(Collections.nCopies(
+                200,
+                () -> interpreter.run(counter, "incrementTwice", list(), Types.INT)));
+            for (Future<InterpreterValue> result : results) {
+                assertEquals(new IntegerInterpreterValue(2), result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Override
     protected PrimitiveValue execProgram(
         Path directory,
@@ -48,11 +84,18 @@ public class JavaToInterpreterTests extends CompilerTests {
         JavaFrontend frontend = new JavaFrontend();
         List<TypeNode> classNodes = frontend.readSourceDirectory(list(directory), FileSet.directory(directory));
 
-        Project project = JavaProject.of(classNodes);
-        Interpreter interpreter = new Interpreter(project);
+        Interpreter interpreter = buildInterpreter(buildProject(classNodes));
         List<InterpreterValue> argumentValues = ImmutableList.copyOf(transform(arguments, InterpreterValues::value));
 
         return interpreter.run(type, methodName, argumentValues, returnType)
             .toPrimitiveValue().get();
     }
+
+    protected Project buildProject(List<TypeNode> classNodes) {
+        return JavaProject.of(classNodes);
+    }
+
+    protected Interpreter buildInterpreter(Project project) {
+        return new Interpreter(project);
+    }
 }
@@ -0,0 +1,97 @@
+package org.zwobble.couscous.tests.backends;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zwobble.couscous.backends.OutputDirectory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class OutputDirectoryTests {
+    private Path root;
+
+    @Before
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory(null);
+    }
+
+    @After
+    public void deleteRoot() {
+        deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void filesWithUnchangedContentsAreNotRewritten() throws IOException {
+        compile(OutputDirectory.Mode.WRITE_IF_CHANGED, "a.py", "one", "b.py", "two");
+        OutputDirectory.Summary summary = compile(OutputDirectory.Mode.WRITE_IF_CHANGED, "a.py", "one", "b.py", "changed");
+
+        assertEquals(1, summary.getWritten());
+        assertEquals(1, summary.getUnchanged());
+        assertEquals("changed", read("b.py"));
+    }
+
+    @Test
+    public void existingFilesAreComparedWhenTheyAreMissingFromTheManifest() throws IOException {
+        compile(OutputDirectory.Mode.OVERWRITE, "a.py", "one", "b.py", "two");
+        OutputDirectory.Summary summary = compile(OutputDirectory.Mode.WRITE_IF_CHANGED, "a.py", "one", "b.py", "changed");
+
+        assertEquals(1, summary.getWritten());
+        assertEquals(1, summary.getUnchanged());
+    }
+
+    @Test
+    public void filesThatAreNoLongerWrittenAreDeleted() throws IOException {
+        compile(OutputDirectory.Mode.WRITE_IF_CHANGED, "a.py", "one", "package/b.py", "two");
+        OutputDirectory.Summary summary = compile(OutputDirectory.Mode.WRITE_IF_CHANGED, "a.py", "one");
+
+        assertEquals(1, summary.getDeleted());
+        assertFalse(Files.exists(root.resolve("package")));
+    }
+
+    @Test
+    public void singleFileOutputsInTheSameDirectoryHaveSeparateManifests() throws IOException {
+        compileFile("app.cs", "one");
+        compileFile("app.pyz", "two");
+        OutputDirectory.Summary summary = compileFile("app.cs", "one");
+
+        assertEquals(0, summary.getWritten());
+        assertEquals(1, summary.getUnchanged());
+        assertEquals(0, summary.getDeleted());
+        assertEquals("two", read("app.pyz"));
+    }
+
+    @Test
+    public void overwritingWritesEveryFile() throws IOException {
+        compile(OutputDirectory.Mode.OVERWRITE, "a.py", "one");
+        OutputDirectory.Summary summary = compile(OutputDirectory.Mode.OVERWRITE, "a.py", "one");
+
+        assertEquals(1, summary.getWritten());
+        assertEquals(0, summary.getUnchanged());
+    }
+
+    private OutputDirectory.Summary compile(OutputDirectory.Mode mode, String... pathsAndContents) throws IOException {
+        OutputDirectory output = OutputDirectory.open(root, mode);
+        for (int index = 0; index < pathsAndContents.length; index += 2) {
+            output.write(root.resolve(pathsAndContents[index]), list(pathsAndContents[index + 1]));
+        }
+        return output.finish();
+    }
+
+    private OutputDirectory.Summary compileFile(String path, String contents) throws IOException {
+        OutputDirectory output = OutputDirectory.openFile(root.resolve(path), OutputDirectory.Mode.WRITE_IF_CHANGED);
+        output.write(root.resolve(path), list(contents));
+        return output.finish();
+    }
+
+    private String read(String path) throws IOException {
+        return Files.readAllLines(root.resolve(path), StandardCharsets.UTF_8).get(0);
+    }
+}
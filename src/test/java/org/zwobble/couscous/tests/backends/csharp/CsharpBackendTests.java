@@ -0,0 +1,64 @@
+package org.zwobble.couscous.tests.backends.csharp;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zwobble.couscous.ast.ClassNode;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.OutputDirectory;
+import org.zwobble.couscous.backends.csharp.CsharpBackend;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class CsharpBackendTests {
+    private Path root;
+
+    @Before
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory(null);
+    }
+
+    @After
+    public void deleteRoot() {
+        deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void eachTypeIsWrittenToAFileInADirectoryForItsNamespace() throws IOException {
+        List<TypeNode> classes = list(
+            ClassNode.builder("com.example.First").build(),
+            ClassNode.builder("com.example.sub.Second").build());
+
+        CsharpBackend.filePerType(root, "Example", 2, OutputDirectory.Mode.OVERWRITE).compile(classes);
+
+        assertThat(read("Example/com/example/First.cs"), containsString("namespace Example.com.example"));
+        assertThat(read("Example/com/example/sub/Second.cs"), containsString("class Second"));
+    }
+
+    @Test
+    public void unchangedTypesAreNotRewritten() throws IOException {
+        ClassNode first = ClassNode.builder("com.example.First").build();
+        CsharpBackend backend = CsharpBackend.filePerType(root, "Example", 2, OutputDirectory.Mode.WRITE_IF_CHANGED);
+        backend.compile(list(first, ClassNode.builder("com.example.Second").build()));
+
+        OutputDirectory.Summary summary = backend.compile(list(first));
+
+        assertEquals(0, summary.getWritten());
+        assertEquals(1, summary.getUnchanged());
+        assertEquals(1, summary.getDeleted());
+    }
+
+    private String read(String path) throws IOException {
+        return new String(Files.readAllBytes(root.resolve(path)), StandardCharsets.UTF_8);
+    }
+}
@@ -10,6 +10,7 @@ import org.zwobble.couscous.types.ScalarType;
 import org.zwobble.couscous.types.Types;
 
 import static org.junit.Assert.assertEquals;
+import static org.zwobble.couscous.ast.ArrayIndexNode.arrayIndex;
 import static org.zwobble.couscous.ast.ArrayNode.array;
 import static org.zwobble.couscous.ast.AssignmentNode.assign;
 import static org.zwobble.couscous.ast.CastNode.cast;
@@ -67,6 +68,7 @@ public class CsharpSerializerTests {
         assertEquals("'\\n'", serialize(literal('\n')));
         assertEquals("'\\r'", serialize(literal('\r')));
         assertEquals("'\\t'", serialize(literal('\t')));
+        assertEquals("'\\\\'", serialize(literal('\\')));
     }
 
     @Test
@@ -123,6 +125,15 @@ public class CsharpSerializerTests {
         assertEquals("new X[] {1, 2}", output);
     }
 
+    @Test
+    public void arrayIndexIsWrittenInSquareBrackets() {
+        String output = serialize(arrayIndex(
+            reference(var(TestIds.ANY_ID, "x", Types.array(Types.INT))),
+            literal(1),
+            Types.INT));
+        assertEquals("x[1]", output);
+    }
+
     @Test
     public void assignmentSeparatesTargetAndValueWithEqualsSign() {
         String output = serialize(assign(
@@ -334,7 +345,54 @@ public class CsharpSerializerTests {
 
         String output = serialize(node);
 
-        assertEquals("switch (1) {\n    case 1:\n        return 10;\n    default:\n        return 0;\n}\n", output);
+        assertEquals("switch (1) {\n    case 1: {\n        return 10;\n    }\n    default: {\n        return 0;\n    }\n}\n", output);
+    }
+
+    @Test
+    public void switchCaseThatFallsThroughJumpsToNextCase() {
+        Node node = new SwitchNode(
+            literal(1),
+            list(
+                switchCase(literal(1), list(expressionStatement(literal(1)))),
+                switchCase(literal(2), list()),
+                switchCase(literal(3), list(expressionStatement(literal(3)))),
+                switchCase(list(expressionStatement(literal(0))))
+            )
+        );
+
+        String output = serialize(node);
+
+        assertEquals(
+            "switch (1) {\n" +
+                "    case 1: {\n        1;\n        goto case 2;\n    }\n" +
+                "    case 2:\n" +
+                "    case 3: {\n        3;\n        goto default;\n    }\n" +
+                "    default: {\n        0;\n        break;\n    }\n" +
+                "}\n",
+            output);
+    }
+
+    @Test
+    public void declarationsAfterFallThroughAreOnlyWrittenOnce() {
+        LocalVariableDeclarationNode declaration = localVariableDeclaration(
+            var(TestIds.ANY_ID, "y", ScalarType.topLevel("int")),
+            literal(2));
+        Node node = new SwitchNode(
+            literal(1),
+            list(
+                switchCase(literal(1), list(expressionStatement(literal(1)))),
+                switchCase(literal(2), list(declaration, returns(reference(declaration))))
+            )
+        );
+
+        String output = serialize(node);
+
+        assertEquals(
+            "switch (1) {\n" +
+                "    case 1: {\n        1;\n        goto case 2;\n    }\n" +
+                "    case 2: {\n        int y = 2;\n        return y;\n    }\n" +
+                "}\n",
+            output);
     }
 
     @Test
@@ -345,6 +403,39 @@ public class CsharpSerializerTests {
         assertEquals("while (true) {\n    return 1;\n}\n", output);
     }
 
+    @Test
+    public void forLoopPrintsInitializersConditionUpdatersAndBody() {
+        LocalVariableDeclarationNode index = localVariableDeclaration(
+            var(TestIds.ANY_ID, "i", ScalarType.topLevel("int")),
+            literal(0));
+        String output = serialize(new ForNode(
+            list(index),
+            lessThan(reference(index), literal(10)),
+            list(assign(index, integerAdd(reference(index), literal(1)))),
+            list(returns(reference(index)))));
+        assertEquals("for (int i = 0; i < 10; i = i + 1) {\n    return i;\n}\n", output);
+    }
+
+    @Test
+    public void forLoopWithoutInitializersOrUpdatersHasEmptyClauses() {
+        String output = serialize(new ForNode(
+            list(),
+            literal(true),
+            list(),
+            list(returns(literal(1)))));
+        assertEquals("for (; true;) {\n    return 1;\n}\n", output);
+    }
+
+    @Test
+    public void forEachLoopPrintsTargetIterableAndBody() {
+        VariableDeclaration target = var(TestIds.ANY_ID, "x", ScalarType.topLevel("int"));
+        String output = serialize(new ForEachNode(
+            target,
+            reference(var(TestIds.ANY_ID, "xs", Types.array(ScalarType.topLevel("int")))),
+            list(returns(reference(target)))));
+        assertEquals("foreach (int x in xs) {\n    return x;\n}\n", output);
+    }
+
     @Test
     public void statementBlockPrintsStatementsSurroundedByCurlyBraces() {
         String output = serialize(new StatementBlockNode(list(
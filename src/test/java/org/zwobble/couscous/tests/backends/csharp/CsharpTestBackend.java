@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.io.Resources;
 import org.zwobble.couscous.Backend;
 import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.OutputDirectory;
 import org.zwobble.couscous.backends.csharp.CsharpBackend;
 
 import java.io.IOException;
@@ -32,13 +33,14 @@ public class CsharpTestBackend implements Backend {
     }
 
     @Override
-    public void compile(List<TypeNode> classes) throws IOException {
-        new CsharpBackend(outputDirectory.resolve("Program.cs"), namespace).compile(classes);
+    public OutputDirectory.Summary compile(List<TypeNode> classes) throws IOException {
+        OutputDirectory.Summary summary = new CsharpBackend(outputDirectory.resolve("Program.cs"), namespace).compile(classes);
         Files.write(
             outputDirectory.resolve("Runtime.cs"),
             transform(
                 RUNTIME_FILES,
                 runtimeFile -> readRuntimeFile(runtimeFile)));
+        return summary;
     }
 
     private String readRuntimeFile(String runtimeFile) {
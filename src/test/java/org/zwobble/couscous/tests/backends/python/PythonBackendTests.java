@@ -0,0 +1,105 @@
+package org.zwobble.couscous.tests.backends.python;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zwobble.couscous.ast.ClassNode;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.OutputDirectory;
+import org.zwobble.couscous.backends.python.PythonBackend;
+import org.zwobble.couscous.types.Types;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.zwobble.couscous.ast.LiteralNode.literal;
+import static org.zwobble.couscous.ast.ReturnNode.returns;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.eagerMap;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class PythonBackendTests {
+    private static final List<TypeNode> CLASSES = eagerMap(
+        list(
+            "com.example.First",
+            "com.example.Second",
+            "com.example.nested.Third",
+            "com.example.nested.Fourth",
+            "com.other.Fifth",
+            "org.example.Sixth",
+            "Seventh"),
+        PythonBackendTests::generateClass);
+
+    private Path root;
+
+    @Before
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory(null);
+    }
+
+    @After
+    public void deleteRoot() {
+        deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void compilingOnSeveralThreadsWritesTheSameFilesAsCompilingOnOneThread() throws IOException {
+        OutputDirectory.Summary serialSummary = directory("serial", 1).compile(CLASSES);
+        OutputDirectory.Summary parallelSummary = directory("parallel", 4).compile(CLASSES);
+
+        Map<String, byte[]> serialFiles = readFiles(root.resolve("serial"));
+        Map<String, byte[]> parallelFiles = readFiles(root.resolve("parallel"));
+        assertEquals(serialFiles.keySet(), parallelFiles.keySet());
+        for (String path : serialFiles.keySet()) {
+            assertArrayEquals(path, serialFiles.get(path), parallelFiles.get(path));
+        }
+
+        assertTrue(parallelFiles.containsKey("couscous/com/example/nested/__init__.py"));
+        // Each file, including each __init__.py, is only written once
+        assertEquals(serialFiles.size(), serialSummary.getWritten());
+        assertEquals(parallelFiles.size(), parallelSummary.getWritten());
+    }
+
+    @Test
+    public void bundlingOnSeveralThreadsWritesTheSameBundleAsBundlingOnOneThread() throws IOException {
+        bundle("serial.pyz", 1).compile(CLASSES);
+        bundle("parallel.pyz", 4).compile(CLASSES);
+
+        assertArrayEquals(
+            Files.readAllBytes(root.resolve("serial.pyz")),
+            Files.readAllBytes(root.resolve("parallel.pyz")));
+    }
+
+    private PythonBackend directory(String name, int threads) {
+        return PythonBackend.builder(root.resolve(name), "couscous").threads(threads).build();
+    }
+
+    private PythonBackend bundle(String name, int threads) {
+        return PythonBackend.builder(root.resolve(name), "couscous").bundle().threads(threads).build();
+    }
+
+    private static Map<String, byte[]> readFiles(Path directory) throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+        for (Path path : eagerMap(Files.walk(directory)::iterator, path -> path)) {
+            if (Files.isRegularFile(path)) {
+                files.put(directory.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/"), Files.readAllBytes(path));
+            }
+        }
+        return files;
+    }
+
+    private static TypeNode generateClass(String name) {
+        return ClassNode.builder(name)
+            .staticMethod("answer", method -> method
+                .returns(Types.INT)
+                .statement(returns(literal(name.length()))))
+            .build();
+    }
+}
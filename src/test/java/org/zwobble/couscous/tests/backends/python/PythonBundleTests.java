@@ -0,0 +1,71 @@
+package org.zwobble.couscous.tests.backends.python;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zwobble.couscous.ast.ClassNode;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.naming.Names;
+import org.zwobble.couscous.backends.python.PythonBackend;
+import org.zwobble.couscous.tests.util.processes.ExecutionResult;
+import org.zwobble.couscous.tests.util.processes.Processes;
+import org.zwobble.couscous.types.Types;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.zwobble.couscous.ast.LiteralNode.literal;
+import static org.zwobble.couscous.ast.MethodSignature.signature;
+import static org.zwobble.couscous.ast.ReturnNode.returns;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class PythonBundleTests {
+    private static final List<TypeNode> CLASSES = list(
+        ClassNode.builder("com.example.Example")
+            .staticMethod("answer", method -> method
+                .returns(Types.INT)
+                .statement(returns(literal(42))))
+            .build());
+
+    private Path root;
+
+    @Before
+    public void createRoot() throws Exception {
+        root = Files.createTempDirectory(null);
+    }
+
+    @After
+    public void deleteRoot() {
+        deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void modulesCanBeImportedFromBundle() throws Exception {
+        bundle("bundle.pyz").compile(CLASSES);
+
+        String program = "import sys; sys.path.insert(0, 'bundle.pyz');" +
+            "from couscous.com.example.Example import Example;" +
+            "print(Example." + Names.toUniqueName(signature("answer", list(), Types.INT)) + "())";
+        ExecutionResult result = Processes.run(list("python3.11", "-c", program), root);
+        result.assertSuccess();
+        assertEquals("42", result.getStdout().trim());
+    }
+
+    @Test
+    public void bundlesOfTheSameClassesAreIdentical() throws Exception {
+        bundle("first.pyz").compile(CLASSES);
+        bundle("second.pyz").compile(CLASSES);
+
+        assertArrayEquals(
+            Files.readAllBytes(root.resolve("first.pyz")),
+            Files.readAllBytes(root.resolve("second.pyz")));
+    }
+
+    private PythonBackend bundle(String name) {
+        return PythonBackend.builder(root.resolve(name), "couscous").bundle().threads(2).build();
+    }
+}
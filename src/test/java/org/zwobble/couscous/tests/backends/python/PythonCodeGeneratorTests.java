@@ -1,13 +1,38 @@
 package org.zwobble.couscous.tests.backends.python;
 
 import org.junit.Test;
+import org.zwobble.couscous.ast.ClassNode;
+import org.zwobble.couscous.ast.ExpressionNode;
+import org.zwobble.couscous.ast.ForNode;
+import org.zwobble.couscous.ast.FormalArgumentNode;
+import org.zwobble.couscous.ast.LocalVariableDeclarationNode;
+import org.zwobble.couscous.ast.StatementNode;
+import org.zwobble.couscous.ast.sugar.SwitchNode;
 import org.zwobble.couscous.backends.python.PythonCodeGenerator;
+import org.zwobble.couscous.backends.python.PythonSerializer;
+import org.zwobble.couscous.types.ScalarType;
 import org.zwobble.couscous.types.Types;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.zwobble.couscous.ast.ArrayNode.array;
+import static org.zwobble.couscous.ast.AssignmentNode.assign;
+import static org.zwobble.couscous.ast.AssignmentNode.assignStatement;
+import static org.zwobble.couscous.ast.ExpressionStatementNode.expressionStatement;
+import static org.zwobble.couscous.ast.FieldAccessNode.fieldAccess;
+import static org.zwobble.couscous.ast.FormalArgumentNode.formalArg;
 import static org.zwobble.couscous.ast.LiteralNode.literal;
+import static org.zwobble.couscous.ast.LocalVariableDeclarationNode.localVariableDeclaration;
+import static org.zwobble.couscous.ast.Operations.integerAdd;
+import static org.zwobble.couscous.ast.Operations.lessThan;
+import static org.zwobble.couscous.ast.Operations.lessThanOrEqual;
+import static org.zwobble.couscous.ast.ReturnNode.returns;
+import static org.zwobble.couscous.ast.VariableDeclaration.var;
+import static org.zwobble.couscous.ast.VariableReferenceNode.reference;
+import static org.zwobble.couscous.ast.sugar.SwitchCaseNode.switchCase;
 import static org.zwobble.couscous.tests.backends.python.PythonNodeMatchers.isPythonList;
+import static org.zwobble.couscous.tests.TestIds.variable;
 import static org.zwobble.couscous.tests.backends.python.PythonNodeMatchers.isPythonLiteral;
 import static org.zwobble.couscous.util.ExtraLists.list;
 
@@ -20,4 +45,119 @@ public class PythonCodeGeneratorTests {
                 literal("two")))),
             isPythonList(list(isPythonLiteral("one"), isPythonLiteral("two"))));
     }
+
+    @Test
+    public void classHasSlotsForInstanceFields() {
+        ClassNode classNode = ClassNode.builder("com.example.Example")
+            .field("first", Types.INT)
+            .staticField("count", Types.INT)
+            .field("second", Types.STRING)
+            .build();
+
+        assertThat(
+            PythonSerializer.serialize(PythonCodeGenerator.generateCode(classNode)),
+            containsString("__slots__ = [\"first\", \"second\"]"));
+    }
+
+    @Test
+    public void countedForLoopIsConvertedToRangeLoop() {
+        FormalArgumentNode end = formalArg(var(variable("end"), "end", Types.INT));
+        LocalVariableDeclarationNode index = localVariableDeclaration(variable("i"), "i", Types.INT, literal(0));
+        ForNode loop = new ForNode(
+            list(index),
+            lessThan(reference(index), reference(end)),
+            list(increment(index)),
+            list());
+
+        assertThat(generateStatement(end, loop), containsString("for i in range(0, end):"));
+    }
+
+    @Test
+    public void inclusiveEndOfCountedForLoopIsIncremented() {
+        FormalArgumentNode end = formalArg(var(variable("end"), "end", Types.INT));
+        LocalVariableDeclarationNode index = localVariableDeclaration(variable("i"), "i", Types.INT, literal(1));
+        ForNode loop = new ForNode(
+            list(index),
+            lessThanOrEqual(reference(index), literal(10)),
+            list(increment(index)),
+            list());
+
+        assertThat(generateStatement(end, loop), containsString("for i in range(1, 11):"));
+    }
+
+    @Test
+    public void forLoopIsConvertedToWhileLoopIfBodyAssignsToLoopVariable() {
+        FormalArgumentNode end = formalArg(var(variable("end"), "end", Types.INT));
+        LocalVariableDeclarationNode index = localVariableDeclaration(variable("i"), "i", Types.INT, literal(0));
+        ForNode loop = new ForNode(
+            list(index),
+            lessThan(reference(index), reference(end)),
+            list(increment(index)),
+            list(expressionStatement(increment(index))));
+
+        String output = generateStatement(end, loop);
+        assertThat(output, containsString("while i < end:"));
+        assertThat(output, not(containsString("range")));
+    }
+
+    @Test
+    public void forLoopIsConvertedToWhileLoopIfBodyAssignsToEnd() {
+        FormalArgumentNode end = formalArg(var(variable("end"), "end", Types.INT));
+        LocalVariableDeclarationNode index = localVariableDeclaration(variable("i"), "i", Types.INT, literal(0));
+        ForNode loop = new ForNode(
+            list(index),
+            lessThan(reference(index), reference(end)),
+            list(increment(index)),
+            list(assignStatement(reference(end), literal(0))));
+
+        assertThat(generateStatement(end, loop), containsString("while i < end:"));
+    }
+
+    @Test
+    public void switchLooksUpIndexOfCaseInTable() {
+        FormalArgumentNode value = formalArg(var(variable("value"), "value", Types.INT));
+        SwitchNode switchNode = new SwitchNode(
+            reference(value),
+            list(
+                switchCase(literal(1), list(returns(literal(10)))),
+                switchCase(literal(2), list(returns(literal(20)))),
+                switchCase(literal(3), list(returns(literal(30)))),
+                switchCase(literal(4), list(returns(literal(40)))),
+                switchCase(list(returns(literal(0))))));
+
+        String output = generateStatement(value, switchNode);
+        assertThat(output, containsString(" = _couscous._switch_table([1, 2, 3, 4], [0, 1, 2, 3])"));
+        assertThat(output, containsString(".get(value, 4)"));
+        assertThat(output, containsString("if _couscous_switch_index < 2:"));
+    }
+
+    @Test
+    public void switchWithCasesThatArentLiteralsIsConvertedToIfStatements() {
+        FormalArgumentNode value = formalArg(var(variable("value"), "value", Types.INT));
+        SwitchNode switchNode = new SwitchNode(
+            reference(value),
+            list(
+                switchCase(fieldAccess(ScalarType.topLevel("com.example.Constants"), "ONE", Types.INT), list(returns(literal(10)))),
+                switchCase(literal(2), list(returns(literal(20)))),
+                switchCase(literal(3), list(returns(literal(30)))),
+                switchCase(literal(4), list(returns(literal(40)))),
+                switchCase(list(returns(literal(0))))));
+
+        String output = generateStatement(value, switchNode);
+        assertThat(output, not(containsString("_switch_table")));
+        assertThat(output, containsString(" == Constants.ONE:"));
+    }
+
+    private static ExpressionNode increment(LocalVariableDeclarationNode variable) {
+        return assign(variable, integerAdd(reference(variable), literal(1)));
+    }
+
+    private static String generateStatement(FormalArgumentNode argument, StatementNode statement) {
+        ClassNode classNode = ClassNode.builder("com.example.Example")
+            .staticMethod("loop", method -> method
+                .argument(argument)
+                .statement(statement))
+            .build();
+        return PythonSerializer.serialize(PythonCodeGenerator.generateCode(classNode));
+    }
 }
@@ -0,0 +1,70 @@
+package org.zwobble.couscous.tests.backends.python;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zwobble.couscous.ast.ClassNode;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.naming.Names;
+import org.zwobble.couscous.backends.python.PythonBackend;
+import org.zwobble.couscous.tests.util.processes.ExecutionResult;
+import org.zwobble.couscous.tests.util.processes.Processes;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.zwobble.couscous.ast.AssignmentNode.assignStatement;
+import static org.zwobble.couscous.ast.FieldAccessNode.fieldAccess;
+import static org.zwobble.couscous.ast.LiteralNode.literal;
+import static org.zwobble.couscous.ast.MethodCallNode.staticMethodCall;
+import static org.zwobble.couscous.ast.MethodSignature.signature;
+import static org.zwobble.couscous.ast.ReturnNode.returns;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class PythonLazyImportsTests {
+    private static final ScalarType COUNTER = ScalarType.topLevel("com.example.Counter");
+    private static final List<TypeNode> CLASSES = list(
+        ClassNode.builder(COUNTER)
+            .staticField("count", Types.INT)
+            .staticMethod("get", method -> method
+                .returns(Types.INT)
+                .statement(returns(fieldAccess(COUNTER, "count", Types.INT))))
+            .build(),
+        ClassNode.builder("com.example.Example")
+            .staticMethod("run", method -> method
+                .returns(Types.INT)
+                .statement(assignStatement(fieldAccess(COUNTER, "count", Types.INT), literal(42)))
+                .statement(returns(staticMethodCall(COUNTER, "get", list(), Types.INT))))
+            .build());
+
+    private Path root;
+
+    @Before
+    public void createRoot() throws Exception {
+        root = Files.createTempDirectory(null);
+    }
+
+    @After
+    public void deleteRoot() {
+        deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void classesUsedByMethodsAreImportedOnFirstUse() throws Exception {
+        PythonBackend.builder(root, "couscous").lazyImports().build().compile(CLASSES);
+
+        String program = "import sys;" +
+            "from couscous.com.example.Example import Example;" +
+            "print('couscous.com.example.Counter' in sys.modules);" +
+            "print(Example." + Names.toUniqueName(signature("run", list(), Types.INT)) + "());" +
+            "print('couscous.com.example.Counter' in sys.modules)";
+        ExecutionResult result = Processes.run(list("python3.11", "-c", program), root);
+        result.assertSuccess();
+        assertEquals(list("False", "42", "True"), list(result.getStdout().trim().split("\\s+")));
+    }
+}
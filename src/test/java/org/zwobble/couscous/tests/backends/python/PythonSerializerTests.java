@@ -15,6 +15,7 @@ import static org.zwobble.couscous.backends.python.ast.PythonBinaryOperation.pyt
 import static org.zwobble.couscous.backends.python.ast.PythonBooleanLiteralNode.pythonBooleanLiteral;
 import static org.zwobble.couscous.backends.python.ast.PythonCallNode.pythonCall;
 import static org.zwobble.couscous.backends.python.ast.PythonConditionalExpressionNode.pythonConditionalExpression;
+import static org.zwobble.couscous.backends.python.ast.PythonForNode.pythonFor;
 import static org.zwobble.couscous.backends.python.ast.PythonGetSliceNode.pythonGetSlice;
 import static org.zwobble.couscous.backends.python.ast.PythonIfStatementNode.pythonIfStatement;
 import static org.zwobble.couscous.backends.python.ast.PythonImportAliasNode.pythonImportAlias;
@@ -47,6 +48,12 @@ public class PythonSerializerTests {
         String output = serialize(pythonStringLiteral("\"\n\r\t\\"));
         assertEquals("\"\\\"\\n\\r\\t\\\\\"", output);
     }
+
+    @Test
+    public void escapedCharactersAreWrittenInPlace() {
+        String output = serialize(pythonStringLiteral("one\ntwo \"three\""));
+        assertEquals("\"one\\ntwo \\\"three\\\"\"", output);
+    }
     
     @Test
     public void booleansAreNotBoxed() {
@@ -200,6 +207,15 @@ public class PythonSerializerTests {
             list(pythonReturn(pythonIntegerLiteral(1)))));
         assertEquals("while True:\n    return 1\n", output);
     }
+
+    @Test
+    public void forIsSerializedWithForAndInKeywords() {
+        String output = serialize(pythonFor(
+            pythonVariableReference("x"),
+            pythonVariableReference("y"),
+            list(pythonReturn(pythonVariableReference("x")))));
+        assertEquals("for x in y:\n    return x\n", output);
+    }
     
     @Test
     public void moduleIsSerializedStatements() {
@@ -0,0 +1,26 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class ArrayBenchmarks {
+    private static final int ITERATIONS = 100000;
+
+    public static void main(String[] args) {
+        List<TypeNode> program = Benchmarks.readProgram("arrays");
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+
+        measure("int array", () -> run(interpreter, "com.example.Arrays", "ints", list(value(ITERATIONS)), Types.INT));
+        measure("boolean array", () -> run(interpreter, "com.example.Arrays", "booleans", list(value(ITERATIONS)), Types.INT));
+    }
+}
@@ -0,0 +1,85 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.frontends.java.JavaFrontend;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.values.InterpreterValue;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Type;
+import org.zwobble.couscous.util.FileSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class Benchmarks {
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 10;
+
+    public static void measure(String name, Runnable action) {
+        measure(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T measure(String name, Supplier<T> action) {
+        T result = null;
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            result = action.get();
+        }
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            result = action.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        System.out.printf(
+            "%-40s %10.3f ms/run %12.1f KB/run allocated%n",
+            name,
+            elapsed / 1e6 / MEASURED_RUNS,
+            allocated / 1024.0 / MEASURED_RUNS);
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public static InterpreterValue run(
+        Interpreter interpreter,
+        String className,
+        String methodName,
+        List<InterpreterValue> arguments,
+        Type returnType)
+    {
+        return interpreter.run(ScalarType.topLevel(className), methodName, arguments, returnType);
+    }
+
+    public static List<TypeNode> readProgram(String name) {
+        Path directory = pathForResource("/benchmarks/" + name);
+        try {
+            return new JavaFrontend().readSourceDirectory(list(directory), FileSet.directory(directory));
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    public static Path pathForResource(String name) {
+        try {
+            URI uri = Benchmarks.class.getResource(name).toURI();
+            return new File(uri).toPath();
+        } catch (URISyntaxException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class LinkingBenchmarks {
+    private static final int ITERATIONS = 100000;
+
+    public static void main(String[] args) {
+        List<TypeNode> program = Benchmarks.readProgram("linking");
+        measure("build project", () -> JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+        for (String method : list("staticCalls", "constructors")) {
+            measure(method, () -> run(interpreter, "com.example.Linking", method, list(value(ITERATIONS)), Types.INT));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class LoopBenchmarks {
+    private static final int ITERATIONS = 20000;
+
+    public static void main(String[] args) {
+        List<TypeNode> program = Benchmarks.readProgram("loops");
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+
+        measure("nested loops", () -> run(interpreter, "com.example.Loops", "nested", list(value(ITERATIONS)), Types.INT));
+    }
+}
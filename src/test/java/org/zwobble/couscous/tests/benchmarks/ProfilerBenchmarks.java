@@ -0,0 +1,31 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.InterpreterSession;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.Profiler;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class ProfilerBenchmarks {
+    private static final ScalarType CALLS = ScalarType.topLevel("com.example.Calls");
+    private static final int ITERATIONS = 10000;
+
+    public static void main(String[] args) {
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(
+            Benchmarks.readProgram("calls"),
+            TieredMethod.NEVER_COMPILE));
+
+        measure("profiler disabled", () -> points(interpreter.session().build()));
+        measure("profiler enabled", () -> points(interpreter.session().profiler(new Profiler()).build()));
+    }
+
+    private static void points(InterpreterSession session) {
+        session.run(CALLS, "points", list(value(ITERATIONS)), Types.INT);
+    }
+}
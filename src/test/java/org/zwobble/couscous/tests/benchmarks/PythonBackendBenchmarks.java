@@ -0,0 +1,89 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.ClassNode;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.OutputDirectory;
+import org.zwobble.couscous.backends.python.PythonBackend;
+import org.zwobble.couscous.types.Types;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.zwobble.couscous.ast.ExpressionStatementNode.expressionStatement;
+import static org.zwobble.couscous.ast.LiteralNode.literal;
+import static org.zwobble.couscous.ast.MethodCallNode.staticMethodCall;
+import static org.zwobble.couscous.ast.Operations.integerAdd;
+import static org.zwobble.couscous.ast.Operations.integerMultiply;
+import static org.zwobble.couscous.ast.ReturnNode.returns;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class PythonBackendBenchmarks {
+    private static final int PACKAGES = 50;
+
+    public static void main(String[] args) throws IOException {
+        int classCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int maxThreads = args.length > 1
+            ? Integer.parseInt(args[1])
+            : Math.max(4, Runtime.getRuntime().availableProcessors());
+        List<TypeNode> classes = generateClasses(classCount);
+
+        Path root = Files.createTempDirectory("couscous-benchmark");
+        try {
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                PythonBackend backend = PythonBackend.builder(root, "couscous").threads(threads).build();
+                measureCompile(classCount + " classes, " + threads + " threads", backend, classes);
+            }
+            PythonBackend incrementalBackend = PythonBackend.builder(root, "couscous")
+                .threads(maxThreads)
+                .outputMode(OutputDirectory.Mode.WRITE_IF_CHANGED)
+                .build();
+            measureCompile(classCount + " classes, unchanged, write if changed", incrementalBackend, classes);
+        } finally {
+            deleteRecursively(root);
+        }
+    }
+
+    private static void measureCompile(String name, PythonBackend backend, List<TypeNode> classes) {
+        Benchmarks.measure(name, () -> {
+            try {
+                backend.compile(classes);
+            } catch (IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        });
+    }
+
+    static List<TypeNode> generateClasses(int count) {
+        List<TypeNode> classes = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            String name = className(index);
+            String previous = className(Math.max(0, index - 1));
+            classes.add(ClassNode.builder(name)
+                .staticMethod("calculate", method -> method
+                    .returns(Types.INT)
+                    .statement(returns(integerAdd(
+                        integerMultiply(literal(2), literal(3)),
+                        literal(4)))))
+                .staticMethod("chain", method -> method
+                    .statement(expressionStatement(staticMethodCall(previous, "calculate", list(), Types.INT)))
+                    .statement(expressionStatement(staticMethodCall(name, "calculate", list(), Types.INT))))
+                .build());
+        }
+        return classes;
+    }
+
+    private static String className(int index) {
+        return "com.example.p" + (index % PACKAGES) + ".Class" + index;
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        Files.walk(root).forEach(paths::add);
+        for (int index = paths.size() - 1; index >= 0; index--) {
+            Files.delete(paths.get(index));
+        }
+    }
+}
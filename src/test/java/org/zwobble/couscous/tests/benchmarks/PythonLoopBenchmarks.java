@@ -0,0 +1,59 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.backends.naming.Names;
+import org.zwobble.couscous.backends.python.PythonBackend;
+import org.zwobble.couscous.tests.util.processes.Processes;
+import org.zwobble.couscous.transforms.DesugarForToWhile;
+import org.zwobble.couscous.types.Types;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.zwobble.couscous.ast.MethodSignature.signature;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * Measures generated Python for counted loops, written as range loops and,
+ * as they were before, as while loops.
+ */
+public class PythonLoopBenchmarks {
+    private static final int ITERATIONS = 100000;
+    private static final String MEASURE =
+        "import sys, timeit\n" +
+        "sys.path.insert(0, sys.argv[1])\n" +
+        "from couscous.com.example.Factorials import Factorials\n" +
+        "from couscous.com.example.Loops import Loops\n" +
+        "for name, function in [('factorials', Factorials.%s), ('nested loops', Loops.%s)]:\n" +
+        "    seconds = min(timeit.repeat(lambda: function(%d), number=1, repeat=5))\n" +
+        "    print('%%-30s %%8.1f ms/run' %% (name + ', ' + sys.argv[2], seconds * 1000))\n";
+
+    public static void main(String[] args) throws Exception {
+        List<TypeNode> program = Benchmarks.readProgram("loops");
+        Path root = Files.createTempDirectory("couscous-benchmark");
+        try {
+            Path range = root.resolve("range");
+            Path whileLoops = root.resolve("while");
+            PythonBackend.builder(range, "couscous").build().compile(program);
+            PythonBackend.builder(whileLoops, "couscous").build().compile(
+                NodeTransformer.applyAll(list(DesugarForToWhile.transformer()), program));
+            Files.write(root.resolve("measure.py"), list(String.format(
+                MEASURE,
+                Names.toUniqueName(signature("sum", list(Types.INT), Types.INT)),
+                Names.toUniqueName(signature("nested", list(Types.INT), Types.INT)),
+                ITERATIONS)));
+
+            measure(root, whileLoops, "while");
+            measure(root, range, "range");
+        } finally {
+            deleteRecursively(root.toFile());
+        }
+    }
+
+    private static void measure(Path root, Path path, String name) throws Exception {
+        System.out.println(Processes.run(list("python3.11", "measure.py", path.toString(), name), root).getStdout().trim());
+    }
+}
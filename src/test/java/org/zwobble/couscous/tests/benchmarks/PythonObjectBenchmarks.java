@@ -0,0 +1,82 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.ClassNode;
+import org.zwobble.couscous.ast.FormalArgumentNode;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.python.PythonBackend;
+import org.zwobble.couscous.tests.util.processes.Processes;
+import org.zwobble.couscous.types.Types;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.zwobble.couscous.ast.AssignmentNode.assignStatement;
+import static org.zwobble.couscous.ast.FieldAccessNode.fieldAccess;
+import static org.zwobble.couscous.ast.FormalArgumentNode.formalArg;
+import static org.zwobble.couscous.ast.VariableDeclaration.var;
+import static org.zwobble.couscous.ast.VariableReferenceNode.reference;
+import static org.zwobble.couscous.tests.TestIds.ANY_ID;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.eagerFilter;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * Measures the memory used by instances of a generated Python class, and the
+ * time taken to read their fields, with and without {@code __slots__}.
+ */
+public class PythonObjectBenchmarks {
+    private static final String MEASURE =
+        "import sys, timeit, tracemalloc\n" +
+        "sys.path.insert(0, sys.argv[1])\n" +
+        "from couscous.com.example.Point import Point\n" +
+        "count = 100000\n" +
+        "tracemalloc.start()\n" +
+        "points = [Point(index, index) for index in range(count)]\n" +
+        "size = tracemalloc.get_traced_memory()[0]\n" +
+        "tracemalloc.stop()\n" +
+        "point = points[0]\n" +
+        "seconds = min(timeit.repeat(lambda: point.x + point.y, number=1000000, repeat=5))\n" +
+        "print('%-20s %8.1f bytes/instance %8.1f ns/field read' % (sys.argv[2], size / count, seconds * 1e9 / 2 / 1000000))\n";
+
+    public static void main(String[] args) throws Exception {
+        Path root = Files.createTempDirectory("couscous-benchmark");
+        try {
+            Path slots = root.resolve("slots");
+            Path dicts = root.resolve("dicts");
+            PythonBackend.builder(slots, "couscous").build().compile(list(pointClass()));
+            PythonBackend.builder(dicts, "couscous").build().compile(list(pointClass()));
+            removeSlots(dicts.resolve("couscous/com/example/Point.py"));
+            Files.write(root.resolve("measure.py"), list(MEASURE));
+
+            measure(root, dicts, "__dict__");
+            measure(root, slots, "__slots__");
+        } finally {
+            deleteRecursively(root.toFile());
+        }
+    }
+
+    private static TypeNode pointClass() {
+        FormalArgumentNode x = formalArg(var(ANY_ID, "x", Types.INT));
+        FormalArgumentNode y = formalArg(var(ANY_ID, "y", Types.INT));
+        return ClassNode.builder("com.example.Point")
+            .field("x", Types.INT)
+            .field("y", Types.INT)
+            .constructor(constructor -> constructor
+                .argument(x)
+                .argument(y)
+                .statement(assignStatement(fieldAccess(constructor.thisReference(), "x", Types.INT), reference(x)))
+                .statement(assignStatement(fieldAccess(constructor.thisReference(), "y", Types.INT), reference(y))))
+            .build();
+    }
+
+    private static void removeSlots(Path module) throws Exception {
+        List<String> lines = Files.readAllLines(module, StandardCharsets.UTF_8);
+        Files.write(module, eagerFilter(lines, line -> !line.trim().startsWith("__slots__")), StandardCharsets.UTF_8);
+    }
+
+    private static void measure(Path root, Path path, String name) throws Exception {
+        System.out.println(Processes.run(list("python3.11", "measure.py", path.toString(), name), root).getStdout().trim());
+    }
+}
@@ -0,0 +1,90 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.python.PythonBackend;
+import org.zwobble.couscous.tests.util.processes.Processes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.eagerMap;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * Measures how long a Python process takes to import every generated module,
+ * from the directory layout and from a bundle, and how long it takes to
+ * import a single module that transitively references a chain of other
+ * modules, with eager and lazy imports.
+ */
+public class PythonStartupBenchmarks {
+    private static final int RUNS = 5;
+    // Longer chains of eager imports exceed Python's recursion limit
+    private static final int ENTRY_CHAIN_LENGTH = 100;
+    private static final String IMPORT_ALL =
+        "import importlib, sys\n" +
+        "sys.path.insert(0, sys.argv[1])\n" +
+        "for name in open(sys.argv[2]).read().split():\n" +
+        "    importlib.import_module(name)\n";
+
+    public static void main(String[] args) throws Exception {
+        int classCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        List<TypeNode> classes = PythonBackendBenchmarks.generateClasses(classCount);
+
+        Path root = Files.createTempDirectory("couscous-benchmark");
+        try {
+            Path directory = root.resolve("directory");
+            Path bundle = root.resolve("bundle.pyz");
+            Path lazyDirectory = root.resolve("lazy");
+            PythonBackend.builder(directory, "couscous").build().compile(classes);
+            PythonBackend.builder(bundle, "couscous").bundle().build().compile(classes);
+            PythonBackend.builder(lazyDirectory, "couscous").lazyImports().build().compile(classes);
+            Files.write(root.resolve("import_all.py"), list(IMPORT_ALL));
+            Files.write(root.resolve("modules.txt"), eagerMap(classes, PythonStartupBenchmarks::moduleName));
+            Files.write(root.resolve("entry.txt"), list(moduleName(classes.get(Math.min(classes.size(), ENTRY_CHAIN_LENGTH) - 1))));
+
+            measureStartup(classCount + " modules, directory, no bytecode cache", root, directory, "modules.txt", () -> deleteBytecodeCaches(directory));
+            measureStartup(classCount + " modules, directory, bytecode cached", root, directory, "modules.txt", () -> {});
+            measureStartup(classCount + " modules, bundle", root, bundle, "modules.txt", () -> {});
+            measureStartup(ENTRY_CHAIN_LENGTH + " module chain, eager imports", root, directory, "entry.txt", () -> {});
+            measureStartup(ENTRY_CHAIN_LENGTH + " module chain, lazy imports", root, lazyDirectory, "entry.txt", () -> {});
+        } finally {
+            deleteRecursively(root.toFile());
+        }
+    }
+
+    private interface Setup {
+        void run() throws IOException;
+    }
+
+    private static String moduleName(TypeNode type) {
+        return "couscous." + type.getName().getQualifiedName();
+    }
+
+    private static void measureStartup(String name, Path root, Path path, String modules, Setup setup) throws Exception {
+        setup.run();
+        importAll(root, path, modules);
+        long elapsed = 0;
+        for (int run = 0; run < RUNS; run++) {
+            setup.run();
+            long start = System.nanoTime();
+            importAll(root, path, modules);
+            elapsed += System.nanoTime() - start;
+        }
+        System.out.printf("%-50s %10.1f ms/run%n", name, elapsed / 1e6 / RUNS);
+    }
+
+    private static void importAll(Path root, Path path, String modules) throws Exception {
+        Processes.run(list("python3.11", "import_all.py", path.toString(), modules), root).assertSuccess();
+    }
+
+    private static void deleteBytecodeCaches(Path directory) throws IOException {
+        for (Path cache : eagerMap(Files.walk(directory)::iterator, path -> path)) {
+            if (cache.getFileName().toString().equals("__pycache__")) {
+                deleteRecursively(cache.toFile());
+            }
+        }
+    }
+}
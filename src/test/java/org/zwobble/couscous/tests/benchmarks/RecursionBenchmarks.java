@@ -0,0 +1,49 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.Project;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class RecursionBenchmarks {
+    private static final int FIB_ARGUMENT = 18;
+
+    public static void main(String[] args) {
+        List<TypeNode> program = Benchmarks.readProgram("recursion");
+        Project project = JavaProject.trusted(program, TieredMethod.NEVER_COMPILE);
+        Interpreter jvmStack = new Interpreter(project);
+        Interpreter explicitStack = Interpreter.withExplicitStack(project);
+
+        measure("fib " + FIB_ARGUMENT + ", JVM stack", () -> fib(jvmStack));
+        measure("fib " + FIB_ARGUMENT + ", explicit stack", () -> fib(explicitStack));
+
+        System.out.println("Maximum depth, JVM stack: " + maximumDepth(jvmStack));
+        System.out.println("Maximum depth, explicit stack: at least " + maximumDepth(explicitStack));
+    }
+
+    private static Object fib(Interpreter interpreter) {
+        return run(interpreter, "com.example.Recursion", "fib", list(value(FIB_ARGUMENT)), Types.INT);
+    }
+
+    private static int maximumDepth(Interpreter interpreter) {
+        int depth = 1000;
+        try {
+            while (depth < 1000000) {
+                run(interpreter, "com.example.Recursion", "depth", list(value(depth * 2)), Types.INT);
+                depth *= 2;
+            }
+        } catch (StackOverflowError error) {
+            // depth is the last depth that succeeded
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,84 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import com.google.common.io.CharStreams;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.backends.csharp.CsharpCodeGenerator;
+import org.zwobble.couscous.backends.csharp.CsharpSerializer;
+import org.zwobble.couscous.backends.python.PythonCodeGenerator;
+import org.zwobble.couscous.backends.python.PythonSerializer;
+import org.zwobble.couscous.backends.python.ast.PythonModuleNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.zwobble.couscous.util.ExtraLists.eagerMap;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class SerializerBenchmarks {
+    public static void main(String[] args) throws IOException {
+        int classCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        List<TypeNode> classes = PythonBackendBenchmarks.generateClasses(classCount);
+        List<PythonModuleNode> modules = eagerMap(classes, PythonCodeGenerator::generateCode);
+        List<TypeNode> csharpTypes = CsharpCodeGenerator.generateCode(classes, "Example");
+
+        Benchmarks.measure("python, to strings", () -> {
+            long length = 0;
+            for (PythonModuleNode module : modules) {
+                length += PythonSerializer.serialize(module).length();
+            }
+            return length;
+        });
+        Benchmarks.measure("python, to writer", () -> {
+            Writer writer = CharStreams.nullWriter();
+            for (PythonModuleNode module : modules) {
+                run(() -> PythonSerializer.serialize(module, writer));
+            }
+        });
+        Benchmarks.measure("csharp, to strings", () -> {
+            long length = 0;
+            for (TypeNode type : csharpTypes) {
+                length += CsharpSerializer.serialize(type).length();
+            }
+            return length;
+        });
+        Benchmarks.measure("csharp, to writer", () -> {
+            Writer writer = CharStreams.nullWriter();
+            for (TypeNode type : csharpTypes) {
+                run(() -> CsharpSerializer.serialize(type, writer));
+            }
+        });
+
+        Path file = Files.createTempFile("couscous-benchmark", ".cs");
+        try {
+            Benchmarks.measure("csharp, single file, via strings", () -> run(() ->
+                Files.write(file, eagerMap(csharpTypes, CsharpSerializer::serialize))));
+            Benchmarks.measure("csharp, single file, streamed", () -> run(() -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    for (TypeNode type : csharpTypes) {
+                        CsharpSerializer.serialize(type, writer);
+                        writer.write(System.lineSeparator());
+                    }
+                }
+            }));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
+    private static void run(IOAction action) {
+        try {
+            action.run();
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
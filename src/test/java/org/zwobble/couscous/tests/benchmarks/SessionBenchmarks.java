@@ -0,0 +1,53 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.InterpreterSession;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.Latencies;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class SessionBenchmarks {
+    private static final ScalarType HANDLER = ScalarType.topLevel("com.example.Handler");
+    private static final int WARMUP_RUNS = 200;
+    private static final int MEASURED_RUNS = 2000;
+
+    public static void main(String[] args) {
+        List<TypeNode> program = Benchmarks.readProgram("sessions");
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+
+        // A session without initialised classes that resets between runs
+        // re-runs static initialisation every time, like Interpreter.run.
+        report("cold", interpreter.session().resetBetweenRuns().build());
+        report("warm", interpreter.session().initialise(HANDLER).build());
+        report("warm, reset between runs", interpreter.session().initialise(HANDLER).resetBetweenRuns().build());
+    }
+
+    private static void report(String name, InterpreterSession session) {
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            handle(session, run);
+        }
+        Latencies latencies = session.getLatencies();
+        latencies.clear();
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            handle(session, run);
+        }
+        System.out.printf(
+            "%-30s p50 %8.1f us  p90 %8.1f us  p99 %8.1f us%n",
+            name,
+            latencies.percentileNanos(50) / 1e3,
+            latencies.percentileNanos(90) / 1e3,
+            latencies.percentileNanos(99) / 1e3);
+    }
+
+    private static void handle(InterpreterSession session, int request) {
+        session.run(HANDLER, "handle", list(value(request)), Types.INT);
+    }
+}
@@ -0,0 +1,37 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.InterpreterSession;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.ScalarType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class StaticStateBenchmarks {
+    private static final ScalarType TABLES = ScalarType.topLevel("com.example.Tables");
+
+    public static void main(String[] args) throws IOException {
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(
+            Benchmarks.readProgram("static-state"),
+            TieredMethod.NEVER_COMPILE));
+        Path path = Files.createTempFile(null, null);
+        interpreter.session().initialise(TABLES).build().saveStaticState(path);
+        System.out.println("Static state file: " + Files.size(path) + " bytes");
+
+        Benchmarks.measure("initialise", () -> interpreter.session().initialise(TABLES).build());
+        Benchmarks.measure("restore", () -> restore(interpreter.session(), path));
+        Benchmarks.measure("restore and validate", () -> restore(interpreter.session().validateRestoredState(), path));
+    }
+
+    private static InterpreterSession restore(InterpreterSession.Builder builder, Path path) {
+        try {
+            return builder.restoreStaticState(path).build();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
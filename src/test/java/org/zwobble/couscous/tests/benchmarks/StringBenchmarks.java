@@ -0,0 +1,26 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class StringBenchmarks {
+    public static void main(String[] args) {
+        List<TypeNode> program = Benchmarks.readProgram("strings");
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+
+        for (int iterations : new int[] {2000, 8000}) {
+            measure("build " + iterations, () -> run(interpreter, "com.example.Strings", "build", list(value(iterations)), Types.INT));
+            measure("build and compare " + iterations, () -> run(interpreter, "com.example.Strings", "buildAndCompare", list(value(iterations)), Types.INT));
+        }
+    }
+}
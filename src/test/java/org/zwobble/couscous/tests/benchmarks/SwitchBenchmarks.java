@@ -0,0 +1,77 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.backends.naming.Names;
+import org.zwobble.couscous.backends.python.PythonBackend;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.tests.util.processes.Processes;
+import org.zwobble.couscous.transforms.DesugarSwitchToIfElse;
+import org.zwobble.couscous.types.Types;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.zwobble.couscous.ast.MethodSignature.signature;
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+/**
+ * Measures switch-heavy code in the interpreter and in generated Python,
+ * with switches run directly and, as they were before, desugared to chains
+ * of if statements.
+ */
+public class SwitchBenchmarks {
+    private static final int INTERPRETER_ITERATIONS = 5000;
+    private static final int PYTHON_ITERATIONS = 10000;
+    private static final String MEASURE =
+        "import sys, timeit\n" +
+        "sys.path.insert(0, sys.argv[1])\n" +
+        "from couscous.com.example.Switches import Switches\n" +
+        "names = [Switches.%s(month) for month in range(12)]\n" +
+        "for name, function, inputs in [('int', Switches.%s, range(13)), ('string', Switches.%s, names)]:\n" +
+        "    seconds = min(timeit.repeat(lambda: [function(value) for value in inputs], number=%d, repeat=5))\n" +
+        "    print('%%-30s %%8.1f ms/run' %% ('python, ' + name + ', ' + sys.argv[2], seconds * 1000))\n";
+
+    public static void main(String[] args) throws Exception {
+        List<TypeNode> program = Benchmarks.readProgram("switches");
+        List<TypeNode> desugaredProgram = NodeTransformer.applyAll(list(DesugarSwitchToIfElse.transformer()), program);
+
+        measureInterpreter("interpreter, if statements", desugaredProgram);
+        measureInterpreter("interpreter, switch tables", program);
+
+        Path root = Files.createTempDirectory("couscous-benchmark");
+        try {
+            Path tables = root.resolve("tables");
+            Path ifStatements = root.resolve("if");
+            PythonBackend.builder(tables, "couscous").build().compile(program);
+            PythonBackend.builder(ifStatements, "couscous").build().compile(desugaredProgram);
+            Files.write(root.resolve("measure.py"), list(String.format(
+                MEASURE,
+                Names.toUniqueName(signature("monthName", list(Types.INT), Types.STRING)),
+                Names.toUniqueName(signature("month", list(Types.INT), Types.INT)),
+                Names.toUniqueName(signature("days", list(Types.STRING), Types.INT)),
+                PYTHON_ITERATIONS)));
+
+            measurePython(root, ifStatements, "if statements");
+            measurePython(root, tables, "switch tables");
+        } finally {
+            deleteRecursively(root.toFile());
+        }
+    }
+
+    private static void measureInterpreter(String name, List<TypeNode> program) {
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+        measure(name, () -> run(interpreter, "com.example.Switches", "dispatch", list(value(INTERPRETER_ITERATIONS)), Types.INT));
+    }
+
+    private static void measurePython(Path root, Path path, String name) throws Exception {
+        System.out.println(Processes.run(list("python3.11", "measure.py", path.toString(), name), root).getStdout().trim());
+    }
+}
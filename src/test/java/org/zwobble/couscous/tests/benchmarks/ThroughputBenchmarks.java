@@ -0,0 +1,52 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.Types;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class ThroughputBenchmarks {
+    private static final int ITERATIONS = 500;
+    private static final int RUNS_PER_THREAD = 200;
+
+    public static void main(String[] args) throws Exception {
+        List<TypeNode> program = Benchmarks.readProgram("loops");
+        Interpreter interpreter = new Interpreter(JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+        Callable<Object> task = () -> run(interpreter, "com.example.Loops", "nested", list(value(ITERATIONS)), Types.INT);
+
+        int maxThreads = args.length > 0
+            ? Integer.parseInt(args[0])
+            : Runtime.getRuntime().availableProcessors();
+        measureThroughput(maxThreads, task);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.printf("%-40s %10.1f runs/s%n", threads + " threads", measureThroughput(threads, task));
+        }
+    }
+
+    private static double measureThroughput(int threads, Callable<Object> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            int runs = threads * RUNS_PER_THREAD;
+            long start = System.nanoTime();
+            for (Future<Object> result : executor.invokeAll(Collections.nCopies(runs, task))) {
+                result.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            return runs / (elapsed / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
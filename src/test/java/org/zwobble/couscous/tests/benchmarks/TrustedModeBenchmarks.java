@@ -0,0 +1,34 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.util.ExtraLists.concat;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class TrustedModeBenchmarks {
+    private static final int ITERATIONS = 100000;
+
+    public static void main(String[] args) {
+        List<TypeNode> program = concat(Benchmarks.readProgram("type-checks"), Benchmarks.readProgram("calls"));
+        Interpreter checked = new Interpreter(JavaProject.of(program, TieredMethod.NEVER_COMPILE));
+        Interpreter trusted = new Interpreter(JavaProject.trusted(program, TieredMethod.NEVER_COMPILE));
+
+        for (String method : list("casts", "assignments")) {
+            measure("checked " + method, () -> run(checked, "com.example.TypeChecks", method, list(value(ITERATIONS)), Types.INT));
+            measure("trusted " + method, () -> run(trusted, "com.example.TypeChecks", method, list(value(ITERATIONS)), Types.INT));
+        }
+        for (String method : list("points", "strings")) {
+            measure("checked " + method, () -> run(checked, "com.example.Calls", method, list(value(ITERATIONS)), Types.INT));
+            measure("trusted " + method, () -> run(trusted, "com.example.Calls", method, list(value(ITERATIONS)), Types.INT));
+        }
+    }
+}
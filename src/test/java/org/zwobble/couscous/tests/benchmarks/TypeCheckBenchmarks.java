@@ -0,0 +1,26 @@
+package org.zwobble.couscous.tests.benchmarks;
+
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.measure;
+import static org.zwobble.couscous.tests.benchmarks.Benchmarks.run;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class TypeCheckBenchmarks {
+    private static final int ITERATIONS = 100000;
+
+    public static void main(String[] args) {
+        List<TypeNode> program = Benchmarks.readProgram("type-checks");
+        Interpreter interpreter = new Interpreter(JavaProject.of(program, TieredMethod.NEVER_COMPILE));
+
+        measure("casts", () -> run(interpreter, "com.example.TypeChecks", "casts", list(value(ITERATIONS)), Types.INT));
+        measure("assignments", () -> run(interpreter, "com.example.TypeChecks", "assignments", list(value(ITERATIONS)), Types.INT));
+    }
+}
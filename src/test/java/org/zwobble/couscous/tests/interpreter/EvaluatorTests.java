@@ -1,5 +1,6 @@
 package org.zwobble.couscous.tests.interpreter;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
 import org.hamcrest.Matcher;
 import org.junit.Ignore;
@@ -24,18 +25,24 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.zwobble.couscous.ast.ArrayIndexNode.arrayIndex;
 import static org.zwobble.couscous.ast.ArrayNode.array;
 import static org.zwobble.couscous.ast.AssignmentNode.assign;
 import static org.zwobble.couscous.ast.AssignmentNode.assignStatement;
 import static org.zwobble.couscous.ast.CastNode.cast;
 import static org.zwobble.couscous.ast.ConstructorCallNode.constructorCall;
+import static org.zwobble.couscous.ast.ExpressionStatementNode.expressionStatement;
 import static org.zwobble.couscous.ast.FieldAccessNode.fieldAccess;
 import static org.zwobble.couscous.ast.FormalArgumentNode.formalArg;
 import static org.zwobble.couscous.ast.LiteralNode.literal;
 import static org.zwobble.couscous.ast.MethodCallNode.methodCall;
+import static org.zwobble.couscous.ast.MethodCallNode.staticMethodCall;
 import static org.zwobble.couscous.ast.MethodSignature.signature;
 import static org.zwobble.couscous.ast.TernaryConditionalNode.ternaryConditional;
 import static org.zwobble.couscous.ast.VariableDeclaration.var;
+import static org.zwobble.couscous.ast.VariableReferenceNode.reference;
 import static org.zwobble.couscous.interpreter.Evaluator.eval;
 import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
 import static org.zwobble.couscous.tests.TestIds.ANY_ID;
@@ -65,6 +72,43 @@ public class EvaluatorTests extends BackendEvalTests {
         assertEquals(new ConditionMustBeBoolean(new IntegerInterpreterValue(1)), exception);
     }
     
+    @Test
+    public void stringLiteralsWithEqualValuesEvaluateToTheSameValue() {
+        Environment environment = emptyEnvironment();
+        assertSame(
+            eval(environment, literal("hello")),
+            eval(environment, literal("hello")));
+    }
+
+    @Test
+    public void stringLiteralsAreNotSharedBetweenExecutions() {
+        assertNotSame(
+            eval(emptyEnvironment(), literal("hello")),
+            eval(emptyEnvironment(), literal("hello")));
+    }
+
+    @Test
+    public void longStringsCanBeConcatenatedRepeatedly() {
+        String part = Strings.repeat("x", 40);
+        ExpressionNode expression = literal(part);
+        for (int index = 0; index < 3; index++) {
+            expression = methodCall(expression, "+", list(literal(part)), Types.STRING);
+        }
+
+        assertEquals(new IntegerInterpreterValue(160), eval(emptyEnvironment(), methodCall(expression, "length", list(), Types.INT)));
+        assertEquals(StringInterpreterValue.of(Strings.repeat(part, 4)), eval(emptyEnvironment(), expression));
+    }
+
+    @Test
+    public void deeplyNestedConcatenationsCanBeFlattened() {
+        StringInterpreterValue value = StringInterpreterValue.of(Strings.repeat("x", 64));
+        for (int index = 0; index < 100000; index++) {
+            value = StringInterpreterValue.concat(value, StringInterpreterValue.of("y"));
+        }
+
+        assertEquals(64 + 100000, value.getValue().length());
+    }
+
     @Test
     public void errorIfMethodDoesNotExist() {
         NoSuchMethod exception = assertThrows(NoSuchMethod.class,
@@ -188,16 +232,59 @@ public class EvaluatorTests extends BackendEvalTests {
                     literal(42))))
             .build();
 
-        NoSuchField exception = assertThrows(NoSuchField.class,
-            () -> evalExpression(
-                list(classNode),
-                constructorCall(
-                    classNode.getName(),
-                    list())));
+        UnresolvedReferences exception = assertThrows(UnresolvedReferences.class,
+            () -> JavaProject.of(list(classNode)));
 
-        assertEquals(new NoSuchField("value"), exception);
+        assertEquals(
+            list("com.example.Example: cannot find static field com.example.Example.value"),
+            exception.getReferences());
+    }
+
+    @Test
+    public void unresolvedReferencesAreAllReportedWhenProjectIsBuilt() {
+        ClassNode classNode = ClassNode.builder("com.example.Example")
+            .staticMethod("go", method -> method
+                .statement(expressionStatement(staticMethodCall("com.example.Missing", "go", list(), Types.VOID)))
+                .statement(expressionStatement(staticMethodCall("com.example.Example", "missing", list(), Types.VOID))))
+            .build();
+
+        UnresolvedReferences exception = assertThrows(UnresolvedReferences.class,
+            () -> JavaProject.of(list(classNode)));
+
+        assertEquals(
+            list(
+                "com.example.Example: cannot find class com.example.Missing",
+                "com.example.Example: cannot find static method com.example.Example.missing[]"),
+            exception.getReferences());
     }
     
+    @Test
+    public void sameFieldAccessCanReadFieldsOfTypesWithDifferentLayouts() {
+        ClassNode first = ClassNode.builder("com.example.First")
+            .field("a", Types.INT)
+            .field("b", Types.INT)
+            .constructor(constructor -> constructor
+                .statement(assignStatement(fieldAccess(constructor.thisReference(), "a", Types.INT), literal(1)))
+                .statement(assignStatement(fieldAccess(constructor.thisReference(), "b", Types.INT), literal(2))))
+            .build();
+        ClassNode second = ClassNode.builder("com.example.Second")
+            .field("b", Types.INT)
+            .constructor(constructor -> constructor
+                .statement(assignStatement(fieldAccess(constructor.thisReference(), "b", Types.INT), literal(3))))
+            .build();
+        FormalArgumentNode arg = formalArg(var(ANY_ID, "x", Types.OBJECT));
+        Environment environment = new Environment(
+            JavaProject.of(list(first, second)),
+            Optional.empty(),
+            new StackFrameBuilder().declare(arg, value("")).build());
+        FieldAccessNode fieldAccess = fieldAccess(reference(arg), "b", Types.INT);
+
+        environment.put(arg, eval(environment, constructorCall(first.getName(), list())));
+        assertEquals(new IntegerInterpreterValue(2), eval(environment, fieldAccess));
+        environment.put(arg, eval(environment, constructorCall(second.getName(), list())));
+        assertEquals(new IntegerInterpreterValue(3), eval(environment, fieldAccess));
+    }
+
     @Test
     @Ignore("WIP")
     public void cannotSetValueOfFieldWithWrongType() {
@@ -227,6 +314,25 @@ public class EvaluatorTests extends BackendEvalTests {
         assertEquals(value("42"), value);
     }
 
+    @Test
+    public void castToIndirectSuperTypeIsValid() {
+        InterfaceNode root = ClassNode.builder("com.example.Root").buildInterface();
+        InterfaceNode middle = ClassNode.builder("com.example.Middle")
+            .addSuperType("com.example.Root")
+            .buildInterface();
+        ClassNode leaf = ClassNode.builder("com.example.Leaf")
+            .addSuperType("com.example.Middle")
+            .build();
+        Environment environment = new Environment(
+            JavaProject.of(list(root, middle, leaf)),
+            Optional.empty(),
+            map());
+
+        InterpreterValue value = eval(environment, cast(constructorCall(leaf.getName(), list()), root.getName()));
+
+        assertEquals(leaf.getName(), value.getType().getType());
+    }
+
     @Test
     public void errorIfCastIsNotValid() {
         InvalidCast exception = assertThrows(InvalidCast.class,
@@ -252,6 +358,13 @@ public class EvaluatorTests extends BackendEvalTests {
                 StringInterpreterValue.of("two"))));
     }
 
+    @Test
+    public void canReadElementOfArrayByIndex() {
+        InterpreterValue value = eval(emptyEnvironment(),
+            arrayIndex(array(Types.INT, list(literal(1), literal(2))), literal(1), Types.INT));
+        assertEquals(new IntegerInterpreterValue(2), value);
+    }
+
     @Test
     public void typeOfValueCanBeParameterisedType() {
         ScalarType rawType = ScalarType.topLevel("Box");
@@ -87,6 +87,21 @@ public class InterpreterMethodTests extends BackendMethodTests {
         assertEquals(new VariableNotInScope(ANY_ID), exception);
     }
     
+    @Test
+    public void trustedProjectRejectsVariablesNotInScopeWhenLoaded() {
+        LocalVariableDeclarationNode localVariableDeclaration = localVariableDeclaration(
+            ANY_ID, "x", Types.STRING, literal(""));
+        MethodNode method = staticMethod("hello")
+            .statement(returns(reference(localVariableDeclaration)))
+            .build();
+        ClassNode classNode = ClassNode.builder("com.example.Example").method(method).build();
+
+        VariableNotInScope exception = assertThrows(VariableNotInScope.class,
+            () -> JavaProject.trusted(list(classNode)));
+
+        assertEquals(new VariableNotInScope(ANY_ID), exception);
+    }
+    
     @Test
     public void errorIfTryingToGetValueOfUnboundVariable() {
         LocalVariableDeclarationNode localVariableDeclaration = localVariableDeclaration(
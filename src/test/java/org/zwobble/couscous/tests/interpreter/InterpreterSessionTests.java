@@ -0,0 +1,172 @@
+package org.zwobble.couscous.tests.interpreter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.frontends.java.JavaFrontend;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.InterpreterSession;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.errors.StaticStateMismatch;
+import org.zwobble.couscous.interpreter.errors.UnsupportedStaticState;
+import org.zwobble.couscous.interpreter.values.IntegerInterpreterValue;
+import org.zwobble.couscous.interpreter.values.InterpreterValue;
+import org.zwobble.couscous.interpreter.values.StringInterpreterValue;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+import org.zwobble.couscous.util.FileSet;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class InterpreterSessionTests {
+    private static final ScalarType COUNTER = ScalarType.topLevel("com.example.Counter");
+    private static final ScalarType LOOKUP = ScalarType.topLevel("com.example.Lookup");
+    private static final ScalarType BOXES = ScalarType.topLevel("com.example.Boxes");
+
+    private Path root;
+
+    @Before
+    public void createRoot() throws Exception {
+        root = Files.createTempDirectory(null);
+    }
+
+    @After
+    public void deleteRoot() {
+        deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void staticFieldsArePreservedBetweenRunsOfSession() throws Exception {
+        InterpreterSession session = interpreter().session().build();
+
+        assertEquals(new IntegerInterpreterValue(1), increment(session));
+        assertEquals(new IntegerInterpreterValue(2), increment(session));
+    }
+
+    @Test
+    public void staticFieldsAreResetToValuesAfterInitialisationIfResetBetweenRuns() throws Exception {
+        InterpreterSession session = interpreter().session()
+            .initialise(COUNTER)
+            .resetBetweenRuns()
+            .build();
+
+        assertEquals(new IntegerInterpreterValue(1), increment(session));
+        assertEquals(new IntegerInterpreterValue(1), increment(session));
+    }
+
+    @Test
+    public void arraysAndObjectsReachableFromStaticFieldsAreResetIfResetBetweenRuns() throws Exception {
+        InterpreterSession session = interpreter("/java/static-state").session()
+            .initialise(LOOKUP)
+            .resetBetweenRuns()
+            .build();
+
+        assertEquals(new IntegerInterpreterValue(10), session.run(LOOKUP, "incrementSquare", list(value(3)), Types.INT));
+        assertEquals(new IntegerInterpreterValue(10), session.run(LOOKUP, "incrementSquare", list(value(3)), Types.INT));
+        assertEquals(
+            StringInterpreterValue.of("uno"),
+            session.run(LOOKUP, "rename", list(value("uno")), Types.STRING));
+    }
+
+    @Test
+    public void latencyIsRecordedForEachRun() throws Exception {
+        InterpreterSession session = interpreter().session().build();
+
+        increment(session);
+        increment(session);
+
+        assertEquals(2, session.getLatencies().count());
+    }
+
+    @Test
+    public void restoredStaticStateIsUsedWithoutRunningStaticConstructors() throws Exception {
+        Interpreter interpreter = interpreter();
+        InterpreterSession original = interpreter.session().build();
+        increment(original);
+        Path path = root.resolve("static-state");
+        original.saveStaticState(path);
+
+        InterpreterSession restored = interpreter.session().restoreStaticState(path).build();
+
+        assertEquals(new IntegerInterpreterValue(2), increment(restored));
+    }
+
+    @Test
+    public void restoredStaticStateKeepsObjectsAndArraysReachableFromStaticFields() throws Exception {
+        Interpreter interpreter = interpreter("/java/static-state");
+        Path path = root.resolve("static-state");
+        interpreter.session().initialise(LOOKUP).build().saveStaticState(path);
+
+        InterpreterSession restored = interpreter.session()
+            .restoreStaticState(path)
+            .validateRestoredState()
+            .build();
+
+        assertEquals(new IntegerInterpreterValue(9), restored.run(LOOKUP, "square", list(value(3)), Types.INT));
+        assertEquals(new IntegerInterpreterValue(10), restored.run(LOOKUP, "incrementSquare", list(value(3)), Types.INT));
+        assertEquals(
+            StringInterpreterValue.of("uno"),
+            restored.run(LOOKUP, "rename", list(value("uno")), Types.STRING));
+    }
+
+    @Test(expected = StaticStateMismatch.class)
+    public void restoredStaticStateIsRejectedIfItDiffersFromFreshInitialisation() throws Exception {
+        Interpreter interpreter = interpreter("/java/static-state");
+        InterpreterSession original = interpreter.session().initialise(LOOKUP).build();
+        original.run(LOOKUP, "incrementSquare", list(value(3)), Types.INT);
+        Path path = root.resolve("static-state");
+        original.saveStaticState(path);
+
+        interpreter.session()
+            .restoreStaticState(path)
+            .validateRestoredState()
+            .build();
+    }
+
+    @Test
+    public void savingStaticStateThatCannotBeSavedLeavesExistingFileUntouched() throws Exception {
+        Interpreter interpreter = interpreter("/java/static-state");
+        Path path = root.resolve("static-state");
+        interpreter.session().initialise(LOOKUP).build().saveStaticState(path);
+        byte[] saved = Files.readAllBytes(path);
+        InterpreterSession session = interpreter.session().initialise(LOOKUP).initialise(BOXES).build();
+
+        try {
+            session.saveStaticState(path);
+            fail("Expected UnsupportedStaticState");
+        } catch (UnsupportedStaticState expected) {
+        }
+
+        assertArrayEquals(saved, Files.readAllBytes(path));
+        try (Stream<Path> files = Files.list(root)) {
+            assertEquals(list(path), files.collect(Collectors.toList()));
+        }
+    }
+
+    private static InterpreterValue increment(InterpreterSession session) {
+        return session.run(COUNTER, "increment", list(), Types.INT);
+    }
+
+    private Interpreter interpreter() throws Exception {
+        return interpreter("/java/static-fields");
+    }
+
+    private Interpreter interpreter(String resource) throws Exception {
+        Path directory = Paths.get(getClass().getResource(resource).toURI());
+        List<TypeNode> classNodes = new JavaFrontend().readSourceDirectory(list(directory), FileSet.directory(directory));
+        return new Interpreter(JavaProject.of(classNodes));
+    }
+}
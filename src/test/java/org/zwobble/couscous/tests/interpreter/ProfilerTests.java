@@ -0,0 +1,136 @@
+package org.zwobble.couscous.tests.interpreter;
+
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.frontends.java.JavaFrontend;
+import org.zwobble.couscous.interpreter.Interpreter;
+import org.zwobble.couscous.interpreter.InterpreterSession;
+import org.zwobble.couscous.interpreter.JavaProject;
+import org.zwobble.couscous.interpreter.Profiler;
+import org.zwobble.couscous.interpreter.values.IntegerInterpreterValue;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+import org.zwobble.couscous.util.FileSet;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.zwobble.couscous.interpreter.values.InterpreterValues.value;
+import static org.zwobble.couscous.tests.util.ExtraFiles.deleteRecursively;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class ProfilerTests {
+    private static final ScalarType SQUARES = ScalarType.topLevel("com.example.Squares");
+    private static final ScalarType OVERLOADS = ScalarType.topLevel("com.example.Overloads");
+    private static final ScalarType LOOPS = ScalarType.topLevel("com.example.Loops");
+
+    private Path root;
+
+    @Before
+    public void createRoot() throws Exception {
+        root = Files.createTempDirectory(null);
+    }
+
+    @After
+    public void deleteRoot() {
+        deleteRecursively(root.toFile());
+    }
+
+    @Test
+    public void invocationsAndAllocationsAreRecordedForEachMethod() throws Exception {
+        Profiler profiler = runSumOfSquares(4);
+
+        JsonObject summary = profiler.toJson();
+
+        assertEquals(1, findByName(summary.get("methods"), "com.example.Squares.sumOfSquares(int)").getLong("invocations", -1));
+        assertEquals(0, findByName(summary.get("methods"), "com.example.Squares.sumOfSquares(int)").getLong("allocations", -1));
+        assertEquals(4, findByName(summary.get("methods"), "com.example.Squares.square(int)").getLong("invocations", -1));
+        assertEquals(4, findByName(summary.get("methods"), "com.example.Squares.square(int)").getLong("allocations", -1));
+        assertEquals(4, findByName(summary.get("methods"), "com.example.Box.<init>(int)").getLong("invocations", -1));
+    }
+
+    @Test
+    public void overloadsAreRecordedSeparately() throws Exception {
+        Profiler profiler = new Profiler();
+        InterpreterSession session = interpreter().session().profiler(profiler).build();
+        assertEquals(new IntegerInterpreterValue(6), session.run(OVERLOADS, "run", list(), Types.INT));
+
+        JsonObject summary = profiler.toJson();
+
+        assertEquals(1, findByName(summary.get("methods"), "com.example.Overloads.describe(int)").getLong("invocations", -1));
+        assertEquals(2, findByName(summary.get("methods"), "com.example.Overloads.describe(java.lang.String)").getLong("invocations", -1));
+    }
+
+    @Test
+    public void inclusiveTimeOfMethodIncludesTimeOfCallees() throws Exception {
+        Profiler profiler = runSumOfSquares(4);
+
+        JsonObject sumOfSquares = findByName(profiler.toJson().get("methods"), "com.example.Squares.sumOfSquares(int)");
+        JsonObject square = findByName(profiler.toJson().get("methods"), "com.example.Squares.square(int)");
+
+        assertTrue(sumOfSquares.getLong("inclusiveNanos", -1) >= sumOfSquares.getLong("exclusiveNanos", -1) + square.getLong("inclusiveNanos", -1));
+    }
+
+    @Test
+    public void iterationsAreRecordedForEachLoop() throws Exception {
+        Profiler profiler = runSumOfSquares(4);
+
+        JsonObject loop = findByName(profiler.toJson().get("loops"), "com.example.Squares.sumOfSquares(int) loop 1");
+
+        assertEquals(4, loop.getLong("iterations", -1));
+    }
+
+    @Test
+    public void loopsAreNumberedByTheirPositionInTheirMethodEvenIfEarlierLoopsDontRun() throws Exception {
+        Profiler profiler = new Profiler();
+        InterpreterSession session = interpreter().session().profiler(profiler).build();
+        assertEquals(new IntegerInterpreterValue(6), session.run(LOOPS, "sumDownFrom", list(value(3)), Types.INT));
+
+        JsonObject loop = findByName(profiler.toJson().get("loops"), "com.example.Loops.sumDownFrom(int) loop 2");
+
+        assertEquals(3, loop.getLong("iterations", -1));
+    }
+
+    @Test
+    public void collapsedStacksHaveOneLinePerDistinctStack() throws Exception {
+        Profiler profiler = runSumOfSquares(4);
+        Path path = root.resolve("stacks.txt");
+
+        profiler.writeCollapsedStacks(path);
+
+        List<String> lines = Files.readAllLines(path);
+        assertTrue(lines.stream().anyMatch(line -> line.matches(
+            "com\\.example\\.Squares\\.sumOfSquares\\(int\\);com\\.example\\.Squares\\.square\\(int\\);com\\.example\\.Box\\.<init>\\(int\\) [0-9]+")));
+        assertEquals(lines.size(), lines.stream().map(line -> line.substring(0, line.lastIndexOf(' '))).distinct().count());
+    }
+
+    private Profiler runSumOfSquares(int n) throws Exception {
+        Profiler profiler = new Profiler();
+        InterpreterSession session = interpreter().session().profiler(profiler).build();
+        assertEquals(new IntegerInterpreterValue(14), session.run(SQUARES, "sumOfSquares", list(value(n)), Types.INT));
+        return profiler;
+    }
+
+    private static JsonObject findByName(JsonValue entries, String name) {
+        for (JsonValue entry : entries.asArray()) {
+            if (entry.asObject().getString("name", "").equals(name)) {
+                return entry.asObject();
+            }
+        }
+        throw new AssertionError("Could not find " + name + " in " + entries);
+    }
+
+    private Interpreter interpreter() throws Exception {
+        Path directory = Paths.get(getClass().getResource("/java/profiling").toURI());
+        List<TypeNode> classNodes = new JavaFrontend().readSourceDirectory(list(directory), FileSet.directory(directory));
+        return new Interpreter(JavaProject.of(classNodes));
+    }
+}
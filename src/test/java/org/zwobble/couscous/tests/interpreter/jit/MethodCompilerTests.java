@@ -0,0 +1,120 @@
+package org.zwobble.couscous.tests.interpreter.jit;
+
+import org.junit.Test;
+import org.zwobble.couscous.ast.FormalArgumentNode;
+import org.zwobble.couscous.ast.LocalVariableDeclarationNode;
+import org.zwobble.couscous.ast.MethodNode;
+import org.zwobble.couscous.interpreter.jit.CompiledMethod;
+import org.zwobble.couscous.interpreter.jit.MethodCompiler;
+import org.zwobble.couscous.interpreter.jit.TieredMethod;
+import org.zwobble.couscous.interpreter.values.BooleanInterpreterValue;
+import org.zwobble.couscous.interpreter.values.IntegerInterpreterValue;
+import org.zwobble.couscous.interpreter.values.StringInterpreterValue;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.zwobble.couscous.ast.AssignmentNode.assignStatement;
+import static org.zwobble.couscous.ast.FormalArgumentNode.formalArg;
+import static org.zwobble.couscous.ast.LiteralNode.literal;
+import static org.zwobble.couscous.ast.LocalVariableDeclarationNode.localVariableDeclaration;
+import static org.zwobble.couscous.ast.MethodCallNode.staticMethodCall;
+import static org.zwobble.couscous.ast.MethodNode.staticMethod;
+import static org.zwobble.couscous.ast.Operations.*;
+import static org.zwobble.couscous.ast.ReturnNode.returns;
+import static org.zwobble.couscous.ast.TernaryConditionalNode.ternaryConditional;
+import static org.zwobble.couscous.ast.VariableDeclaration.var;
+import static org.zwobble.couscous.ast.VariableReferenceNode.reference;
+import static org.zwobble.couscous.ast.WhileNode.whileLoop;
+import static org.zwobble.couscous.tests.TestIds.variable;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class MethodCompilerTests {
+    private static final ScalarType CLASS_NAME = ScalarType.topLevel("com.example.Example");
+
+    @Test
+    public void loopOverIntegersIsCompiled() {
+        FormalArgumentNode n = formalArg(var(variable("n"), "n", Types.INT));
+        LocalVariableDeclarationNode result = localVariableDeclaration(variable("result"), "result", Types.INT, literal(1));
+        MethodNode method = staticMethod("factorial")
+            .argument(n)
+            .returns(Types.INT)
+            .statement(result)
+            .statement(whileLoop(
+                greaterThan(reference(n), literal(1)),
+                list(
+                    assignStatement(result, integerMultiply(reference(result), reference(n))),
+                    assignStatement(n, integerSubtract(reference(n), literal(1))))))
+            .statement(returns(reference(result)))
+            .build();
+
+        CompiledMethod compiled = MethodCompiler.compile(CLASS_NAME, method).get();
+
+        assertEquals(
+            Optional.of(new IntegerInterpreterValue(120)),
+            compiled.call(list(new IntegerInterpreterValue(5))));
+    }
+
+    @Test
+    public void recursiveStaticCallsAreCompiled() {
+        FormalArgumentNode n = formalArg(var(variable("n"), "n", Types.INT));
+        MethodNode method = staticMethod("isEven")
+            .argument(n)
+            .returns(Types.BOOLEAN)
+            .statement(returns(ternaryConditional(
+                equal(reference(n), literal(0)),
+                literal(true),
+                booleanAnd(
+                    not(equal(reference(n), literal(1))),
+                    staticMethodCall(CLASS_NAME, "isEven", list(integerSubtract(reference(n), literal(2))), Types.BOOLEAN)))))
+            .build();
+
+        CompiledMethod compiled = MethodCompiler.compile(CLASS_NAME, method).get();
+
+        assertEquals(Optional.of(BooleanInterpreterValue.TRUE), compiled.call(list(new IntegerInterpreterValue(10))));
+        assertEquals(Optional.of(BooleanInterpreterValue.FALSE), compiled.call(list(new IntegerInterpreterValue(7))));
+    }
+
+    @Test
+    public void methodsUsingUnsupportedNodesAreNotCompiled() {
+        MethodNode method = staticMethod("hello")
+            .returns(Types.STRING)
+            .statement(returns(literal("hello")))
+            .build();
+
+        assertEquals(Optional.empty(), MethodCompiler.compile(CLASS_NAME, method));
+    }
+
+    @Test
+    public void compiledMethodIsNotUsedForArgumentsOfUnsupportedTypes() {
+        FormalArgumentNode n = formalArg(var(variable("n"), "n", Types.INT));
+        MethodNode method = staticMethod("identity")
+            .argument(n)
+            .returns(Types.INT)
+            .statement(returns(reference(n)))
+            .build();
+
+        CompiledMethod compiled = MethodCompiler.compile(CLASS_NAME, method).get();
+
+        assertEquals(Optional.empty(), compiled.call(list(StringInterpreterValue.of("n"))));
+    }
+
+    @Test
+    public void methodIsCompiledOnceInvocationsAndBackEdgesCrossThreshold() {
+        MethodNode method = staticMethod("one")
+            .returns(Types.INT)
+            .statement(returns(literal(1)))
+            .build();
+        TieredMethod tieredMethod = new TieredMethod(CLASS_NAME, method, 2);
+
+        tieredMethod.recordInvocation();
+        tieredMethod.recordBackEdge();
+        assertFalse(tieredMethod.isCompiled());
+        tieredMethod.recordInvocation();
+        assertTrue(tieredMethod.isCompiled());
+    }
+}
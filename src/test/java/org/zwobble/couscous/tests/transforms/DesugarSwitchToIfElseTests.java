@@ -126,4 +126,32 @@ public class DesugarSwitchToIfElseTests {
             )
         );
     }
+
+    @Test
+    public void casesOfIntSwitchAreComparedWithEqualityOperator() {
+        VariableDeclaration tmp = var(
+            Identifier.TOP.variable("_couscous_tmp_0"),
+            "_couscous_tmp_0",
+            Types.INT
+        );
+        assertEquals(
+            list(
+                localVariableDeclaration(tmp, literal(1)),
+                ifStatement(
+                    Operations.equal(reference(tmp), literal(2)),
+                    list(returns(literal(0))),
+                    list()
+                )
+            ),
+            DesugarSwitchToIfElse.desugar(
+                Scope.create(),
+                new SwitchNode(
+                    literal(1),
+                    list(
+                        switchCase(literal(2), list(returns(literal(0))))
+                    )
+                )
+            )
+        );
+    }
 }
@@ -0,0 +1,115 @@
+package org.zwobble.couscous.tests.transforms;
+
+import org.junit.Test;
+import org.zwobble.couscous.ast.ExpressionNode;
+import org.zwobble.couscous.ast.FormalArgumentNode;
+import org.zwobble.couscous.ast.Operator;
+import org.zwobble.couscous.ast.StatementBlockNode;
+import org.zwobble.couscous.ast.StatementNode;
+import org.zwobble.couscous.ast.visitors.NodeTransformer;
+import org.zwobble.couscous.transforms.FoldConstants;
+import org.zwobble.couscous.types.Types;
+import org.zwobble.couscous.util.ExtraLists;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.zwobble.couscous.ast.FormalArgumentNode.formalArg;
+import static org.zwobble.couscous.ast.IfStatementNode.ifStatement;
+import static org.zwobble.couscous.ast.LiteralNode.literal;
+import static org.zwobble.couscous.ast.OperationNode.operation;
+import static org.zwobble.couscous.ast.Operations.*;
+import static org.zwobble.couscous.ast.ReturnNode.returns;
+import static org.zwobble.couscous.ast.TernaryConditionalNode.ternaryConditional;
+import static org.zwobble.couscous.ast.VariableDeclaration.var;
+import static org.zwobble.couscous.ast.VariableReferenceNode.reference;
+import static org.zwobble.couscous.tests.TestIds.ANY_ID;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class FoldConstantsTests {
+    private static final FormalArgumentNode ARG = formalArg(var(ANY_ID, "x", Types.BOOLEAN));
+
+    @Test
+    public void integerArithmeticOverflowsAsInJava() {
+        assertEquals(literal(0), fold(integerMultiply(literal(65536), literal(65536))));
+        assertEquals(literal(Integer.MIN_VALUE), fold(integerAdd(literal(Integer.MAX_VALUE), literal(1))));
+        assertEquals(literal(Integer.MIN_VALUE), fold(integerDivide(literal(Integer.MIN_VALUE), literal(-1))));
+    }
+
+    @Test
+    public void integerDivisionTruncatesTowardsZero() {
+        assertEquals(literal(-3), fold(integerDivide(literal(-7), literal(2))));
+        assertEquals(literal(-1), fold(integerMod(literal(-7), literal(2))));
+    }
+
+    @Test
+    public void divisionByZeroIsLeftToRaiseAnErrorAtRuntime() {
+        ExpressionNode division = integerDivide(literal(1), literal(0));
+        assertEquals(division, fold(division));
+    }
+
+    @Test
+    public void nestedOperationsAreFolded() {
+        assertEquals(
+            literal(true),
+            fold(greaterThanOrEqual(
+                integerMultiply(integerAdd(literal(1), literal(2)), literal(3)),
+                integerNegation(literal(-9)))));
+    }
+
+    @Test
+    public void charsAreComparedByCodePoint() {
+        assertEquals(literal(true), fold(lessThan(literal('a'), literal('b'))));
+        assertEquals(literal(true), fold(equal(literal('a'), literal(97))));
+    }
+
+    @Test
+    public void stringConcatenationUsesJavaStringConversion() {
+        ExpressionNode concatenation = literal("a");
+        for (ExpressionNode operand : list(literal(1), literal('c'), literal(true))) {
+            concatenation = operation(Operator.ADD, list(concatenation, operand), Types.STRING);
+        }
+        assertEquals(literal("a1ctrue"), fold(concatenation));
+    }
+
+    @Test
+    public void booleanOperatorsShortCircuitOnConstantLeftOperand() {
+        assertEquals(literal(false), fold(booleanAnd(literal(false), reference(ARG))));
+        assertEquals(reference(ARG), fold(booleanAnd(literal(true), reference(ARG))));
+        assertEquals(literal(true), fold(booleanOr(literal(true), reference(ARG))));
+        assertEquals(literal(false), fold(not(equal(literal(true), literal(true)))));
+    }
+
+    @Test
+    public void constantRightOperandIsOnlyRemovedIfItDoesNotChangeResult() {
+        assertEquals(reference(ARG), fold(booleanAnd(reference(ARG), literal(true))));
+        ExpressionNode operation = booleanOr(reference(ARG), literal(true));
+        assertEquals(operation, fold(operation));
+    }
+
+    @Test
+    public void ternaryConditionalWithConstantConditionIsReplacedByBranch() {
+        assertEquals(
+            literal(2),
+            fold(ternaryConditional(lessThan(literal(2), literal(1)), literal(1), literal(2))));
+    }
+
+    @Test
+    public void ifStatementWithConstantConditionIsReplacedByBlockOfBranch() {
+        assertEquals(
+            list(new StatementBlockNode(list(returns(literal(1))))),
+            fold(ifStatement(literal(true), list(returns(literal(1))), list(returns(literal(2))))));
+        assertEquals(
+            list(),
+            fold(ifStatement(literal(false), list(returns(literal(1))), list())));
+    }
+
+    private static ExpressionNode fold(ExpressionNode expression) {
+        return FoldConstants.transformer().transformExpression(expression);
+    }
+
+    private static List<StatementNode> fold(StatementNode statement) {
+        NodeTransformer transformer = FoldConstants.transformer();
+        return ExtraLists.copyOf(transformer.transformStatement(statement));
+    }
+}
@@ -0,0 +1,143 @@
+package org.zwobble.couscous.tests.transforms;
+
+import org.junit.Test;
+import org.zwobble.couscous.ast.ClassNode;
+import org.zwobble.couscous.ast.InterfaceNode;
+import org.zwobble.couscous.ast.MethodNode;
+import org.zwobble.couscous.ast.TypeNode;
+import org.zwobble.couscous.transforms.TreeShaking;
+import org.zwobble.couscous.types.ScalarType;
+import org.zwobble.couscous.types.Types;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.zwobble.couscous.ast.ConstructorCallNode.constructorCall;
+import static org.zwobble.couscous.ast.ExpressionStatementNode.expressionStatement;
+import static org.zwobble.couscous.ast.MethodCallNode.methodCall;
+import static org.zwobble.couscous.ast.MethodCallNode.staticMethodCall;
+import static org.zwobble.couscous.tests.TestIds.ANY_ID;
+import static org.zwobble.couscous.util.ExtraLists.eagerMap;
+import static org.zwobble.couscous.util.ExtraLists.list;
+
+public class TreeShakingTests {
+    @Test
+    public void typesThatAreNotReferencedFromEntryPointsAreRemoved() {
+        ClassNode main = ClassNode.builder("com.example.Main")
+            .staticMethod("main", method -> method
+                .statement(expressionStatement(staticMethodCall("com.example.Helper", "help", list(), Types.VOID))))
+            .build();
+        ClassNode helper = ClassNode.builder("com.example.Helper")
+            .staticMethod("help", method -> method)
+            .build();
+        ClassNode unused = ClassNode.builder("com.example.Unused").build();
+
+        TreeShaking.Result result = TreeShaking.shake(list(main, helper, unused), list("com.example.Main"));
+
+        assertEquals(list("com.example.Main", "com.example.Helper"), typeNames(result.getTypes()));
+        assertEquals(list(ScalarType.topLevel("com.example.Unused")), result.getRemovedTypes());
+    }
+
+    @Test
+    public void staticMethodsThatAreNotCalledAreRemoved() {
+        ClassNode main = ClassNode.builder("com.example.Main")
+            .staticMethod("main", method -> method
+                .statement(expressionStatement(staticMethodCall("com.example.Main", "used", list(), Types.VOID))))
+            .staticMethod("used", method -> method)
+            .staticMethod("unused", method -> method)
+            .build();
+
+        TreeShaking.Result result = TreeShaking.shake(list(main), list("com.example.Main.main"));
+
+        assertEquals(list("main", "used"), methodNames(result.getTypes().get(0)));
+        assertEquals(list("com.example.Main.unused()"), result.getRemovedMethods());
+    }
+
+    @Test
+    public void removedOverloadsAreReportedWithTheirArgumentTypes() {
+        ClassNode main = ClassNode.builder("com.example.Main")
+            .staticMethod("main", method -> method)
+            .staticMethod("unused", method -> method.argument(ANY_ID, "x", Types.INT))
+            .staticMethod("unused", method -> method.argument(ANY_ID, "x", Types.STRING))
+            .build();
+
+        TreeShaking.Result result = TreeShaking.shake(list(main), list("com.example.Main.main"));
+
+        assertEquals(
+            list("com.example.Main.unused(int)", "com.example.Main.unused(java.lang.String)"),
+            result.getRemovedMethods());
+    }
+
+    @Test
+    public void calledInstanceMethodsAreKeptOnAllReachableImplementations() {
+        ScalarType animal = ScalarType.topLevel("com.example.Animal");
+        ScalarType dog = ScalarType.topLevel("com.example.Dog");
+        ClassNode main = ClassNode.builder("com.example.Main")
+            .staticMethod("main", method -> method
+                .statement(expressionStatement(methodCall(constructorCall(dog, list()), "speak", list(), Types.STRING))))
+            .build();
+        InterfaceNode animalNode = ClassNode.builder(animal)
+            .method("speak", method -> method.returns(Types.STRING))
+            .method("sleep", method -> method)
+            .buildInterface();
+        ClassNode dogNode = ClassNode.builder(dog)
+            .addSuperType("com.example.Animal")
+            .method("speak", method -> method.returns(Types.STRING))
+            .method("sleep", method -> method)
+            .build();
+        ClassNode catNode = ClassNode.builder("com.example.Cat")
+            .addSuperType("com.example.Animal")
+            .method("speak", method -> method.returns(Types.STRING))
+            .build();
+
+        TreeShaking.Result result = TreeShaking.shake(
+            list(main, animalNode, dogNode, catNode),
+            list("com.example.Main.main"));
+
+        assertEquals(
+            list("com.example.Main", "com.example.Animal", "com.example.Dog"),
+            typeNames(result.getTypes()));
+        assertEquals(list("speak"), methodNames(result.getTypes().get(1)));
+        assertEquals(list("speak"), methodNames(result.getTypes().get(2)));
+        assertEquals(list("com.example.Animal.sleep()", "com.example.Dog.sleep()"), result.getRemovedMethods());
+    }
+
+    @Test
+    public void instanceMethodsOfTypesWithSupertypesOutsideOfTheProgramAreKept() {
+        ScalarType task = ScalarType.topLevel("com.example.Task");
+        ScalarType greeter = ScalarType.topLevel("com.example.Greeter");
+        ClassNode main = ClassNode.builder("com.example.Main")
+            .staticMethod("main", method -> method
+                .statement(expressionStatement(constructorCall(task, list())))
+                .statement(expressionStatement(constructorCall(greeter, list()))))
+            .build();
+        ClassNode taskNode = ClassNode.builder(task)
+            .addSuperType("java.lang.Runnable")
+            .method("run", method -> method)
+            .build();
+        ClassNode greeterNode = ClassNode.builder(greeter)
+            .method("run", method -> method)
+            .build();
+
+        TreeShaking.Result result = TreeShaking.shake(
+            list(main, taskNode, greeterNode),
+            list("com.example.Main.main"));
+
+        assertEquals(list("run"), methodNames(result.getTypes().get(1)));
+        assertEquals(list("com.example.Greeter.run()"), result.getRemovedMethods());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void entryPointsMustExist() {
+        ClassNode main = ClassNode.builder("com.example.Main").build();
+        TreeShaking.shake(list(main), list("com.example.Main.missing"));
+    }
+
+    private static List<String> typeNames(List<TypeNode> types) {
+        return eagerMap(types, type -> type.getName().getQualifiedName());
+    }
+
+    private static List<String> methodNames(TypeNode type) {
+        return eagerMap(type.getMethods(), MethodNode::getName);
+    }
+}
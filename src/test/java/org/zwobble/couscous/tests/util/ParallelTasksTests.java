@@ -0,0 +1,52 @@
+package org.zwobble.couscous.tests.util;
+
+import org.junit.Test;
+import org.zwobble.couscous.util.ParallelTasks;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.zwobble.couscous.util.ExtraLists.list;
+import static org.zwobble.couscous.util.ExtraSets.set;
+
+public class ParallelTasksTests {
+    @Test
+    public void taskIsRunForEachValue() throws IOException {
+        Set<Integer> values = new ConcurrentSkipListSet<>();
+        ParallelTasks.forEach(list(1, 2, 3, 4, 5), 4, values::add);
+        assertEquals(set(1, 2, 3, 4, 5), values);
+    }
+
+    @Test
+    public void whenSeveralTasksFailThenFailureOfEarliestValueIsThrown() throws IOException {
+        CountDownLatch laterFailure = new CountDownLatch(1);
+        try {
+            ParallelTasks.forEach(list(1, 2, 3, 4), 4, value -> {
+                if (value == 1) {
+                    // Make sure that a later value has already failed
+                    await(laterFailure);
+                    throw new IOException("1");
+                } else if (value == 3) {
+                    laterFailure.countDown();
+                    throw new IOException("3");
+                }
+            });
+            fail("Expected exception");
+        } catch (IOException exception) {
+            assertEquals("1", exception.getMessage());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example;
+
+public class Arrays {
+    public static int ints(int iterations) {
+        int[] values = new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+        int total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            int index = i % 16;
+            values[index] = values[index] + i;
+            total = total + values[(index + 1) % 16];
+        }
+        return total;
+    }
+
+    public static int booleans(int iterations) {
+        boolean[] flags = new boolean[] {false, false, false, false, false, false, false, false};
+        int count = 0;
+        for (int i = 0; i < iterations; ++i) {
+            int index = i % 8;
+            flags[index] = !flags[index];
+            if (flags[index]) {
+                ++count;
+            }
+        }
+        return count;
+    }
+}
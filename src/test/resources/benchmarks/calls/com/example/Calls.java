@@ -0,0 +1,21 @@
+package com.example;
+
+public class Calls {
+    public static int points(int iterations) {
+        int total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            Point point = new Point(i, total);
+            total = point.getX() - point.getY();
+        }
+        return total;
+    }
+
+    public static int strings(int iterations) {
+        String text = "couscous";
+        int total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            total = total + text.length() + text.substring(1, 4).length();
+        }
+        return total;
+    }
+}
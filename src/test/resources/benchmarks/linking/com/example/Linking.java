@@ -0,0 +1,25 @@
+package com.example;
+
+public class Linking {
+    private static int total = 0;
+
+    public static int staticCalls(int iterations) {
+        total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            add(i % 7);
+        }
+        return total;
+    }
+
+    public static int constructors(int iterations) {
+        int total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            total = total + new Point(i, 1).getY();
+        }
+        return total;
+    }
+
+    private static void add(int value) {
+        total = total + value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example;
+
+public class Factorials {
+    public static int sum(int iterations) {
+        int total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            int result = 1;
+            for (int j = 2; j <= 12; ++j) {
+                result *= j;
+            }
+            total = total + result % 7;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example;
+
+public class Loops {
+    public static int nested(int iterations) {
+        int total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            int j = 0;
+            while (j < 10) {
+                if (j < 5) {
+                    total = total + j;
+                } else {
+                    total = total - 1;
+                }
+                ++j;
+            }
+        }
+        return total;
+    }
+}
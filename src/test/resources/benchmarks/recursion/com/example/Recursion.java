@@ -0,0 +1,11 @@
+package com.example;
+
+public class Recursion {
+    public static int fib(int n) {
+        return n < 2 ? n : fib(n - 1) + fib(n - 2);
+    }
+
+    public static int depth(int n) {
+        return n == 0 ? 0 : 1 + depth(n - 1);
+    }
+}
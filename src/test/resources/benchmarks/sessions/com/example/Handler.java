@@ -0,0 +1,19 @@
+package com.example;
+
+public class Handler {
+    private static int seed = computeSeed();
+    private static int handled = 0;
+
+    private static int computeSeed() {
+        int seed = 0;
+        for (int i = 0; i < 1000; ++i) {
+            seed = (seed * 31 + i) % 1000003;
+        }
+        return seed;
+    }
+
+    public static int handle(int request) {
+        handled = handled + 1;
+        return request + seed;
+    }
+}
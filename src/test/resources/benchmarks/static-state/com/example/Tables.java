@@ -0,0 +1,20 @@
+package com.example;
+
+public class Tables {
+    private static int[] table = buildTable();
+    private static String name = "tables";
+
+    private static int[] buildTable() {
+        int[] table = new int[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+        int seed = 17;
+        for (int i = 0; i < 5000; ++i) {
+            seed = (seed * 31 + i) % 1000003;
+            table[i % 16] = table[i % 16] + seed % 7;
+        }
+        return table;
+    }
+
+    public static int lookup(int index) {
+        return table[index % 16];
+    }
+}
@@ -0,0 +1,23 @@
+package com.example;
+
+public class Strings {
+    public static int build(int iterations) {
+        String text = "";
+        for (int i = 0; i < iterations; ++i) {
+            text = text + "item, ";
+        }
+        return text.length();
+    }
+
+    public static int buildAndCompare(int iterations) {
+        String text = "";
+        int matches = 0;
+        for (int i = 0; i < iterations; ++i) {
+            text = text + "item, ";
+            if (text.substring(0, 4).equals("item")) {
+                matches = matches + 1;
+            }
+        }
+        return matches;
+    }
+}
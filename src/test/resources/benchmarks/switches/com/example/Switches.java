@@ -0,0 +1,93 @@
+package com.example;
+
+public class Switches {
+    public static int dispatch(int iterations) {
+        int total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            total = total + month(i % 13) + days(monthName(i % 12));
+        }
+        return total;
+    }
+
+    private static int month(int month) {
+        switch (month) {
+            case 0:
+                return 31;
+            case 1:
+                return 28;
+            case 2:
+                return 31;
+            case 3:
+                return 30;
+            case 4:
+                return 31;
+            case 5:
+                return 30;
+            case 6:
+                return 31;
+            case 7:
+                return 31;
+            case 8:
+                return 30;
+            case 9:
+                return 31;
+            case 10:
+                return 30;
+            case 11:
+                return 31;
+            default:
+                return 0;
+        }
+    }
+
+    private static String monthName(int month) {
+        switch (month) {
+            case 0:
+                return "January";
+            case 1:
+                return "February";
+            case 2:
+                return "March";
+            case 3:
+                return "April";
+            case 4:
+                return "May";
+            case 5:
+                return "June";
+            case 6:
+                return "July";
+            case 7:
+                return "August";
+            case 8:
+                return "September";
+            case 9:
+                return "October";
+            case 10:
+                return "November";
+            default:
+                return "December";
+        }
+    }
+
+    private static int days(String month) {
+        switch (month) {
+            case "February":
+                return 28;
+            case "April":
+            case "June":
+            case "September":
+            case "November":
+                return 30;
+            case "January":
+            case "March":
+            case "May":
+            case "July":
+            case "August":
+            case "October":
+            case "December":
+                return 31;
+            default:
+                return 0;
+        }
+    }
+}
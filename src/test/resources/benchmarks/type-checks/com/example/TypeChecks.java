@@ -0,0 +1,31 @@
+package com.example;
+
+public class TypeChecks {
+    public static int casts(int iterations) {
+        Object value = new Leaf();
+        int count = 0;
+        for (int i = 0; i < iterations; ++i) {
+            Middle middle = (Middle) value;
+            Root root = (Root) value;
+            Leaf leaf = (Leaf) root;
+            ++count;
+        }
+        return count;
+    }
+
+    public static int assignments(int iterations) {
+        Leaf leaf = new Leaf();
+        Middle middle = leaf;
+        Root root = leaf;
+        Object value = leaf;
+        int count = 0;
+        for (int i = 0; i < iterations; ++i) {
+            middle = leaf;
+            root = middle;
+            value = root;
+            root = leaf;
+            ++count;
+        }
+        return count;
+    }
+}
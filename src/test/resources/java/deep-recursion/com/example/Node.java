@@ -0,0 +1,9 @@
+package com.example;
+
+public class Node {
+    public int value;
+
+    public Node(int value) {
+        this.value = value;
+    }
+}
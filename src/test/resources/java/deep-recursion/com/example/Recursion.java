@@ -0,0 +1,15 @@
+package com.example;
+
+public class Recursion {
+    public static int sum(int n) {
+        return n == 0 ? 0 : n + sum(n - 1);
+    }
+
+    public static int countDown(int n) {
+        if (n == 0) {
+            return 0;
+        }
+        Node node = new Node(n);
+        return node.value - n + 1 + countDown(n - 1);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example;
+
+public class Box {
+    public int value;
+
+    public Box(int value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example;
+
+public class Loops {
+    public static int sumDownFrom(int n) {
+        while (n < 0) {
+            n = n + 1;
+        }
+        int total = 0;
+        while (n > 0) {
+            total = total + n;
+            n = n - 1;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example;
+
+public class Overloads {
+    public static int describe(int x) {
+        return x;
+    }
+
+    public static int describe(String x) {
+        return x.length();
+    }
+
+    public static int run() {
+        return describe("a") + describe("bc") + describe(3);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example;
+
+public class Squares {
+    public static int sumOfSquares(int n) {
+        int total = 0;
+        int i = 0;
+        while (i < n) {
+            total = total + square(i);
+            i = i + 1;
+        }
+        return total;
+    }
+
+    private static int square(int x) {
+        return new Box(x * x).value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example;
+
+public class Counter {
+    private static int count = 0;
+
+    public static int increment() {
+        count = count + 1;
+        return count;
+    }
+
+    public static int incrementTwice() {
+        increment();
+        return increment();
+    }
+}
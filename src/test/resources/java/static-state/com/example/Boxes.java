@@ -0,0 +1,12 @@
+package com.example;
+
+public class Boxes {
+    private static Box<String> box = create();
+
+    private static <T> Box<T> create() {
+        return new Box<T>();
+    }
+
+    public static class Box<T> {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example;
+
+public class Entry {
+    public String name;
+    public int value;
+
+    public Entry(String name, int value) {
+        this.name = name;
+        this.value = value;
+    }
+}
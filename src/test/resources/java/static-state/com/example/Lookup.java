@@ -0,0 +1,21 @@
+package com.example;
+
+public class Lookup {
+    private static int[] squares = new int[] {0, 1, 4, 9, 16};
+    private static Entry first = new Entry("one", 1);
+    private static Entry[] entries = new Entry[] {first, new Entry("two", 2)};
+
+    public static int square(int index) {
+        return squares[index];
+    }
+
+    public static String rename(String name) {
+        first.name = name;
+        return entries[0].name;
+    }
+
+    public static int incrementSquare(int index) {
+        squares[index] = squares[index] + 1;
+        return squares[index];
+    }
+}
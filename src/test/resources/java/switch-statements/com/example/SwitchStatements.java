@@ -27,4 +27,44 @@ public class SwitchStatements {
         }
         return 0;
     }
+
+    public static int dayOfWeek(String value) {
+        switch (value) {
+            case "monday":
+                return 1;
+            case "tuesday":
+                return 2;
+            case "wednesday":
+                return 3;
+            case "thursday":
+                return 4;
+            case "friday":
+                return 5;
+            case "saturday":
+            case "sunday":
+                return 6;
+            default:
+                return 0;
+        }
+    }
+
+    public static int intFallthrough(int value) {
+        int total = 0;
+        switch (value) {
+            case 1:
+                total = total + 1;
+            case 2:
+                total = total + 10;
+                return total;
+            case 3:
+            case 4:
+            case 5:
+                return 3;
+            case 6:
+                total = total + 6;
+            default:
+                total = total + 100;
+        }
+        return total;
+    }
 }